@@ -0,0 +1,132 @@
+package com.kadiryuksel.peratestcase.benchmark;
+
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerTeamUpdateDto;
+import com.kadiryuksel.peratestcase.entity.Player;
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.response.CursorPage;
+import com.kadiryuksel.peratestcase.service.PlayerService;
+import com.kadiryuksel.peratestcase.service.RosterResponseCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Service layer benchmarks, run each operation once per backend to split service overhead from database cost
+//Run with: mvn -Pbenchmark test-compile exec:exec
+//Other JMH options go in -Djmh.args, the default adds the GC profiler and writes target/jmh-result.json
+//Operations that use up their data run as single shots over a batch prepared per iteration, scored per call of the batch
+//JMH cannot time a setup per call reliably when the call itself takes less than a millisecond
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FootballClubServiceBenchmark {
+    public static final int PAGE_SIZE = 50;
+    //Five full rosters
+    public static final int BATCH_SIZE = 5 * PlayerService.MAX_PLAYER_COUNT;
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public String addNewFootballPlayer(ServiceBackend backend, Registration registration) {
+        return backend.footballClubService.addNewFootballPlayer(registration.playerDtos.remove());
+    }
+
+    @Benchmark
+    public String changePlayerTeam(ServiceBackend backend, Transfer transfer) {
+        return backend.footballClubService.changePlayerTeam(transfer.next());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public String deleteTeamById(ServiceBackend backend, TeamDeletion teamDeletion) {
+        return backend.footballClubService.deleteTeamById(teamDeletion.teamIds.remove());
+    }
+
+    @Benchmark
+    public CursorPage<Team> getAllFootballTeams(ServiceBackend backend) {
+        return backend.footballClubService.getAllFootballTeams(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<Player> getTeamPlayers(ServiceBackend backend) {
+        return backend.footballClubService.getTeamPlayersByTeamId(backend.seededTeamId, 0, PAGE_SIZE);
+    }
+
+    //Same page as getTeamPlayers as served by the endpoint, from the roster cache after the first call
+    @Benchmark
+    public RosterResponseCache.Page getSerializedTeamPlayers(ServiceBackend backend) {
+        return backend.footballClubService.getSerializedTeamPlayers(backend.seededTeamId, 0, PAGE_SIZE);
+    }
+
+    //New players filling empty teams, the teams go again with their players after the iteration
+    @State(Scope.Thread)
+    public static class Registration {
+        private final List<Long> teamIds = new ArrayList<>();
+        private final Deque<FootballPlayerRegistrationDto> playerDtos = new ArrayDeque<>();
+
+        @Setup(Level.Iteration)
+        public void newPlayers(ServiceBackend backend) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                if (i % PlayerService.MAX_PLAYER_COUNT == 0) {
+                    teamIds.add(backend.createTeam());
+                }
+                playerDtos.add(backend.newPlayer(teamIds.get(teamIds.size() - 1)));
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void removeTeams(ServiceBackend backend) {
+            teamIds.forEach(backend.footballClubService::deleteTeamById);
+            teamIds.clear();
+            playerDtos.clear();
+        }
+    }
+
+    //One player moved back and forth between two teams
+    @State(Scope.Thread)
+    public static class Transfer {
+        private FootballPlayerTeamUpdateDto toSecondTeam;
+        private FootballPlayerTeamUpdateDto toFirstTeam;
+        private boolean onFirstTeam;
+
+        @Setup(Level.Trial)
+        public void createTeams(ServiceBackend backend) {
+            long firstTeamId = backend.createTeam();
+            long secondTeamId = backend.createTeam();
+            long playerId = backend.createPlayer(firstTeamId);
+            toSecondTeam = new FootballPlayerTeamUpdateDto(playerId, secondTeamId);
+            toFirstTeam = new FootballPlayerTeamUpdateDto(playerId, firstTeamId);
+            onFirstTeam = true;
+        }
+
+        private FootballPlayerTeamUpdateDto next() {
+            FootballPlayerTeamUpdateDto transfer = onFirstTeam ? toSecondTeam : toFirstTeam;
+            onFirstTeam = !onFirstTeam;
+            return transfer;
+        }
+    }
+
+    //A fresh team with a full starting roster for every call of the batch
+    @State(Scope.Thread)
+    public static class TeamDeletion {
+        private final Deque<Long> teamIds = new ArrayDeque<>();
+
+        @Setup(Level.Iteration)
+        public void createTeams(ServiceBackend backend) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                teamIds.add(backend.createTeamWithRoster());
+            }
+        }
+    }
+}
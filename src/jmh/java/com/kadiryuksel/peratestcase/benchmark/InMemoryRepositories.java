@@ -0,0 +1,257 @@
+package com.kadiryuksel.peratestcase.benchmark;
+
+import com.kadiryuksel.peratestcase.entity.Player;
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.projection.PlayerName;
+import com.kadiryuksel.peratestcase.projection.RosterCounts;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//Map backed stand-ins for the repositories, so the services can be measured without any database cost
+//Only the methods the services call are implemented, any other call fails loudly
+class InMemoryRepositories {
+    private final ConcurrentNavigableMap<Long, Team> teams = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<Long, Player> players = new ConcurrentSkipListMap<>();
+    private final Map<List<String>, Player> playersByName = new ConcurrentHashMap<>();
+    private final AtomicLong teamIds = new AtomicLong();
+    private final AtomicLong playerIds = new AtomicLong();
+
+    TeamRepository teamRepository() {
+        return proxy(TeamRepository.class, this::invokeOnTeams);
+    }
+
+    PlayerRepository playerRepository() {
+        return proxy(PlayerRepository.class, this::invokeOnPlayers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invokeOnTeams(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "save":
+                return saveTeam((Team) args[0]);
+            case "saveAll":
+                return stream((Iterable<Team>) args[0]).map(this::saveTeam).collect(Collectors.toList());
+            case "findAll":
+                if (args == null) {
+                    return new ArrayList<>(teams.values());
+                }
+                break;
+            case "findAllById":
+                return stream((Iterable<Long>) args[0]).map(teams::get).filter(Objects::nonNull).collect(Collectors.toList());
+            case "findById":
+                return Optional.ofNullable(teams.get((Long) args[0]));
+            case "findTeamById":
+            case "getReferenceById":
+                return teams.get((Long) args[0]);
+            case "findTeamByTeamName":
+                return teams.values().stream().filter(team -> team.getTeamName().equals(args[0])).findFirst().orElse(null);
+            case "findByTeamNameIn":
+                return teams.values().stream().filter(team -> ((Collection<String>) args[0]).contains(team.getTeamName())).collect(Collectors.toList());
+            case "findExistingTeamNames":
+                return teams.values().stream().map(Team::getTeamName).filter(((Collection<String>) args[0])::contains).collect(Collectors.toList());
+            case "findByIdGreaterThanOrderByIdAsc":
+                return page(teams, (Long) args[0], (Pageable) args[1]);
+            case "deleteTeamById":
+                return teams.remove((Long) args[0]) != null ? 1 : 0;
+            case "deleteByIdIn":
+                return (int) ((Collection<Long>) args[0]).stream().filter(teamId -> teams.remove(teamId) != null).count();
+            case "admitPlayers":
+                return admitPlayers((Long) args[0], (Integer) args[1], (Integer) args[2], (Integer) args[3],
+                        (Integer) args[4], (Integer) args[5], (Integer) args[6]);
+            case "releasePlayer":
+                return changeRoster((Long) args[0], -1, -(Integer) args[1], -(Integer) args[2]);
+            case "releasePlayers":
+                return changeRoster((Long) args[0], -(Integer) args[1], -(Integer) args[2], -(Integer) args[3]);
+            //There is no cache to evict from
+            case "evictTeamFromCache":
+                return null;
+        }
+        throw unsupported(TeamRepository.class, method);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invokeOnPlayers(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "save":
+                return savePlayer((Player) args[0]);
+            case "saveAll":
+                return stream((Iterable<Player>) args[0]).map(this::savePlayer).collect(Collectors.toList());
+            case "delete":
+                removePlayer((Player) args[0]);
+                return null;
+            case "count":
+                return (long) players.size();
+            case "findById":
+                return Optional.ofNullable(players.get((Long) args[0]));
+            case "getPlayersByTeamId":
+                return playersOfTeam((Long) args[0]);
+            case "findByTeamIdAndIdGreaterThanOrderByIdAsc":
+                return players.tailMap((Long) args[1], false).values().stream()
+                        .filter(player -> player.getTeam().getId().equals(args[0]))
+                        .limit(((Pageable) args[2]).getPageSize())
+                        .collect(Collectors.toList());
+            case "findWithTeamByFirstNameAndLastName":
+                return Optional.ofNullable(playersByName.get(List.of((String) args[0], (String) args[1])));
+            case "findWithTeamByFirstNameInAndLastNameIn":
+                return players.values().stream()
+                        .filter(player -> ((Collection<String>) args[0]).contains(player.getFirstName())
+                                && ((Collection<String>) args[1]).contains(player.getLastName()))
+                        .collect(Collectors.toList());
+            case "countRosterByTeamId":
+                return countRoster((Long) args[0]);
+            case "findNamesByTeamIdIn":
+                return playersOfTeams((Collection<Long>) args[0]).stream().map(InMemoryRepositories::playerName).collect(Collectors.toList());
+            case "deleteByTeamIdIn":
+                List<Player> teamPlayers = playersOfTeams((Collection<Long>) args[0]);
+                teamPlayers.forEach(this::removePlayer);
+                return teamPlayers.size();
+            case "findWithTeamByIdIn":
+                return ((Collection<Long>) args[0]).stream().map(players::get).filter(Objects::nonNull).collect(Collectors.toList());
+            case "deleteByIdIn":
+                List<Player> deletedPlayers = ((Collection<Long>) args[0]).stream().map(players::get).filter(Objects::nonNull).collect(Collectors.toList());
+                deletedPlayers.forEach(this::removePlayer);
+                return deletedPlayers.size();
+            case "streamAllNames":
+                return players.values().stream().map(InMemoryRepositories::playerName);
+        }
+        throw unsupported(PlayerRepository.class, method);
+    }
+
+    private Team saveTeam(Team team) {
+        if (team.getId() == null) {
+            team.setId(teamIds.incrementAndGet());
+        }
+        teams.put(team.getId(), team);
+        return team;
+    }
+
+    private Player savePlayer(Player player) {
+        if (player.getId() == null) {
+            player.setId(playerIds.incrementAndGet());
+        }
+        players.put(player.getId(), player);
+        playersByName.put(List.of(player.getFirstName(), player.getLastName()), player);
+        return player;
+    }
+
+    private void removePlayer(Player player) {
+        players.remove(player.getId());
+        playersByName.remove(List.of(player.getFirstName(), player.getLastName()));
+    }
+
+    private List<Player> playersOfTeam(long teamId) {
+        return players.values().stream()
+                .filter(player -> player.getTeam().getId() == teamId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Player> playersOfTeams(Collection<Long> teamIds) {
+        return players.values().stream()
+                .filter(player -> teamIds.contains(player.getTeam().getId()))
+                .collect(Collectors.toList());
+    }
+
+    private static PlayerName playerName(Player player) {
+        return new PlayerName() {
+            public String getFirstName() {
+                return player.getFirstName();
+            }
+
+            public String getLastName() {
+                return player.getLastName();
+            }
+        };
+    }
+
+    //Same checks as the conditional update in TeamRepository
+    private synchronized int admitPlayers(long teamId, int addedPlayers, int addedForeign, int addedGoalkeepers,
+                                          int maxPlayers, int maxForeign, int maxGoalkeepers) {
+        Team team = teams.get(teamId);
+        if (team == null
+                || team.getPlayerCount() + addedPlayers > maxPlayers
+                || team.getForeignCount() + addedForeign > maxForeign
+                || team.getGoalkeeperCount() + addedGoalkeepers > maxGoalkeepers) {
+            return 0;
+        }
+        return changeRoster(teamId, addedPlayers, addedForeign, addedGoalkeepers);
+    }
+
+    private synchronized int changeRoster(long teamId, int addedPlayers, int addedForeign, int addedGoalkeepers) {
+        Team team = teams.get(teamId);
+        if (team == null) {
+            return 0;
+        }
+        team.setPlayerCount(team.getPlayerCount() + addedPlayers);
+        team.setForeignCount(team.getForeignCount() + addedForeign);
+        team.setGoalkeeperCount(team.getGoalkeeperCount() + addedGoalkeepers);
+        return 1;
+    }
+
+    private RosterCounts countRoster(long teamId) {
+        List<Player> teamPlayers = playersOfTeam(teamId);
+        int foreignCount = (int) teamPlayers.stream().filter(player -> player.getNationality() == Nationality.FOREIGN).count();
+        int goalkeeperCount = (int) teamPlayers.stream().filter(player -> player.getPlayerType() == PlayerType.GOALKEEPER).count();
+        return new RosterCounts() {
+            public int getPlayerCount() {
+                return teamPlayers.size();
+            }
+
+            public int getForeignCount() {
+                return foreignCount;
+            }
+
+            public int getGoalkeeperCount() {
+                return goalkeeperCount;
+            }
+        };
+    }
+
+    private static <T> List<T> page(NavigableMap<Long, T> rows, long afterId, Pageable pageable) {
+        return rows.tailMap(afterId, false).values().stream()
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    private static <T> Stream<T> stream(Iterable<T> iterable) {
+        return StreamSupport.stream(iterable.spliterator(), false);
+    }
+
+    private static <T> T proxy(Class<T> repositoryType, RepositoryCall call) {
+        return repositoryType.cast(Proxy.newProxyInstance(InMemoryRepositories.class.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "InMemory" + repositoryType.getSimpleName();
+                        default:
+                            return call.invoke(method, args);
+                    }
+                }));
+    }
+
+    private static UnsupportedOperationException unsupported(Class<?> repositoryType, Method method) {
+        return new UnsupportedOperationException(String.format("%s.%s is not supported in memory.",
+                repositoryType.getSimpleName(), method.getName()));
+    }
+
+    private interface RepositoryCall {
+        Object invoke(Method method, Object[] args);
+    }
+}
@@ -0,0 +1,116 @@
+package com.kadiryuksel.peratestcase.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kadiryuksel.peratestcase.PeratestcaseApplication;
+import com.kadiryuksel.peratestcase.config.PlayerNameFilterProperties;
+import com.kadiryuksel.peratestcase.config.RosterCacheProperties;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import com.kadiryuksel.peratestcase.service.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+//FootballClubService wired either to the H2 database of the test profile or to in-memory repositories
+//Both are seeded with the same teams and players so the two backends run the same work
+@State(Scope.Benchmark)
+public class ServiceBackend {
+    public static final int SEEDED_TEAMS = 50;
+    public static final int ROSTER_SIZE = 11;
+
+    @Param({"database", "memory"})
+    public String backend;
+
+    FootballClubService footballClubService;
+    TeamRepository teamRepository;
+    PlayerRepository playerRepository;
+    long seededTeamId;
+
+    private ConfigurableApplicationContext context;
+    private final AtomicInteger nameNumber = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void start() {
+        if (backend.equals("database")) {
+            context = new SpringApplicationBuilder(PeratestcaseApplication.class)
+                    .profiles("test")
+                    .web(WebApplicationType.NONE)
+                    .run();
+            footballClubService = context.getBean(FootballClubService.class);
+            teamRepository = context.getBean(TeamRepository.class);
+            playerRepository = context.getBean(PlayerRepository.class);
+        } else {
+            InMemoryRepositories repositories = new InMemoryRepositories();
+            teamRepository = repositories.teamRepository();
+            playerRepository = repositories.playerRepository();
+            PlayerNameFilter playerNameFilter = new PlayerNameFilter(playerRepository, new PlayerNameFilterProperties());
+            playerNameFilter.rebuild();
+            TeamDirectory teamDirectory = new TeamDirectory(teamRepository, new SimpleMeterRegistry());
+            teamDirectory.reload();
+            RosterCacheProperties rosterCacheProperties = new RosterCacheProperties();
+            TeamVersions teamVersions = new TeamVersions(rosterCacheProperties);
+            footballClubService = new FootballClubService(
+                    new TeamService(teamRepository, teamDirectory, teamVersions),
+                    new PlayerService(playerRepository, teamRepository, playerNameFilter, teamVersions),
+                    new RosterResponseCache(rosterCacheProperties, new SimpleMeterRegistry()),
+                    teamVersions,
+                    new ObjectMapper());
+        }
+
+        for (int i = 0; i < SEEDED_TEAMS; i++) {
+            long teamId = createTeamWithRoster();
+            if (i == 0) {
+                seededTeamId = teamId;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    long createTeam() {
+        String teamName = uniqueName("Team");
+        footballClubService.addNewFootballTeam(teamName);
+        return teamRepository.findTeamByTeamName(teamName).getId();
+    }
+
+    long createTeamWithRoster() {
+        long teamId = createTeam();
+        for (int i = 0; i < ROSTER_SIZE; i++) {
+            createPlayer(teamId);
+        }
+        return teamId;
+    }
+
+    long createPlayer(long teamId) {
+        FootballPlayerRegistrationDto playerDto = newPlayer(teamId);
+        footballClubService.addNewFootballPlayer(playerDto);
+        return findPlayerId(playerDto);
+    }
+
+    //Outfield players only, so rosters never run into the goalkeeper or foreign player limits
+    FootballPlayerRegistrationDto newPlayer(long teamId) {
+        return new FootballPlayerRegistrationDto(uniqueName("Player"), "Benchmark", Nationality.LOCAL, PlayerType.MIDFIELDER, teamId);
+    }
+
+    long findPlayerId(FootballPlayerRegistrationDto playerDto) {
+        return playerRepository.findWithTeamByFirstNameAndLastName(playerDto.getFirstName(), playerDto.getLastName())
+                .orElseThrow()
+                .getId();
+    }
+
+    private String uniqueName(String prefix) {
+        return prefix + nameNumber.incrementAndGet();
+    }
+}
@@ -1,13 +1,27 @@
 package com.kadiryuksel.peratestcase;
 
+import com.kadiryuksel.peratestcase.config.StartupProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
 
-@SpringBootApplication
+//The R2DBC starters of -Preactive share the classpath with this application, it stays on JDBC
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class PeratestcaseApplication {
+	//Enough for every step of a startup, later steps are dropped
+	private static final int STARTUP_STEP_CAPACITY = 4096;
 
 	public static void main(String[] args) {
-		SpringApplication.run(PeratestcaseApplication.class, args);
+		SpringApplication application = new SpringApplication(PeratestcaseApplication.class);
+		//Startup steps for the startup actuator endpoint and StartupTimeline
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+		ConfigurableApplicationContext context = application.run(args);
+		//The AppCDS training run of the prod build ends here, the archive is written when the JVM exits
+		if (context.getBean(StartupProperties.class).isExitWhenReady()) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -1,9 +1,13 @@
 package com.kadiryuksel.peratestcase.advice;
 
+import com.kadiryuksel.peratestcase.entity.Player;
 import com.kadiryuksel.peratestcase.exception.*;
 import com.kadiryuksel.peratestcase.response.AlreadyExistsExceptionResponse;
 import com.kadiryuksel.peratestcase.response.BadRequestResponse;
 import com.kadiryuksel.peratestcase.response.NotFoundExceptionResponse;
+import com.kadiryuksel.peratestcase.response.ServiceUnavailableResponse;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -12,6 +16,8 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import javax.validation.ConstraintViolationException;
+import java.util.Locale;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @ControllerAdvice
@@ -50,6 +56,24 @@ public class ErrorHandlingAdvice {
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
 
+    //Two registrations of the same new name can both pass the checks, the unique name index rejects the second one
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<AlreadyExistsExceptionResponse> handleDataIntegrityViolationException(DataIntegrityViolationException exception){
+        String cause = String.valueOf(exception.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        String message = cause.contains(Player.NAME_CONSTRAINT) ?
+                "A player with the same first name and last name already exists." :
+                "The request conflicts with the stored data.";
+        AlreadyExistsExceptionResponse response = new AlreadyExistsExceptionResponse(message);
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    //A concurrent request changed the same rows first, for example deleted a player of a bulk delete
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<AlreadyExistsExceptionResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException exception){
+        AlreadyExistsExceptionResponse response = new AlreadyExistsExceptionResponse("The data changed during the request, try again.");
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<NotFoundExceptionResponse> handleTeamNotFoundException(NotFoundException exception){
         NotFoundExceptionResponse response = new NotFoundExceptionResponse(exception.getMessage());
@@ -69,4 +93,17 @@ public class ErrorHandlingAdvice {
         AlreadyExistsExceptionResponse response = new AlreadyExistsExceptionResponse(exception.getMessage());
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ServiceUnavailableResponse> handleServiceBusyException(ServiceBusyException exception){
+        ServiceUnavailableResponse response = new ServiceUnavailableResponse(exception.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    //Async handlers that did not finish within async-endpoints.timeout-millis
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<ServiceUnavailableResponse> handleTimeoutException(TimeoutException exception){
+        ServiceUnavailableResponse response = new ServiceUnavailableResponse("The request timed out, try again later.");
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
@@ -0,0 +1,15 @@
+package com.kadiryuksel.peratestcase.config;
+
+import com.kadiryuksel.peratestcase.controller.EndpointExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AsyncEndpointConfig {
+    @Bean
+    public EndpointExecutor endpointExecutor(AsyncEndpointProperties asyncEndpointProperties,
+                                             VirtualThreadProperties virtualThreadProperties, MeterRegistry meterRegistry) {
+        return new EndpointExecutor(asyncEndpointProperties, virtualThreadProperties, meterRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package com.kadiryuksel.peratestcase.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "async-endpoints")
+@Data
+public class AsyncEndpointProperties {
+    //When false the handlers run on the container threads as before
+    private boolean enabled = true;
+    //Read and write threads together match the default Hikari pool of 10, so a worker never waits for a connection
+    //They also cap connection-pool-sizing.max-size, the imports and exports on container threads take their connections on top
+    private int readThreads = 6;
+    private int writeThreads = 4;
+    //Requests waiting per pool, the next one is rejected with 503
+    private int queueCapacity = 100;
+    //Includes the time in the queue, a request still queued at the timeout is never run
+    private long timeoutMillis = 10000;
+}
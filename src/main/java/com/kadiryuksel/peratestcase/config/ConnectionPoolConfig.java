@@ -0,0 +1,35 @@
+package com.kadiryuksel.peratestcase.config;
+
+import com.kadiryuksel.peratestcase.metrics.ConnectionPoolSizer;
+import com.kadiryuksel.peratestcase.metrics.InstrumentedDataSource;
+import com.kadiryuksel.peratestcase.util.VirtualThreads;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+//Active with connection-pool-sizing.enabled=true, the pool metrics themselves come from Spring Boot under hikaricp.connections
+@Configuration
+@ConditionalOnProperty(prefix = "connection-pool-sizing", name = "enabled", havingValue = "true")
+public class ConnectionPoolConfig {
+
+    @Bean
+    public ConnectionPoolSizer connectionPoolSizer(DataSource dataSource, MeterRegistry meterRegistry,
+                                                   ConnectionPoolSizingProperties connectionPoolSizingProperties,
+                                                   AsyncEndpointProperties asyncEndpointProperties,
+                                                   VirtualThreadProperties virtualThreadProperties) throws SQLException {
+        if (!(dataSource instanceof InstrumentedDataSource) || !dataSource.isWrapperFor(HikariDataSource.class)) {
+            throw new IllegalStateException("Connection pool sizing needs the instrumented Hikari data source.");
+        }
+        //The endpoint pools on platform threads are the only ones that can use more connections, so they bound the pool too
+        boolean endpointThreadsBounded = asyncEndpointProperties.isEnabled() && !(virtualThreadProperties.isEnabled() && VirtualThreads.isSupported());
+        int maxUsers = endpointThreadsBounded ?
+                asyncEndpointProperties.getReadThreads() + asyncEndpointProperties.getWriteThreads() : Integer.MAX_VALUE;
+        return new ConnectionPoolSizer(dataSource.unwrap(HikariDataSource.class), ((InstrumentedDataSource) dataSource).getTimings(),
+                connectionPoolSizingProperties, maxUsers, meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.kadiryuksel.peratestcase.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "connection-pool-sizing")
+@Data
+public class ConnectionPoolSizingProperties {
+    //Lets ConnectionPoolSizer change the maximum size of the connection pool, otherwise it stays at spring.datasource.hikari.maximum-pool-size
+    private boolean enabled = false;
+    //Bounds of the maximum pool size, capped at async-endpoints.read-threads plus write-threads while the endpoint pools run on platform threads
+    //Raise those thread counts together with max-size, the pool cannot usefully grow past the threads using it
+    private int minSize = 5;
+    private int maxSize = 30;
+    //Time between two sizing decisions
+    private long intervalMillis = 5000;
+    //Connections added or removed by one decision
+    private int step = 2;
+    //Average wait for a connection from which the pool counts as too small
+    private double waitThresholdMillis = 5;
+    //Statements slower than their best recent average by this factor mean the database is the bottleneck, the pool is not grown then
+    private double latencyTolerance = 2.0;
+    //The pool shrinks when fewer connections than this share of it were in use on average
+    private double shrinkUtilization = 0.5;
+}
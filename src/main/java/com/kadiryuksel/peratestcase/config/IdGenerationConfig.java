@@ -0,0 +1,16 @@
+package com.kadiryuksel.peratestcase.config;
+
+import com.kadiryuksel.peratestcase.entity.PooledSequenceGenerator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGenerationConfig {
+
+    //Id generators are created by Hibernate, they read the allocation size from the Hibernate settings
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationSizeCustomizer(IdGenerationProperties idGenerationProperties) {
+        return properties -> properties.put(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, idGenerationProperties.getAllocationSize());
+    }
+}
@@ -0,0 +1,14 @@
+package com.kadiryuksel.peratestcase.config;
+
+import com.kadiryuksel.peratestcase.entity.PooledSequenceGenerator;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "id-generation")
+@Data
+public class IdGenerationProperties {
+    //Ids taken from the player and team sequences at once, must match the increment of the sequences in the database
+    private int allocationSize = PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE;
+}
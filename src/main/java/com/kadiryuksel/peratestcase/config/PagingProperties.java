@@ -0,0 +1,23 @@
+package com.kadiryuksel.peratestcase.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "paging")
+@Data
+public class PagingProperties {
+    //Page size of requests that send a cursor but no size
+    private int defaultSize = 50;
+    //Also the page size of requests with neither cursor nor size, so clients written before paging get every list
+    //up to this size whole, longer ones end with the X-Next-Cursor header
+    private int maxSize = 500;
+
+    public int resolveSize(Integer requestedSize, Long afterId) {
+        if (requestedSize != null) {
+            return Math.min(requestedSize, maxSize);
+        }
+        return afterId == null ? maxSize : defaultSize;
+    }
+}
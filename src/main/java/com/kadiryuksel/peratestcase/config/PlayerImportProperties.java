@@ -0,0 +1,17 @@
+package com.kadiryuksel.peratestcase.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "player-import")
+@Data
+public class PlayerImportProperties {
+    //Rows registered in one transaction
+    private int chunkSize = 1000;
+    //Chunks a stage may run ahead of the next one
+    private int queueCapacity = 4;
+    //Rejected rows listed in the report, the rest are only counted
+    private int maxListedRejections = 1000;
+}
@@ -0,0 +1,15 @@
+package com.kadiryuksel.peratestcase.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "player-name-filter")
+@Data
+public class PlayerNameFilterProperties {
+    //Players the filter is sized for, it is sized for twice the stored players when there are more
+    private long expectedPlayers = 100_000;
+    //Share of new names that still have to be checked in the database
+    private double falsePositiveRate = 0.01;
+}
@@ -0,0 +1,18 @@
+package com.kadiryuksel.peratestcase.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "roster-cache")
+@Data
+public class RosterCacheProperties {
+    //Teams whose rosters are kept, the least recently read team is dropped first
+    private int maxTeams = 1000;
+    //Cursor pages kept per team, one page per after and size pair
+    private int maxPagesPerTeam = 8;
+    //Cached pages and the ETags of the team list and rosters follow the writes of this instance only
+    //With several instances a write elsewhere shows up here after this long at the latest, 0 keeps both until the next local write
+    private long timeToLiveMillis = 10000;
+}
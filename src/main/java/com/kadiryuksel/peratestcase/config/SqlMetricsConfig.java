@@ -0,0 +1,40 @@
+package com.kadiryuksel.peratestcase.config;
+
+import com.kadiryuksel.peratestcase.metrics.InstrumentedDataSource;
+import com.kadiryuksel.peratestcase.metrics.SqlMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+@RequiredArgsConstructor
+public class SqlMetricsConfig implements WebMvcConfigurer {
+    private final MeterRegistry meterRegistry;
+    private final SqlMetricsProperties sqlMetricsProperties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlMetricsInterceptor(meterRegistry, sqlMetricsProperties));
+    }
+
+    //Static so the data source is wrapped before anything else asks for it
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourceBeanPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+}
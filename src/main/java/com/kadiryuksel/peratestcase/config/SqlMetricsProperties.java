@@ -0,0 +1,13 @@
+package com.kadiryuksel.peratestcase.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "sql-metrics")
+@Data
+public class SqlMetricsProperties {
+    //Requests running more statements than this are logged as a warning
+    private int statementBudget = 10;
+}
@@ -0,0 +1,27 @@
+package com.kadiryuksel.peratestcase.config;
+
+import com.kadiryuksel.peratestcase.metrics.FirstRequestFilter;
+import com.kadiryuksel.peratestcase.metrics.StartupTimeline;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.metrics.ApplicationStartup;
+
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public StartupTimeline startupTimeline(ApplicationStartup applicationStartup, StartupProperties startupProperties, MeterRegistry meterRegistry) {
+        return new StartupTimeline(applicationStartup, startupProperties.getLoggedSteps(), meterRegistry);
+    }
+
+    //First in the chain so the time covers the whole first request
+    @Bean
+    public FilterRegistrationBean<FirstRequestFilter> firstRequestFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<FirstRequestFilter> registration = new FilterRegistrationBean<>(new FirstRequestFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
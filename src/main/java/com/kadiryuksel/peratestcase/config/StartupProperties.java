@@ -0,0 +1,15 @@
+package com.kadiryuksel.peratestcase.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "startup")
+@Data
+public class StartupProperties {
+    //Number of the slowest startup steps logged when the application is ready
+    private int loggedSteps = 10;
+    //Stops the application as soon as it is ready, used by the AppCDS training run
+    private boolean exitWhenReady = false;
+}
@@ -0,0 +1,47 @@
+package com.kadiryuksel.peratestcase.config;
+
+import com.kadiryuksel.peratestcase.metrics.VirtualThreadPinningMonitor;
+import com.kadiryuksel.peratestcase.util.VirtualThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.*;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+//Active with virtual-threads.enabled=true, on a JDK without virtual threads the platform thread pools stay in place
+@Configuration
+@ConditionalOnProperty(prefix = "virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    private final static Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    public VirtualThreadConfig() {
+        if (!VirtualThreads.isSupported()) {
+            logger.warn(String.format("virtual-threads.enabled is set but JDK %d has no virtual threads, platform threads are used.",
+                    Runtime.version().feature()));
+        }
+    }
+
+    //Replaces the Tomcat worker pool, server.tomcat.threads.max no longer limits the requests in progress
+    //Virtual threads are daemon threads and the executor has no pool, so there is nothing to shut down
+    @Bean
+    @Conditional(VirtualThreadsSupported.class)
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("tomcat-virtual-"));
+    }
+
+    @Bean
+    @Conditional(VirtualThreadsSupported.class)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry, VirtualThreadProperties virtualThreadProperties) {
+        return new VirtualThreadPinningMonitor(meterRegistry, virtualThreadProperties.getPinnedThresholdMillis());
+    }
+
+    static class VirtualThreadsSupported implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return VirtualThreads.isSupported();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.kadiryuksel.peratestcase.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "virtual-threads")
+@Data
+public class VirtualThreadProperties {
+    //Runs Tomcat requests, the endpoint pools and the import stages on virtual threads, ignored with a warning before JDK 21
+    private boolean enabled = false;
+    //Requests in flight per endpoint pool on virtual threads, replaces the thread counts and queue of async-endpoints
+    private int maxConcurrentRequests = 1000;
+    //Pinned virtual threads blocked at least this long are logged and counted
+    private long pinnedThresholdMillis = 20;
+}
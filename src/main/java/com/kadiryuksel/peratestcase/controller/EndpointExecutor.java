@@ -0,0 +1,135 @@
+package com.kadiryuksel.peratestcase.controller;
+
+import com.kadiryuksel.peratestcase.config.AsyncEndpointProperties;
+import com.kadiryuksel.peratestcase.config.VirtualThreadProperties;
+import com.kadiryuksel.peratestcase.exception.ServiceBusyException;
+import com.kadiryuksel.peratestcase.metrics.SqlRequestStats;
+import com.kadiryuksel.peratestcase.util.VirtualThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+//Runs controller handlers off the container threads, so a slow database cannot take the threads health checks need
+//Reads and writes get separate bounded pools, a burst of one kind only queues behind its own kind
+//With virtual-threads.enabled every request gets its own virtual thread and only the number in flight is bounded
+public class EndpointExecutor implements DisposableBean {
+    public static final String POOL_TAG = "pool";
+
+    private final AsyncEndpointProperties asyncEndpointProperties;
+    private final Pool readPool;
+    private final Pool writePool;
+
+    public EndpointExecutor(AsyncEndpointProperties asyncEndpointProperties, VirtualThreadProperties virtualThreadProperties,
+                            MeterRegistry meterRegistry) {
+        this.asyncEndpointProperties = asyncEndpointProperties;
+        boolean virtual = virtualThreadProperties.isEnabled() && VirtualThreads.isSupported();
+        int readLimit = virtual ? virtualThreadProperties.getMaxConcurrentRequests() : asyncEndpointProperties.getReadThreads();
+        int writeLimit = virtual ? virtualThreadProperties.getMaxConcurrentRequests() : asyncEndpointProperties.getWriteThreads();
+        this.readPool = new Pool("reads", readLimit, virtual, asyncEndpointProperties, meterRegistry);
+        this.writePool = new Pool("writes", writeLimit, virtual, asyncEndpointProperties, meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> read(Supplier<T> work) {
+        return submit(readPool, work);
+    }
+
+    public <T> CompletableFuture<T> write(Supplier<T> work) {
+        return submit(writePool, work);
+    }
+
+    @Override
+    public void destroy() {
+        readPool.executor.shutdownNow();
+        writePool.executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Pool pool, Supplier<T> work) {
+        if (!asyncEndpointProperties.isEnabled()) {
+            return CompletableFuture.completedFuture(work.get());
+        }
+        if (pool.permits != null && !pool.permits.tryAcquire()) {
+            throw reject(pool);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = SqlRequestStats.propagate(() -> {
+            try {
+                //Timed out before a thread took it, nobody waits for the answer anymore
+                if (result.isDone()) {
+                    return;
+                }
+                result.complete(work.get());
+            } catch (Throwable exception) {
+                result.completeExceptionally(exception);
+            } finally {
+                if (pool.permits != null) {
+                    pool.permits.release();
+                }
+            }
+        });
+        try {
+            pool.executor.execute(task);
+        } catch (RejectedExecutionException exception) {
+            if (pool.permits != null) {
+                pool.permits.release();
+            }
+            throw reject(pool);
+        }
+        result.orTimeout(asyncEndpointProperties.getTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, exception) -> {
+                    if (exception instanceof TimeoutException) {
+                        pool.timeouts.increment();
+                        //Frees the queue place of work that has not started, virtual threads start right away
+                        if (pool.executor instanceof ThreadPoolExecutor) {
+                            ((ThreadPoolExecutor) pool.executor).remove(task);
+                        }
+                    }
+                });
+        return result;
+    }
+
+    private ServiceBusyException reject(Pool pool) {
+        pool.rejections.increment();
+        return new ServiceBusyException(String.format("Too many %s are waiting, try again later.", pool.name));
+    }
+
+    private static final class Pool {
+        private final String name;
+        private final ExecutorService executor;
+        //Bounds the requests in flight on virtual threads, null for a platform pool where the queue bounds them
+        private final Semaphore permits;
+        private final Counter rejections;
+        private final Counter timeouts;
+
+        private Pool(String name, int limit, boolean virtual, AsyncEndpointProperties asyncEndpointProperties, MeterRegistry meterRegistry) {
+            this.name = name;
+            if (virtual) {
+                this.executor = VirtualThreads.newThreadPerTaskExecutor(String.format("endpoint-%s-virtual-", name));
+                this.permits = new Semaphore(limit);
+                Gauge.builder("endpoint.executor.in-flight", permits, semaphore -> limit - semaphore.availablePermits())
+                        .tag(POOL_TAG, name)
+                        .register(meterRegistry);
+            } else {
+                this.executor = new ThreadPoolExecutor(limit, limit, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(asyncEndpointProperties.getQueueCapacity()),
+                        new CustomizableThreadFactory(String.format("endpoint-%s-", name)),
+                        new ThreadPoolExecutor.AbortPolicy());
+                this.permits = null;
+                //executor.queued, executor.active and the other pool gauges, tagged name=endpoint.<name>
+                new ExecutorServiceMetrics(executor, "endpoint." + name, Tags.empty()).bindTo(meterRegistry);
+            }
+            this.rejections = Counter.builder("endpoint.executor.rejected")
+                    .tag(POOL_TAG, name)
+                    .register(meterRegistry);
+            this.timeouts = Counter.builder("endpoint.executor.timeouts")
+                    .tag(POOL_TAG, name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -1,22 +1,37 @@
 package com.kadiryuksel.peratestcase.controller;
 
+import com.kadiryuksel.peratestcase.config.PagingProperties;
+import com.kadiryuksel.peratestcase.response.CursorPage;
+import com.kadiryuksel.peratestcase.response.PlayerImportReport;
 import com.kadiryuksel.peratestcase.util.ConstantMessages;
 import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
 import com.kadiryuksel.peratestcase.dto.FootballPlayerTeamUpdateDto;
 import com.kadiryuksel.peratestcase.dto.TeamNameUpdateDto;
 import com.kadiryuksel.peratestcase.dto.TeamRegistrationDto;
-import com.kadiryuksel.peratestcase.entity.Player;
 import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.response.BulkItemResponse;
 import com.kadiryuksel.peratestcase.service.FootballClubService;
+import com.kadiryuksel.peratestcase.service.PlayerExportService;
+import com.kadiryuksel.peratestcase.service.PlayerImportService;
+import com.kadiryuksel.peratestcase.service.RosterResponseCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -24,60 +39,171 @@ import java.util.List;
 @CrossOrigin
 @Validated
 public class FootballClubController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final FootballClubService footballClubService;
+    private final PlayerExportService playerExportService;
+    private final PlayerImportService playerImportService;
+    private final PagingProperties pagingProperties;
+    private final EndpointExecutor endpointExecutor;
 
     @PostMapping("/registerFootballTeam")
-    public ResponseEntity<String> registerFootballTeam(@RequestBody @Valid TeamRegistrationDto club) {
-        String message = footballClubService.addNewFootballTeam(club.getTeamName());
-        return new ResponseEntity<>(message, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<String>> registerFootballTeam(@RequestBody @Valid TeamRegistrationDto club) {
+        return endpointExecutor.write(() -> {
+            String message = footballClubService.addNewFootballTeam(club.getTeamName());
+            return new ResponseEntity<>(message, HttpStatus.OK);
+        });
+    }
+
+    @PostMapping("/registerFootballTeams")
+    public CompletableFuture<ResponseEntity<List<BulkItemResponse>>> registerFootballTeams(@RequestBody @Valid List<@Valid TeamRegistrationDto> clubs) {
+        List<String> teamNames = clubs.stream().map(TeamRegistrationDto::getTeamName).collect(Collectors.toList());
+        return endpointExecutor.write(() -> {
+            List<BulkItemResponse> results = footballClubService.addNewFootballTeams(teamNames);
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        });
     }
 
     @PostMapping("/registerFootballPlayer")
-    public ResponseEntity<String> registerFootballPlayer(@RequestBody @Valid FootballPlayerRegistrationDto playerDto) {
-        String message = footballClubService.addNewFootballPlayer(playerDto);
-        return new ResponseEntity<>(message, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<String>> registerFootballPlayer(@RequestBody @Valid FootballPlayerRegistrationDto playerDto) {
+        return endpointExecutor.write(() -> {
+            String message = footballClubService.addNewFootballPlayer(playerDto);
+            return new ResponseEntity<>(message, HttpStatus.OK);
+        });
+    }
+
+    @PostMapping("/registerFootballPlayers")
+    public CompletableFuture<ResponseEntity<List<BulkItemResponse>>> registerFootballPlayers(@RequestBody @Valid List<@Valid FootballPlayerRegistrationDto> playerDtos) {
+        return endpointExecutor.write(() -> {
+            List<BulkItemResponse> results = footballClubService.addNewFootballPlayers(playerDtos);
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        });
+    }
+
+    //Stays on the container thread, the import streams the request body and runs its own stage threads
+    @PostMapping(value = "/importPlayers", consumes = "text/csv")
+    public ResponseEntity<PlayerImportReport> importPlayers(InputStream csv) {
+        PlayerImportReport report = playerImportService.importPlayers(csv);
+        return new ResponseEntity<>(report, HttpStatus.OK);
     }
 
     @PostMapping("/updateTeamNameById")
-    public ResponseEntity<String> updateTeamName(@RequestBody @Valid TeamNameUpdateDto teamNameUpdateDto){
-        String message = footballClubService.changeTeamName(teamNameUpdateDto);
-        return new ResponseEntity<>(message, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<String>> updateTeamName(@RequestBody @Valid TeamNameUpdateDto teamNameUpdateDto){
+        return endpointExecutor.write(() -> {
+            String message = footballClubService.changeTeamName(teamNameUpdateDto);
+            return new ResponseEntity<>(message, HttpStatus.OK);
+        });
     }
 
     @PostMapping("/updatePlayerTeam")
-    public ResponseEntity<String> updatePlayerTeam(@RequestBody @Valid FootballPlayerTeamUpdateDto teamUpdateDto){
-        String message = footballClubService.changePlayerTeam(teamUpdateDto);
-        return new ResponseEntity<>(message, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<String>> updatePlayerTeam(@RequestBody @Valid FootballPlayerTeamUpdateDto teamUpdateDto){
+        return endpointExecutor.write(() -> {
+            String message = footballClubService.changePlayerTeam(teamUpdateDto);
+            return new ResponseEntity<>(message, HttpStatus.OK);
+        });
+    }
+
+    //All transfers are checked against the rosters after the whole batch and written in one transaction
+    @PostMapping("/updatePlayerTeams")
+    public CompletableFuture<ResponseEntity<List<BulkItemResponse>>> updatePlayerTeams(@RequestBody @Valid List<@Valid FootballPlayerTeamUpdateDto> transfers) {
+        return endpointExecutor.write(() -> {
+            List<BulkItemResponse> results = footballClubService.transferPlayers(transfers);
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        });
     }
 
     @GetMapping("/getAllFootballTeams")
-    public ResponseEntity<List<Team>> getAllFootballTeams() {
-        List<Team> teams = footballClubService.getAllFootballTeams();
-        return new ResponseEntity<>(teams, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<List<Team>>> getAllFootballTeams(
+            @RequestParam(name = "after", required = false)
+            @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) Long afterId,
+            @RequestParam(name = "size", required = false)
+            @Positive(message = ConstantMessages.POSITIVE_PAGE_SIZE_MSG) Integer size,
+            WebRequest webRequest) {
+        //Answers 304 on the container thread without running the query when the client already has this version
+        if (webRequest.checkNotModified(footballClubService.getTeamListETag())) {
+            return null;
+        }
+        int pageSize = pagingProperties.resolveSize(size, afterId);
+        long after = afterId == null ? 0 : afterId;
+        return endpointExecutor.read(() -> pageResponse(footballClubService.getAllFootballTeams(after, pageSize)));
     }
 
-    @GetMapping("/getTeamPlayers/team/{id}")
-    public ResponseEntity<List<Player>> getTeamPlayersById(
+    //Body is the cached JSON of the page, see RosterResponseCache
+    @GetMapping(value = "/getTeamPlayers/team/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<byte[]>> getTeamPlayersById(
             @PathVariable("id")
-            @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) long teamId) {
-        List<Player> players = footballClubService.getTeamPlayersByTeamId(teamId);
-        return new ResponseEntity<>(players, HttpStatus.OK);
+            @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) long teamId,
+            @RequestParam(name = "after", required = false)
+            @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) Long afterId,
+            @RequestParam(name = "size", required = false)
+            @Positive(message = ConstantMessages.POSITIVE_PAGE_SIZE_MSG) Integer size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(footballClubService.getTeamPlayersETag(teamId))) {
+            return null;
+        }
+        int pageSize = pagingProperties.resolveSize(size, afterId);
+        long after = afterId == null ? 0 : afterId;
+        return endpointExecutor.read(() -> {
+            RosterResponseCache.Page players = footballClubService.getSerializedTeamPlayers(teamId, after, pageSize);
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON);
+            if (players.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(players.getNextCursor()));
+            }
+            return response.body(players.getBody());
+        });
+    }
+
+    //Stays on the container thread and writes straight to the response, the endpoint pools would cut a long export off at their timeout
+    @GetMapping("/exportPlayers")
+    public void exportPlayers(HttpServletResponse response) throws IOException {
+        response.setContentType(PlayerExportService.NDJSON_CONTENT_TYPE);
+        playerExportService.exportPlayers(response.getOutputStream());
     }
 
     @DeleteMapping("/deleteTeam/{id}")
-    public ResponseEntity<String> deleteTeamById(
+    public CompletableFuture<ResponseEntity<String>> deleteTeamById(
             @PathVariable("id")
             @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) long teamId) {
-        String message = footballClubService.deleteTeamById(teamId);
-        return new ResponseEntity<>(message, HttpStatus.OK);
+        return endpointExecutor.write(() -> {
+            String message = footballClubService.deleteTeamById(teamId);
+            return new ResponseEntity<>(message, HttpStatus.OK);
+        });
     }
 
     @DeleteMapping("/deletePlayer/{id}")
-    public ResponseEntity<String> deletePlayerById(
+    public CompletableFuture<ResponseEntity<String>> deletePlayerById(
             @PathVariable("id")
             @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) long playerId) {
-        String message = footballClubService.deletePlayerById(playerId);
-        return new ResponseEntity<>(message, HttpStatus.OK);
+        return endpointExecutor.write(() -> {
+            String message = footballClubService.deletePlayerById(playerId);
+            return new ResponseEntity<>(message, HttpStatus.OK);
+        });
+    }
+
+    //Lists of ids are posted like the bulk registrations, all of them are deleted in one transaction
+    @PostMapping("/deleteTeams")
+    public CompletableFuture<ResponseEntity<List<BulkItemResponse>>> deleteTeamsByIds(
+            @RequestBody List<@NotNull @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) Long> teamIds) {
+        return endpointExecutor.write(() -> {
+            List<BulkItemResponse> results = footballClubService.deleteTeamsByIds(teamIds);
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        });
+    }
+
+    @PostMapping("/deletePlayers")
+    public CompletableFuture<ResponseEntity<List<BulkItemResponse>>> deletePlayersByIds(
+            @RequestBody List<@NotNull @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) Long> playerIds) {
+        return endpointExecutor.write(() -> {
+            List<BulkItemResponse> results = footballClubService.deletePlayersByIds(playerIds);
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        });
     }
 
+    private <T> ResponseEntity<List<T>> pageResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
+    }
 }
@@ -6,19 +6,34 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 
 @Entity
-@Table(name = "player")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "player", uniqueConstraints = @UniqueConstraint(name = Player.NAME_CONSTRAINT, columnNames = {"first_name", "last_name"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Player {
+    //Older schemas get it from db/player-name-unique-index.sql
+    public static final String NAME_CONSTRAINT = "uk_player_first_name_last_name";
+    public static final String TEAM_FOREIGN_KEY = "fk_player_team";
 
+    //Same sequence name as the bigserial column of older schemas, see db/pooled-id-sequences.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "player_id_generator")
+    @GenericGenerator(name = "player_id_generator", strategy = "com.kadiryuksel.peratestcase.entity.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "player_id_seq"))
     private Long id;
 
     @Column(name = "first_name")
@@ -30,8 +45,10 @@ public class Player {
     @Enumerated(EnumType.STRING)
     private Nationality nationality;
 
+    //Deleting a team deletes its players in the database too, see db/player-team-on-delete-cascade.sql for older schemas
     @ManyToOne
-    @JoinColumn(name = "team_id")
+    @JoinColumn(name = "team_id", foreignKey = @ForeignKey(name = Player.TEAM_FOREIGN_KEY))
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Team team;
 
     @Enumerated(EnumType.STRING)
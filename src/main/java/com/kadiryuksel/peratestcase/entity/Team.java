@@ -1,25 +1,55 @@
 package com.kadiryuksel.peratestcase.entity;
 
 
+import com.kadiryuksel.peratestcase.projection.RosterCounts;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 
+//The bulk deletes in TeamRepository evict the whole cache region, entity saves update single entries
+//The roster counter updates evict only the team they change
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "team")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Team {
+public class Team implements RosterCounts {
+    //Query space of the native roster counter updates, no mapped table has this name so no cache region depends on it
+    public static final String ROSTER_QUERY_SPACE = "team_roster";
 
+    //Same sequence name as the bigserial column of older schemas, see db/pooled-id-sequences.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_id_generator")
+    @GenericGenerator(name = "team_id_generator", strategy = "com.kadiryuksel.peratestcase.entity.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "team_id_seq"))
     private Long id;
 
     @Column(name = "team_name")
     private String teamName;
-}
\ No newline at end of file
+
+    //Roster counters are only changed by the conditional updates in TeamRepository
+    @Column(name = "player_count", insertable = false, updatable = false, columnDefinition = "integer default 0 not null")
+    private int playerCount;
+
+    @Column(name = "foreign_count", insertable = false, updatable = false, columnDefinition = "integer default 0 not null")
+    private int foreignCount;
+
+    @Column(name = "goalkeeper_count", insertable = false, updatable = false, columnDefinition = "integer default 0 not null")
+    private int goalkeeperCount;
+
+    public Team(Long id, String teamName) {
+        this.id = id;
+        this.teamName = teamName;
+    }
+}
@@ -0,0 +1,120 @@
+package com.kadiryuksel.peratestcase.metrics;
+
+import com.kadiryuksel.peratestcase.config.ConnectionPoolSizingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//Moves the maximum size of the connection pool between the configured bounds, one decision per interval
+//Grows while threads wait for connections and the statements run as fast as before, more connections then mean more throughput
+//Shrinks while threads wait and the statements got slower, the database is the bottleneck and more connections only add contention
+//Shrinks when the connections are mostly idle, the waits, usage and latency come from JdbcTimings
+public class ConnectionPoolSizer implements DisposableBean {
+    //Lets the best recent statement latency rise a little every interval so it follows lasting changes of the workload
+    private static final double BASELINE_DRIFT = 1.05;
+
+    private final HikariDataSource dataSource;
+    private final JdbcTimings timings;
+    private final ConnectionPoolSizingProperties properties;
+    private final int minSize;
+    private final int maxSize;
+    private final int configuredMinimumIdle;
+    private final Counter grown;
+    private final Counter shrunk;
+    private final ScheduledExecutorService scheduler;
+    private final static Logger logger = LoggerFactory.getLogger(ConnectionPoolSizer.class);
+
+    private JdbcTimings.Snapshot lastSnapshot;
+    private double baselineStatementMillis = -1;
+
+    //Connections beyond the threads that can hold one at a time would never be used, maxUsers caps the bounds at them
+    public ConnectionPoolSizer(HikariDataSource dataSource, JdbcTimings timings, ConnectionPoolSizingProperties properties,
+                               int maxUsers, MeterRegistry meterRegistry) {
+        if (properties.getMinSize() < 1 || properties.getMinSize() > properties.getMaxSize()) {
+            throw new IllegalArgumentException(String.format("Connection pool size bounds %d to %d are not valid.",
+                    properties.getMinSize(), properties.getMaxSize()));
+        }
+        this.dataSource = dataSource;
+        this.timings = timings;
+        this.properties = properties;
+        this.maxSize = Math.min(properties.getMaxSize(), maxUsers);
+        this.minSize = Math.min(properties.getMinSize(), maxSize);
+        this.configuredMinimumIdle = dataSource.getMinimumIdle();
+        this.grown = Counter.builder("connection-pool.resizes").tag("direction", "grow").register(meterRegistry);
+        this.shrunk = Counter.builder("connection-pool.resizes").tag("direction", "shrink").register(meterRegistry);
+        resize(Math.max(minSize, Math.min(maxSize, dataSource.getMaximumPoolSize())));
+        this.lastSnapshot = timings.snapshot();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "connection-pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::adjust, properties.getIntervalMillis(), properties.getIntervalMillis(), TimeUnit.MILLISECONDS);
+        logger.info(String.format("Connection pool sized between %d and %d connections, starting at %d.",
+                minSize, maxSize, dataSource.getMaximumPoolSize()));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    //A failed decision must not stop the later ones
+    void adjust() {
+        try {
+            //The pool starts with the first connection
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool == null) {
+                return;
+            }
+            int threadsAwaiting = pool.getThreadsAwaitingConnection();
+            JdbcTimings.Snapshot snapshot = timings.snapshot();
+            JdbcTimings.Snapshot interval = snapshot.since(lastSnapshot);
+            lastSnapshot = snapshot;
+            int size = dataSource.getMaximumPoolSize();
+            int newSize = nextSize(size, interval, threadsAwaiting);
+            if (newSize != size) {
+                resize(newSize);
+                (newSize > size ? grown : shrunk).increment();
+                logger.info(String.format("Connection pool resized from %d to %d: %.1f ms average wait, %d threads waiting, " +
+                                "%.1f connections busy, %.2f ms per statement against %.2f ms at best.",
+                        size, newSize, interval.getAverageAcquireMillis(), threadsAwaiting,
+                        interval.getBusyConnections(), interval.getAverageStatementMillis(), baselineStatementMillis));
+            }
+        } catch (RuntimeException exception) {
+            logger.warn("Connection pool sizing failed.", exception);
+        }
+    }
+
+    int nextSize(int size, JdbcTimings.Snapshot interval, int threadsAwaiting) {
+        double statementMillis = interval.getAverageStatementMillis();
+        boolean databaseSlower = false;
+        if (statementMillis >= 0) {
+            databaseSlower = baselineStatementMillis >= 0 && statementMillis > baselineStatementMillis * properties.getLatencyTolerance();
+            baselineStatementMillis = baselineStatementMillis < 0 ? statementMillis :
+                    Math.min(statementMillis, baselineStatementMillis * BASELINE_DRIFT);
+        }
+        boolean waiting = threadsAwaiting > 0 || interval.getAverageAcquireMillis() >= properties.getWaitThresholdMillis();
+        if (waiting && !databaseSlower) {
+            return Math.min(maxSize, size + properties.getStep());
+        }
+        if (waiting || interval.getBusyConnections() < size * properties.getShrinkUtilization()) {
+            return Math.max(minSize, size - properties.getStep());
+        }
+        return size;
+    }
+
+    //The idle connections above the new size are closed by the pool itself, it keeps no more idle ones than the size
+    private void resize(int size) {
+        dataSource.setMaximumPoolSize(size);
+        dataSource.setMinimumIdle(Math.min(configuredMinimumIdle, size));
+    }
+}
@@ -0,0 +1,74 @@
+package com.kadiryuksel.peratestcase.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Publishes application.first-request.since-jvm-start, the time from the JVM start until the first response is written
+//Startup work left for the first request, like lazily created beans, shows here and not in the startup time
+public class FirstRequestFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean served = new AtomicBoolean();
+    private final static Logger logger = LoggerFactory.getLogger(FirstRequestFilter.class);
+
+    public FirstRequestFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!served.get()) {
+                //Async endpoints write the response after this thread left the filter
+                if (request.isAsyncStarted()) {
+                    request.getAsyncContext().addListener(new AsyncListener() {
+                        @Override
+                        public void onComplete(AsyncEvent event) {
+                            record(request);
+                        }
+
+                        @Override
+                        public void onTimeout(AsyncEvent event) {
+                        }
+
+                        @Override
+                        public void onError(AsyncEvent event) {
+                        }
+
+                        @Override
+                        public void onStartAsync(AsyncEvent event) {
+                        }
+                    });
+                } else {
+                    record(request);
+                }
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request) {
+        if (served.compareAndSet(false, true)) {
+            long firstRequestMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+            TimeGauge.builder("application.first-request.since-jvm-start", () -> firstRequestMillis, TimeUnit.MILLISECONDS)
+                    .register(meterRegistry);
+            logger.info(String.format("First request %s %s served %d ms after the JVM start.",
+                    request.getMethod(), request.getRequestURI(), firstRequestMillis));
+        }
+    }
+}
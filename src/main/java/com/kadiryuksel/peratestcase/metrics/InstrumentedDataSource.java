@@ -0,0 +1,121 @@
+package com.kadiryuksel.peratestcase.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Wraps the pooled connections so every statement execution and fetched row is added to SqlRequestStats
+//All connection acquisitions, connection usage and statements are also added up in JdbcTimings for ConnectionPoolSizer
+//Unwrapping still reaches the pool, so pool metrics keep working
+public class InstrumentedDataSource extends DelegatingDataSource {
+    private final JdbcTimings timings = new JdbcTimings();
+
+    public InstrumentedDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    public JdbcTimings getTimings() {
+        return timings;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long startTime = System.nanoTime();
+        Connection connection = super.getConnection();
+        return wrapConnection(connection, startTime);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long startTime = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        return wrapConnection(connection, startTime);
+    }
+
+    private Connection wrapConnection(Connection connection, long startTime) {
+        long acquiredAt = System.nanoTime();
+        timings.connectionAcquired(acquiredAt - startTime);
+        AtomicBoolean released = new AtomicBoolean();
+        return wrap(Connection.class, connection, (target, method, args) -> {
+            if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                timings.connectionReleased(System.nanoTime() - acquiredAt);
+            }
+            return invokeOnConnection(target, method, args);
+        });
+    }
+
+    //createStatement, prepareStatement and prepareCall hand out counted statements
+    private Object invokeOnConnection(Object connection, Method method, Object[] args) throws Exception {
+        Object result = method.invoke(connection, args);
+        if (result instanceof Statement) {
+            return wrapStatement(method.getReturnType(), result);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T wrapStatement(Class<T> statementType, Object statement) {
+        return wrap(statementType, (T) statement, this::invokeOnStatement);
+    }
+
+    private Object invokeOnStatement(Object statement, Method method, Object[] args) throws Exception {
+        Object result;
+        if (method.getName().startsWith("execute")) {
+            SqlRequestStats stats = SqlRequestStats.current();
+            long startTime = System.nanoTime();
+            try {
+                result = method.invoke(statement, args);
+            } finally {
+                long elapsedNanos = System.nanoTime() - startTime;
+                timings.statementExecuted(elapsedNanos);
+                if (stats != null) {
+                    stats.statementExecuted(elapsedNanos);
+                }
+            }
+        } else {
+            result = method.invoke(statement, args);
+        }
+        //Generated keys are not rows the request asked for
+        if (result instanceof ResultSet && !method.getName().equals("getGeneratedKeys")) {
+            return wrap(ResultSet.class, (ResultSet) result, InstrumentedDataSource::invokeOnResultSet);
+        }
+        return result;
+    }
+
+    private static Object invokeOnResultSet(Object resultSet, Method method, Object[] args) throws Exception {
+        Object result = method.invoke(resultSet, args);
+        if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+            SqlRequestStats stats = SqlRequestStats.current();
+            if (stats != null) {
+                stats.rowFetched();
+            }
+        }
+        return result;
+    }
+
+    private static <T> T wrap(Class<T> type, T target, JdbcCall call) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    try {
+                        return call.invoke(target, method, args);
+                    } catch (InvocationTargetException exception) {
+                        throw exception.getTargetException();
+                    }
+                }));
+    }
+
+    private interface JdbcCall {
+        Object invoke(Object target, Method method, Object[] args) throws Exception;
+    }
+}
@@ -0,0 +1,72 @@
+package com.kadiryuksel.peratestcase.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//Running totals of all JDBC work of one data source, requests or not, read as differences between two snapshots
+public class JdbcTimings {
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAdder usageNanos = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder statementNanos = new LongAdder();
+
+    void connectionAcquired(long elapsedNanos) {
+        acquisitions.increment();
+        acquireNanos.add(elapsedNanos);
+    }
+
+    //Time from handing out the connection until it was closed, so given back to the pool
+    void connectionReleased(long heldNanos) {
+        usageNanos.add(heldNanos);
+    }
+
+    void statementExecuted(long elapsedNanos) {
+        statements.increment();
+        statementNanos.add(elapsedNanos);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(System.nanoTime(), acquisitions.sum(), acquireNanos.sum(), usageNanos.sum(),
+                statements.sum(), statementNanos.sum());
+    }
+
+    public static final class Snapshot {
+        private final long takenAtNanos;
+        private final long acquisitions;
+        private final long acquireNanos;
+        private final long usageNanos;
+        private final long statements;
+        private final long statementNanos;
+
+        public Snapshot(long takenAtNanos, long acquisitions, long acquireNanos, long usageNanos, long statements, long statementNanos) {
+            this.takenAtNanos = takenAtNanos;
+            this.acquisitions = acquisitions;
+            this.acquireNanos = acquireNanos;
+            this.usageNanos = usageNanos;
+            this.statements = statements;
+            this.statementNanos = statementNanos;
+        }
+
+        //Work done between the earlier snapshot and this one
+        public Snapshot since(Snapshot earlier) {
+            return new Snapshot(takenAtNanos - earlier.takenAtNanos, acquisitions - earlier.acquisitions,
+                    acquireNanos - earlier.acquireNanos, usageNanos - earlier.usageNanos,
+                    statements - earlier.statements, statementNanos - earlier.statementNanos);
+        }
+
+        //Zero when no connection was taken
+        public double getAverageAcquireMillis() {
+            return acquisitions == 0 ? 0 : acquireNanos / (double) acquisitions / 1_000_000;
+        }
+
+        //Negative when no statement ran
+        public double getAverageStatementMillis() {
+            return statements == 0 ? -1 : statementNanos / (double) statements / 1_000_000;
+        }
+
+        //Connections in use on average, the usage time divided by the time between the snapshots
+        public double getBusyConnections() {
+            return takenAtNanos <= 0 ? 0 : usageNanos / (double) takenAtNanos;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.kadiryuksel.peratestcase.metrics;
+
+import com.kadiryuksel.peratestcase.config.SqlMetricsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+//Publishes the SQL work of every request under sql.request.* tagged with the handling controller method
+//Async handlers park the stats on the request between the first dispatch and the one that writes the response
+@RequiredArgsConstructor
+public class SqlMetricsInterceptor implements AsyncHandlerInterceptor {
+    public static final String ENDPOINT_TAG = "endpoint";
+    private static final String STATS_ATTRIBUTE = SqlMetricsInterceptor.class.getName() + ".stats";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlMetricsProperties sqlMetricsProperties;
+    private final static Logger logger = LoggerFactory.getLogger(SqlMetricsInterceptor.class);
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            SqlRequestStats parkedStats = (SqlRequestStats) request.getAttribute(STATS_ATTRIBUTE);
+            if (parkedStats != null) {
+                request.removeAttribute(STATS_ATTRIBUTE);
+                SqlRequestStats.resume(parkedStats);
+            } else {
+                SqlRequestStats.start();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlRequestStats stats = SqlRequestStats.end();
+        if (stats != null) {
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exception) {
+        SqlRequestStats stats = SqlRequestStats.end();
+        if (stats == null || !(handler instanceof HandlerMethod)) {
+            return;
+        }
+        String endpoint = endpointName((HandlerMethod) handler);
+        DistributionSummary.builder("sql.request.statements")
+                .baseUnit("statements")
+                .tag(ENDPOINT_TAG, endpoint)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("sql.request.rows")
+                .baseUnit("rows")
+                .tag(ENDPOINT_TAG, endpoint)
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("sql.request.time")
+                .tag(ENDPOINT_TAG, endpoint)
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        String summary = String.format("%s %s -> %s: %d SQL statements, %d rows, %.1f ms in the database.",
+                request.getMethod(), request.getRequestURI(), endpoint, stats.getStatements(), stats.getRows(),
+                stats.getNanos() / 1_000_000.0);
+        int budget = sqlMetricsProperties.getStatementBudget();
+        if (stats.getStatements() > budget) {
+            Counter.builder("sql.request.over.budget")
+                    .tag(ENDPOINT_TAG, endpoint)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn(String.format("%s Over the statement budget of %d.", summary, budget));
+        } else if (logger.isDebugEnabled()) {
+            logger.debug(summary);
+        }
+    }
+
+    static String endpointName(HandlerMethod handlerMethod) {
+        return String.format("%s.%s", handlerMethod.getBeanType().getSimpleName(), handlerMethod.getMethod().getName());
+    }
+}
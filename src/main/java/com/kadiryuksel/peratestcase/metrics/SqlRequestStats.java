@@ -0,0 +1,69 @@
+package com.kadiryuksel.peratestcase.metrics;
+
+//SQL work of the request running on the current thread, JDBC calls outside a request are not counted
+public final class SqlRequestStats {
+    private static final ThreadLocal<SqlRequestStats> current = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long nanos;
+
+    static SqlRequestStats start() {
+        SqlRequestStats stats = new SqlRequestStats();
+        current.set(stats);
+        return stats;
+    }
+
+    //Returns null when no request was started on this thread
+    static SqlRequestStats current() {
+        return current.get();
+    }
+
+    //Continues a request whose handler finished on another thread
+    static void resume(SqlRequestStats stats) {
+        current.set(stats);
+    }
+
+    //Counts the SQL of a task run on a worker thread towards the request that submitted it
+    public static Runnable propagate(Runnable task) {
+        SqlRequestStats stats = current.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            current.set(stats);
+            try {
+                task.run();
+            } finally {
+                current.remove();
+            }
+        };
+    }
+
+    static SqlRequestStats end() {
+        SqlRequestStats stats = current.get();
+        current.remove();
+        return stats;
+    }
+
+    void statementExecuted(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    void rowFetched() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,74 @@
+package com.kadiryuksel.peratestcase.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+//Logs the slowest startup steps once the application is ready, the full timeline stays on the startup actuator endpoint
+//Steps of the same name are added up, so the cost of all bean instantiations of one kind shows as one line
+//Times are counted from the JVM start, which includes the class loading an AppCDS archive saves
+public class StartupTimeline {
+    private final ApplicationStartup applicationStartup;
+    private final int loggedSteps;
+    private final MeterRegistry meterRegistry;
+    private final static Logger logger = LoggerFactory.getLogger(StartupTimeline.class);
+
+    public StartupTimeline(ApplicationStartup applicationStartup, int loggedSteps, MeterRegistry meterRegistry) {
+        this.applicationStartup = applicationStartup;
+        this.loggedSteps = loggedSteps;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        long readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        TimeGauge.builder("application.ready.since-jvm-start", () -> readyMillis, TimeUnit.MILLISECONDS)
+                .register(meterRegistry);
+        if (!(applicationStartup instanceof BufferingApplicationStartup)) {
+            logger.info(String.format("Application ready %d ms after the JVM start, startup steps are not recorded.", readyMillis));
+            return;
+        }
+        List<TimelineEvent> events = ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline().getEvents();
+        StringBuilder message = new StringBuilder(String.format("Application ready %d ms after the JVM start, slowest of %d startup steps:",
+                readyMillis, events.size()));
+        slowestSteps(events, loggedSteps).forEach((stepName, duration) ->
+                message.append(String.format("%n  %6d ms %s", duration.toMillis(), stepName)));
+        logger.info(message.toString());
+    }
+
+    //Total duration of every step name, slowest first
+    static Map<String, Duration> slowestSteps(List<TimelineEvent> events, int count) {
+        Map<String, Duration> durations = new HashMap<>();
+        for (TimelineEvent event : events) {
+            durations.merge(stepName(event), event.getDuration(), Duration::plus);
+        }
+        return durations.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .limit(count)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first, LinkedHashMap::new));
+    }
+
+    //Bean steps are told apart by the bean name, other steps have few enough instances to be added up
+    private static String stepName(TimelineEvent event) {
+        String stepName = event.getStartupStep().getName();
+        for (StartupStep.Tag tag : event.getStartupStep().getTags()) {
+            if (tag.getKey().equals("beanName")) {
+                return String.format("%s (%s)", stepName, tag.getValue());
+            }
+        }
+        return stepName;
+    }
+}
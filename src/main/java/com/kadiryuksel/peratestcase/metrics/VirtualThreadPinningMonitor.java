@@ -0,0 +1,69 @@
+package com.kadiryuksel.peratestcase.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+//Streams the JFR pinning events of the running JVM, a virtual thread blocked inside synchronized code keeps its carrier
+//Each pinning place is logged once with its stack, later ones are only counted in virtual-threads.pinned
+public class VirtualThreadPinningMonitor implements DisposableBean {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.kadiryuksel.peratestcase.";
+    private static final int LOGGED_FRAMES = 12;
+    private final static Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private final RecordingStream recordingStream = new RecordingStream();
+    private final Counter pinned;
+    private final Timer pinnedTime;
+    private final Set<String> reportedPlaces = ConcurrentHashMap.newKeySet();
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, long thresholdMillis) {
+        this.pinned = Counter.builder("virtual-threads.pinned").register(meterRegistry);
+        this.pinnedTime = Timer.builder("virtual-threads.pinned.time").register(meterRegistry);
+        recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::record);
+        recordingStream.startAsync();
+        logger.info(String.format("Reporting virtual threads pinned for %d ms or longer.", thresholdMillis));
+    }
+
+    @Override
+    public void destroy() {
+        recordingStream.close();
+    }
+
+    private void record(RecordedEvent event) {
+        pinned.increment();
+        pinnedTime.record(event.getDuration());
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String place = frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .or(() -> frames.stream().findFirst())
+                .map(VirtualThreadPinningMonitor::describe)
+                .orElse("unknown");
+        if (reportedPlaces.add(place)) {
+            String stack = frames.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(frame -> "\tat " + describe(frame))
+                    .collect(Collectors.joining(System.lineSeparator()));
+            logger.warn(String.format("Virtual thread pinned for %d ms at %s:%n%s",
+                    event.getDuration().toMillis(), place, stack));
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return String.format("%s.%s:%d", frame.getMethod().getType().getName(), frame.getMethod().getName(), frame.getLineNumber());
+    }
+}
@@ -0,0 +1,18 @@
+package com.kadiryuksel.peratestcase.projection;
+
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class PlayerExportRow {
+    private final long id;
+    private final String firstName;
+    private final String lastName;
+    private final Nationality nationality;
+    private final PlayerType playerType;
+    private final long teamId;
+    private final String teamName;
+}
@@ -0,0 +1,7 @@
+package com.kadiryuksel.peratestcase.projection;
+
+public interface PlayerName {
+    String getFirstName();
+
+    String getLastName();
+}
@@ -0,0 +1,9 @@
+package com.kadiryuksel.peratestcase.projection;
+
+public interface RosterCounts {
+    int getPlayerCount();
+
+    int getForeignCount();
+
+    int getGoalkeeperCount();
+}
@@ -1,27 +1,69 @@
 package com.kadiryuksel.peratestcase.repository;
 
 import com.kadiryuksel.peratestcase.entity.Player;
-import com.kadiryuksel.peratestcase.enums.Nationality;
-import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.projection.PlayerExportRow;
+import com.kadiryuksel.peratestcase.projection.PlayerName;
+import com.kadiryuksel.peratestcase.projection.RosterCounts;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PlayerRepository extends JpaRepository<Player, Long> {
 
-    Player getPlayerById(long playerId);
-
+    //Roster queries go through the query cache, any change to the player table invalidates them
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Player> getPlayersByTeamId(long teamId);
 
-    int countByNationalityAndTeamId(Nationality nationality, long teamId);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Player> findByTeamIdAndIdGreaterThanOrderByIdAsc(long teamId, long afterId, Pageable pageable);
+
+    @Query("select count(p) as playerCount, " +
+            "coalesce(sum(case when p.nationality = com.kadiryuksel.peratestcase.enums.Nationality.FOREIGN then 1 else 0 end), 0) as foreignCount, " +
+            "coalesce(sum(case when p.playerType = com.kadiryuksel.peratestcase.enums.PlayerType.GOALKEEPER then 1 else 0 end), 0) as goalkeeperCount " +
+            "from Player p where p.team.id = :teamId")
+    RosterCounts countRosterByTeamId(@Param("teamId") long teamId);
+
+    @Query("select p.firstName as firstName, p.lastName as lastName from Player p where p.team.id in :teamIds")
+    List<PlayerName> findNamesByTeamIdIn(@Param("teamIds") Collection<Long> teamIds);
+
+    //One statement for all players of the teams, Hibernate drops the cached players and roster queries with it
+    //The foreign key cascades too, this delete keeps the caches in line and runs before the teams go
+    @Modifying
+    @Query("delete from Player p where p.team.id in :teamIds")
+    int deleteByTeamIdIn(@Param("teamIds") Collection<Long> teamIds);
+
+    @Query("select p from Player p join fetch p.team where p.id in :playerIds")
+    List<Player> findWithTeamByIdIn(@Param("playerIds") Collection<Long> playerIds);
 
-    int countByPlayerTypeAndTeamId(PlayerType type, long teamId);
+    @Modifying
+    @Query("delete from Player p where p.id in :playerIds")
+    int deleteByIdIn(@Param("playerIds") Collection<Long> playerIds);
 
-    int countByTeamId(long teamId);
+    @Query("select p from Player p join fetch p.team where p.firstName = :firstName and p.lastName = :lastName")
+    Optional<Player> findWithTeamByFirstNameAndLastName(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
-    void deleteAllByTeamId(long teamId);
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select p.firstName as firstName, p.lastName as lastName from Player p")
+    Stream<PlayerName> streamAllNames();
 
-    boolean existsByFirstNameAndLastName(String firstName, String lastName);
+    //Rows are plain DTOs so the persistence context does not grow while the stream is read
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new com.kadiryuksel.peratestcase.projection.PlayerExportRow(" +
+            "p.id, p.firstName, p.lastName, p.nationality, p.playerType, t.id, t.teamName) " +
+            "from Player p join p.team t order by p.id")
+    Stream<PlayerExportRow> streamAllForExport();
 
-    Player getPlayerByFirstNameAndLastName(String firstName, String lastName);
+    //Returns a superset of the requested names, callers match the exact first and last name pairs
+    @Query("select p from Player p join fetch p.team where p.firstName in :firstNames and p.lastName in :lastNames")
+    List<Player> findWithTeamByFirstNameInAndLastNameIn(@Param("firstNames") Collection<String> firstNames,
+                                                        @Param("lastNames") Collection<String> lastNames);
 }
@@ -0,0 +1,6 @@
+package com.kadiryuksel.peratestcase.repository;
+
+public interface TeamCacheRepository {
+    //Drops the team from the second-level cache now and again when the transaction completes
+    void evictTeamFromCache(long teamId);
+}
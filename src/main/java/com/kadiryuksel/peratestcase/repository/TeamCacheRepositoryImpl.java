@@ -0,0 +1,27 @@
+package com.kadiryuksel.peratestcase.repository;
+
+import com.kadiryuksel.peratestcase.entity.Team;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+public class TeamCacheRepositoryImpl implements TeamCacheRepository {
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    //A reader between the update and the commit can cache the old counters again, the second eviction removes them
+    @Override
+    public void evictTeamFromCache(long teamId) {
+        entityManagerFactory.getCache().evict(Team.class, teamId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManagerFactory.getCache().evict(Team.class, teamId);
+                }
+            });
+        }
+    }
+}
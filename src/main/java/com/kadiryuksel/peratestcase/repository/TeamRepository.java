@@ -1,14 +1,75 @@
 package com.kadiryuksel.peratestcase.repository;
 
 import com.kadiryuksel.peratestcase.entity.Team;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface TeamRepository extends JpaRepository<Team, Long> {
-    boolean existsTeamByTeamName(String teamName);
-
-    boolean existsById(long teamId);
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamCacheRepository {
     Team findTeamById(long teamId);
 
     Team findTeamByTeamName(String teamName);
+
+    List<Team> findByTeamNameIn(Collection<String> teamNames);
+
+    List<Team> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+
+    @Query("select t.teamName from Team t where t.teamName in :teamNames")
+    List<String> findExistingTeamNames(@Param("teamNames") Collection<String> teamNames);
+
+    //Flushes first so the deletes of the team's players reach the database before the team row goes
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Team t where t.id = :teamId")
+    int deleteTeamById(@Param("teamId") long teamId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Team t where t.id in :teamIds")
+    int deleteByIdIn(@Param("teamIds") Collection<Long> teamIds);
+
+    //Native updates that name only the roster space, Hibernate then leaves the Team cache region alone
+    //and the callers evict the one changed team through evictTeamFromCache
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = Team.ROSTER_QUERY_SPACE))
+    @Query(value = "update team set player_count = player_count + :players, " +
+            "foreign_count = foreign_count + :foreign, " +
+            "goalkeeper_count = goalkeeper_count + :goalkeeper " +
+            "where id = :teamId " +
+            "and player_count + :players <= :maxPlayers " +
+            "and foreign_count + :foreign <= :maxForeign " +
+            "and goalkeeper_count + :goalkeeper <= :maxGoalkeepers", nativeQuery = true)
+    int admitPlayers(@Param("teamId") long teamId,
+                     @Param("players") int players,
+                     @Param("foreign") int foreign,
+                     @Param("goalkeeper") int goalkeeper,
+                     @Param("maxPlayers") int maxPlayers,
+                     @Param("maxForeign") int maxForeign,
+                     @Param("maxGoalkeepers") int maxGoalkeepers);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = Team.ROSTER_QUERY_SPACE))
+    @Query(value = "update team set player_count = player_count - 1, " +
+            "foreign_count = foreign_count - :foreign, " +
+            "goalkeeper_count = goalkeeper_count - :goalkeeper " +
+            "where id = :teamId", nativeQuery = true)
+    int releasePlayer(@Param("teamId") long teamId,
+                      @Param("foreign") int foreign,
+                      @Param("goalkeeper") int goalkeeper);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = Team.ROSTER_QUERY_SPACE))
+    @Query(value = "update team set player_count = player_count - :players, " +
+            "foreign_count = foreign_count - :foreign, " +
+            "goalkeeper_count = goalkeeper_count - :goalkeeper " +
+            "where id = :teamId", nativeQuery = true)
+    int releasePlayers(@Param("teamId") long teamId,
+                       @Param("players") int players,
+                       @Param("foreign") int foreign,
+                       @Param("goalkeeper") int goalkeeper);
 }
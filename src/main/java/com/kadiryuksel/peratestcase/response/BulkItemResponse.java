@@ -0,0 +1,20 @@
+package com.kadiryuksel.peratestcase.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class BulkItemResponse {
+    private final String item;
+    private final boolean success;
+    private final String message;
+
+    public static BulkItemResponse succeeded(String item, String message) {
+        return new BulkItemResponse(item, true, message);
+    }
+
+    public static BulkItemResponse failed(String item, String message) {
+        return new BulkItemResponse(item, false, message);
+    }
+}
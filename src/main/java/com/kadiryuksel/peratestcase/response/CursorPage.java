@@ -0,0 +1,24 @@
+package com.kadiryuksel.peratestcase.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+@AllArgsConstructor
+@Data
+public class CursorPage<T> {
+    private final List<T> items;
+    //Id of the last item when another page exists, null on the last page
+    private final Long nextCursor;
+
+    //Rows are read with size + 1 limit, the extra row only tells that another page exists
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> idGetter) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, idGetter.apply(items.get(size - 1)));
+    }
+}
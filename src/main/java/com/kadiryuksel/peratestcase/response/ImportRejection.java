@@ -0,0 +1,12 @@
+package com.kadiryuksel.peratestcase.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class ImportRejection {
+    private final long line;
+    private final String item;
+    private final String message;
+}
@@ -0,0 +1,38 @@
+package com.kadiryuksel.peratestcase.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class PlayerImportReport {
+    private long totalRows;
+    private long importedRows;
+    private long rejectedRows;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    //Only the first rejections are listed so a bad file cannot blow up the response, rejectedRows counts all of them
+    private final List<ImportRejection> rejections = new ArrayList<>();
+    @JsonIgnore
+    private final int maxListedRejections;
+
+    public void addImported() {
+        totalRows++;
+        importedRows++;
+    }
+
+    public void addRejection(long line, String item, String message) {
+        totalRows++;
+        rejectedRows++;
+        if (rejections.size() < maxListedRejections) {
+            rejections.add(new ImportRejection(line, item, message));
+        }
+    }
+
+    public void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = totalRows * 1000.0 / Math.max(elapsedMillis, 1);
+    }
+}
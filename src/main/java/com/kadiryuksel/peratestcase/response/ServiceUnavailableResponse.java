@@ -0,0 +1,9 @@
+package com.kadiryuksel.peratestcase.response;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableResponse extends Response{
+    public ServiceUnavailableResponse(String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+}
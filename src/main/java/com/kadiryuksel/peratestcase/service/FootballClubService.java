@@ -1,5 +1,7 @@
 package com.kadiryuksel.peratestcase.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
 import com.kadiryuksel.peratestcase.dto.FootballPlayerTeamUpdateDto;
 import com.kadiryuksel.peratestcase.dto.TeamNameUpdateDto;
@@ -11,18 +13,27 @@ import com.kadiryuksel.peratestcase.exception.NotFoundException;
 import com.kadiryuksel.peratestcase.exception.PlayerAlreadyExistsException;
 import com.kadiryuksel.peratestcase.exception.PlayerLimitException;
 import com.kadiryuksel.peratestcase.exception.TeamAlreadyExistsException;
+import com.kadiryuksel.peratestcase.projection.RosterCounts;
+import com.kadiryuksel.peratestcase.response.BulkItemResponse;
+import com.kadiryuksel.peratestcase.response.CursorPage;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FootballClubService {
     private final TeamService teamService;
     private final PlayerService playerService;
+    private final RosterResponseCache rosterResponseCache;
+    private final TeamVersions teamVersions;
+    private final ObjectMapper objectMapper;
     private final Logger logger = LoggerFactory.getLogger(FootballClubService.class);
 
     public void checkTeamByTeamId(long teamId) {
@@ -34,17 +45,27 @@ public class FootballClubService {
         }
     }
 
-    public void checkPlayerById(long playerId) {
-        boolean playerExists = playerService.doesPlayerExistById(playerId);
-        if (!playerExists) {
-            String message = String.format("Player ID: %d not found.", playerId);
+    //Team name from the team directory, the team row itself is not read
+    public String getTeamNameOrThrow(long teamId) {
+        String teamName = teamService.getTeamNameByTeamId(teamId);
+        if (teamName == null) {
+            String message = String.format("Team ID: %d does not exists.", teamId);
             logger.warn(message);
             throw new NotFoundException(message);
         }
+        return teamName;
+    }
+
+    public Player getPlayerOrThrow(long playerId) {
+        return playerService.findPlayerById(playerId).orElseThrow(() -> {
+            String message = String.format("Player ID: %d not found.", playerId);
+            logger.warn(message);
+            return new NotFoundException(message);
+        });
     }
 
     public void checkGoalkeeperLimit(int numberOfGoalkeepers, String teamName) {
-        if (numberOfGoalkeepers == PlayerService.MAX_GOALKEEPER_COUNT) {
+        if (numberOfGoalkeepers >= PlayerService.MAX_GOALKEEPER_COUNT) {
             String message = String.format("Team %s already has %d goalkeepers in the team.", teamName, PlayerService.MAX_GOALKEEPER_COUNT);
             logger.warn(message);
             throw new PlayerLimitException(message);
@@ -52,7 +73,7 @@ public class FootballClubService {
     }
 
     public void checkMaxPlayerLimit(int numberOfPlayers, String teamName) {
-        if (numberOfPlayers == PlayerService.MAX_PLAYER_COUNT) {
+        if (numberOfPlayers >= PlayerService.MAX_PLAYER_COUNT) {
             String message = String.format("Team %s already has %d players in the team.", teamName, PlayerService.MAX_PLAYER_COUNT);
             logger.warn(message);
             throw new PlayerLimitException(message);
@@ -60,7 +81,7 @@ public class FootballClubService {
     }
 
     public void checkForeignPlayerLimit(int numberOfForeignPlayers, String teamName) {
-        if (numberOfForeignPlayers == PlayerService.MAX_FOREIGN_COUNT) {
+        if (numberOfForeignPlayers >= PlayerService.MAX_FOREIGN_COUNT) {
             String message = String.format("Team %s already has %d foreign players in the team.", teamName, PlayerService.MAX_FOREIGN_COUNT);
             logger.warn(message);
             throw new PlayerLimitException(message);
@@ -68,11 +89,10 @@ public class FootballClubService {
     }
 
     public void checkPlayerByFirstNameAndLastName(String firstName, String lastName){
-        boolean doesPlayerExist = playerService.doesPlayerExistByFirstNameAndLastName(
-                firstName, lastName);
         //Check if the player exists
-        if (doesPlayerExist) {
-            Player player = playerService.getPlayerByFirstNameAndLastName(firstName, lastName);
+        Optional<Player> existingPlayer = playerService.findPlayerByFirstNameAndLastName(firstName, lastName);
+        if (existingPlayer.isPresent()) {
+            Player player = existingPlayer.get();
             String playerName = String.format("%s %s", player.getFirstName(), player.getLastName());
             String message = String.format("Player %s already exists in %s.", playerName, player.getTeam().getTeamName());
             logger.warn(message);
@@ -89,82 +109,379 @@ public class FootballClubService {
         return teamService.addTeam(teamName);
     }
 
-    public String addNewFootballPlayer(FootballPlayerRegistrationDto playerDto) {
-        checkTeamByTeamId(playerDto.getTeamId());
+    public void checkRosterLimits(RosterCounts rosterCounts, String teamName, Nationality nationality, PlayerType playerType) {
+        checkMaxPlayerLimit(rosterCounts.getPlayerCount(), teamName);
+        if (nationality == Nationality.FOREIGN) {
+            checkForeignPlayerLimit(rosterCounts.getForeignCount(), teamName);
+        }
+        if (playerType == PlayerType.GOALKEEPER) {
+            checkGoalkeeperLimit(rosterCounts.getGoalkeeperCount(), teamName);
+        }
+    }
 
-        Team team = teamService.getTeamById(playerDto.getTeamId());
+    @Transactional
+    public List<BulkItemResponse> addNewFootballTeams(List<String> teamNames) {
+        Set<String> existingTeamNames = teamService.getExistingTeamNames(new HashSet<>(teamNames));
+
+        List<BulkItemResponse> results = new ArrayList<>(Collections.nCopies(teamNames.size(), null));
+        Map<String, Integer> acceptedTeamNames = new LinkedHashMap<>();
+        for (int i = 0; i < teamNames.size(); i++) {
+            String teamName = teamNames.get(i);
+            if (existingTeamNames.contains(teamName)) {
+                results.set(i, BulkItemResponse.failed(teamName, String.format("Team %s already exists.", teamName)));
+            } else if (acceptedTeamNames.containsKey(teamName)) {
+                results.set(i, BulkItemResponse.failed(teamName, String.format("Team %s is listed more than once.", teamName)));
+            } else {
+                acceptedTeamNames.put(teamName, i);
+            }
+        }
+
+        if (!acceptedTeamNames.isEmpty()) {
+            for (Team savedTeam : teamService.addTeams(acceptedTeamNames.keySet())) {
+                String message = String.format("Team added to the team table: %d %s", savedTeam.getId(), savedTeam.getTeamName());
+                results.set(acceptedTeamNames.get(savedTeam.getTeamName()), BulkItemResponse.succeeded(savedTeam.getTeamName(), message));
+            }
+        }
+        return results;
+    }
+
+    //Explains why the conditional roster update refused the player
+    public void rejectPlayer(long teamId, String teamName, Nationality nationality, PlayerType playerType) {
+        //Count the roster in one query, the team row may be older than the update that refused the player
+        RosterCounts rosterCounts = playerService.getRosterCountsByTeamId(teamId);
+        checkRosterLimits(rosterCounts, teamName, nationality, playerType);
+        //The roster changed after it was counted
+        String message = String.format("Team %s has no room for the player.", teamName);
+        logger.warn(message);
+        throw new PlayerLimitException(message);
+    }
+
+    @Transactional
+    public String addNewFootballPlayer(FootballPlayerRegistrationDto playerDto) {
+        long teamId = playerDto.getTeamId();
+        String teamName = getTeamNameOrThrow(teamId);
 
         checkPlayerByFirstNameAndLastName(playerDto.getFirstName(), playerDto.getLastName());
-        int teamPlayerCount = playerService.getPlayerCountByTeamId(team.getId());
-        //Check player count limit
-        checkMaxPlayerLimit(teamPlayerCount, team.getTeamName());
 
-        //Check if the player is a goalkeeper
-        if (playerDto.getPlayerType() == PlayerType.GOALKEEPER) {
-            int goalkeeperCount = playerService.getGoalkeeperCountByTeamId(team.getId());
-            checkGoalkeeperLimit(goalkeeperCount, team.getTeamName());
+        //Check player count, goalkeeper and foreign player limits
+        boolean admitted = playerService.admitPlayerToTeam(teamId, playerDto.getNationality(), playerDto.getPlayerType());
+        if (!admitted) {
+            rejectPlayer(teamId, teamName, playerDto.getNationality(), playerDto.getPlayerType());
+        }
+        playerService.addNewFootballPlayer(playerDto, teamService.getTeamReference(teamId));
+        return String.format("%s %s added to the team %s.", playerDto.getFirstName(), playerDto.getLastName(), teamName);
+    }
+
+    @Transactional
+    public List<BulkItemResponse> addNewFootballPlayers(List<FootballPlayerRegistrationDto> playerDtos) {
+        Set<Long> teamIds = playerDtos.stream()
+                .map(FootballPlayerRegistrationDto::getTeamId)
+                .collect(Collectors.toSet());
+        Map<Long, Team> teams = teamService.getTeamsByIds(teamIds).stream()
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+
+        Map<List<String>, Player> existingPlayers = playerService.getPlayersByNames(playerDtos)
+                .stream()
+                .collect(Collectors.toMap(player -> List.of(player.getFirstName(), player.getLastName()), Function.identity(), (first, second) -> first));
+
+        List<BulkItemResponse> results = new ArrayList<>(Collections.nCopies(playerDtos.size(), null));
+        Set<List<String>> acceptedNames = new HashSet<>();
+        Map<Long, RosterTally> rosterTallies = new HashMap<>();
+        Map<Long, List<Integer>> acceptedByTeam = new LinkedHashMap<>();
+
+        //Check every player against the team rosters and the players accepted before it
+        for (int i = 0; i < playerDtos.size(); i++) {
+            FootballPlayerRegistrationDto playerDto = playerDtos.get(i);
+            String playerName = String.format("%s %s", playerDto.getFirstName(), playerDto.getLastName());
+            List<String> nameKey = List.of(playerDto.getFirstName(), playerDto.getLastName());
+
+            Team team = teams.get(playerDto.getTeamId());
+            if (team == null) {
+                results.set(i, BulkItemResponse.failed(playerName, String.format("Team ID: %d does not exists.", playerDto.getTeamId())));
+                continue;
+            }
+            Player existingPlayer = existingPlayers.get(nameKey);
+            if (existingPlayer != null) {
+                results.set(i, BulkItemResponse.failed(playerName,
+                        String.format("Player %s already exists in %s.", playerName, existingPlayer.getTeam().getTeamName())));
+                continue;
+            }
+            if (acceptedNames.contains(nameKey)) {
+                results.set(i, BulkItemResponse.failed(playerName, String.format("Player %s is listed more than once.", playerName)));
+                continue;
+            }
+            RosterTally rosterTally = rosterTallies.computeIfAbsent(team.getId(), teamId -> new RosterTally(team));
+            try {
+                checkRosterLimits(rosterTally, team.getTeamName(), playerDto.getNationality(), playerDto.getPlayerType());
+            } catch (PlayerLimitException exception) {
+                results.set(i, BulkItemResponse.failed(playerName, exception.getMessage()));
+                continue;
+            }
+            rosterTally.add(playerDto.getNationality(), playerDto.getPlayerType());
+            acceptedNames.add(nameKey);
+            acceptedByTeam.computeIfAbsent(team.getId(), teamId -> new ArrayList<>()).add(i);
         }
 
-        //Check if the player is foreign
-        if (playerDto.getNationality() == Nationality.FOREIGN) {
-            int foreignCount = playerService.getForeignPlayerCountByTeamId(team.getId());
-            checkForeignPlayerLimit(foreignCount, team.getTeamName());
+        //Reserve the slots with one conditional update per team
+        List<Player> newPlayers = new ArrayList<>();
+        acceptedByTeam.forEach((teamId, indexes) -> {
+            Team team = teams.get(teamId);
+            RosterTally rosterTally = rosterTallies.get(teamId);
+            boolean admitted = playerService.admitPlayersToTeam(teamId,
+                    rosterTally.getAddedPlayers(), rosterTally.getAddedForeign(), rosterTally.getAddedGoalkeepers());
+            for (int index : indexes) {
+                FootballPlayerRegistrationDto playerDto = playerDtos.get(index);
+                String playerName = String.format("%s %s", playerDto.getFirstName(), playerDto.getLastName());
+                if (!admitted) {
+                    String message = String.format("Roster of team %s changed during the registration, try again.", team.getTeamName());
+                    results.set(index, BulkItemResponse.failed(playerName, message));
+                    continue;
+                }
+                newPlayers.add(Player.builder()
+                        .firstName(playerDto.getFirstName())
+                        .lastName(playerDto.getLastName())
+                        .nationality(playerDto.getNationality())
+                        .playerType(playerDto.getPlayerType())
+                        .team(team)
+                        .build());
+                results.set(index, BulkItemResponse.succeeded(playerName, String.format("%s added to the team %s.", playerName, team.getTeamName())));
+            }
+        });
+
+        if (!newPlayers.isEmpty()) {
+            playerService.addNewFootballPlayers(newPlayers);
         }
-        return playerService.addNewFootballPlayer(playerDto, team);
+        return results;
     }
 
-    public List<Team> getAllFootballTeams() {
-        return teamService.getAllTeams();
+    public CursorPage<Team> getAllFootballTeams(long afterId, int size) {
+        return teamService.getTeams(afterId, size);
     }
 
-    public List<Player> getTeamPlayersByTeamId(long teamId) {
-        return playerService.getPlayersByTeamId(teamId);
+    public CursorPage<Player> getTeamPlayersByTeamId(long teamId, long afterId, int size) {
+        return playerService.getPlayersByTeamId(teamId, afterId, size);
     }
 
-    public String deleteTeamById(long teamId) {
-        checkTeamByTeamId(teamId);
+    //Tags are read before the rows they are sent with
+    public String getTeamListETag() {
+        return teamVersions.getTeamListETag();
+    }
 
-        String teamName = teamService.getTeamNameByTeamId(teamId);
-        playerService.deleteTeamPlayersByTeamId(teamId);
+    public String getTeamPlayersETag(long teamId) {
+        return teamVersions.getTeamETag(teamId);
+    }
+
+    //Same JSON as the players of getTeamPlayersByTeamId, served from the roster cache when the team has not changed
+    public RosterResponseCache.Page getSerializedTeamPlayers(long teamId, long afterId, int size) {
+        long teamVersion = teamVersions.getTeamVersion(teamId);
+        return rosterResponseCache.getPage(teamId, teamVersion, afterId, size, () -> {
+            CursorPage<Player> page = getTeamPlayersByTeamId(teamId, afterId, size);
+            try {
+                return new RosterResponseCache.Page(objectMapper.writeValueAsBytes(page.getItems()), page.getNextCursor());
+            } catch (JsonProcessingException exception) {
+                throw new IllegalStateException(String.format("Players of team ID: %d could not be serialized.", teamId), exception);
+            }
+        });
+    }
+
+    @Transactional
+    public String deleteTeamById(long teamId) {
+        String teamName = getTeamNameOrThrow(teamId);
+        playerService.deletePlayersOfTeams(List.of(teamId));
         teamService.deleteTeamById(teamId);
         return String.format("Team %s deleted from database.", teamName);
     }
 
-    public String deletePlayerById(long playerId) {
-        checkPlayerById(playerId);
+    //The same few statements for any number of teams: the team lookup, the player names, the players and the teams
+    @Transactional
+    public List<BulkItemResponse> deleteTeamsByIds(List<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Team> teams = teamService.getTeamsByIds(new HashSet<>(teamIds)).stream()
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+
+        List<BulkItemResponse> results = new ArrayList<>(Collections.nCopies(teamIds.size(), null));
+        Set<Long> acceptedTeamIds = new LinkedHashSet<>();
+        for (int i = 0; i < teamIds.size(); i++) {
+            long teamId = teamIds.get(i);
+            Team team = teams.get(teamId);
+            if (team == null) {
+                results.set(i, BulkItemResponse.failed(String.valueOf(teamId), String.format("Team ID: %d does not exists.", teamId)));
+            } else if (!acceptedTeamIds.add(teamId)) {
+                results.set(i, BulkItemResponse.failed(String.valueOf(teamId), String.format("Team ID: %d is listed more than once.", teamId)));
+            } else {
+                results.set(i, BulkItemResponse.succeeded(String.valueOf(teamId),
+                        String.format("Team %s deleted from database.", team.getTeamName())));
+            }
+        }
 
-        Player player = playerService.getPlayerById(playerId);
-        playerService.deletePlayerById(playerId);
+        if (!acceptedTeamIds.isEmpty()) {
+            playerService.deletePlayersOfTeams(acceptedTeamIds);
+            teamService.deleteTeamsByIds(acceptedTeamIds);
+        }
+        return results;
+    }
+
+    @Transactional
+    public String deletePlayerById(long playerId) {
+        Player player = getPlayerOrThrow(playerId);
+        playerService.deletePlayer(player);
         return String.format("Player %s %s deleted from team %s.", player.getFirstName(), player.getLastName(), player.getTeam().getTeamName());
     }
 
+    @Transactional
+    public List<BulkItemResponse> deletePlayersByIds(List<Long> playerIds) {
+        if (playerIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Player> players = playerService.getPlayersByIds(new HashSet<>(playerIds)).stream()
+                .collect(Collectors.toMap(Player::getId, Function.identity()));
+
+        List<BulkItemResponse> results = new ArrayList<>(Collections.nCopies(playerIds.size(), null));
+        Map<Long, Player> acceptedPlayers = new LinkedHashMap<>();
+        for (int i = 0; i < playerIds.size(); i++) {
+            long playerId = playerIds.get(i);
+            Player player = players.get(playerId);
+            if (player == null) {
+                results.set(i, BulkItemResponse.failed(String.valueOf(playerId), String.format("Player ID: %d not found.", playerId)));
+            } else if (acceptedPlayers.putIfAbsent(playerId, player) != null) {
+                results.set(i, BulkItemResponse.failed(String.valueOf(playerId), String.format("Player ID: %d is listed more than once.", playerId)));
+            } else {
+                results.set(i, BulkItemResponse.succeeded(String.valueOf(playerId), String.format("Player %s %s deleted from team %s.",
+                        player.getFirstName(), player.getLastName(), player.getTeam().getTeamName())));
+            }
+        }
+
+        if (!acceptedPlayers.isEmpty()) {
+            playerService.deletePlayers(acceptedPlayers.values());
+        }
+        return results;
+    }
+
+    @Transactional
     public String changeTeamName(TeamNameUpdateDto updateDto) {
         checkTeamByTeamId(updateDto.getTeamId());
         return teamService.updateTeamName(updateDto.getTeamId(), updateDto.getNewTeamName());
     }
 
+    @Transactional
     public String changePlayerTeam(FootballPlayerTeamUpdateDto teamUpdateDto) {
-        checkTeamByTeamId(teamUpdateDto.getNewTeamId());
-        checkPlayerById(teamUpdateDto.getPlayerId());
+        long newTeamId = teamUpdateDto.getNewTeamId();
+        String newTeamName = getTeamNameOrThrow(newTeamId);
+        Player player = getPlayerOrThrow(teamUpdateDto.getPlayerId());
+        String oldTeamName = player.getTeam().getTeamName();
 
-        Team team = teamService.getTeamById(teamUpdateDto.getNewTeamId());
-        Player player = playerService.getPlayerById(teamUpdateDto.getPlayerId());
+        //Check maximum number of players, foreign players and goalkeepers limits, the rejection rolls back the released slot
+        boolean admitted = playerService.updatePlayerTeam(player, teamService.getTeamReference(newTeamId));
+        if (!admitted) {
+            rejectPlayer(newTeamId, newTeamName, player.getNationality(), player.getPlayerType());
+        }
+        String playerName = String.format("%s %s", player.getFirstName(), player.getLastName());
+        String message = String.format("%s 's team changed from %s to %s.", playerName, oldTeamName, newTeamName);
+        logger.info(message);
+        return message;
+    }
 
-        //Check maximum number of players limit
-        int playerCount = playerService.getPlayerCountByTeamId(team.getId());
-        checkMaxPlayerLimit(playerCount, team.getTeamName());
+    //Limits are checked on the rosters after all transfers, so two full teams can swap players
+    //A team that would break a limit refuses every transfer into it, the rest are checked again without them
+    @Transactional
+    public List<BulkItemResponse> transferPlayers(List<FootballPlayerTeamUpdateDto> transfers) {
+        if (transfers.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> playerIds = transfers.stream()
+                .map(FootballPlayerTeamUpdateDto::getPlayerId)
+                .collect(Collectors.toSet());
+        Map<Long, Player> players = playerService.getPlayersByIds(playerIds).stream()
+                .collect(Collectors.toMap(Player::getId, Function.identity()));
+        //The teams the players leave come with them, only the other new teams are read
+        Map<Long, Team> teams = new HashMap<>();
+        players.values().forEach(player -> teams.put(player.getTeam().getId(), player.getTeam()));
+        Set<Long> otherTeamIds = transfers.stream()
+                .map(FootballPlayerTeamUpdateDto::getNewTeamId)
+                .filter(teamId -> !teams.containsKey(teamId))
+                .collect(Collectors.toSet());
+        if (!otherTeamIds.isEmpty()) {
+            teamService.getTeamsByIds(otherTeamIds).forEach(team -> teams.put(team.getId(), team));
+        }
 
-        //Check maximum number of foreign players limit
-        if (player.getNationality() == Nationality.FOREIGN) {
-            int foreignCount = playerService.getForeignPlayerCountByTeamId(team.getId());
-            checkForeignPlayerLimit(foreignCount, team.getTeamName());
+        List<BulkItemResponse> results = new ArrayList<>(Collections.nCopies(transfers.size(), null));
+        Map<Long, Integer> acceptedTransfers = new LinkedHashMap<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            FootballPlayerTeamUpdateDto transfer = transfers.get(i);
+            String item = String.valueOf(transfer.getPlayerId());
+            Player player = players.get(transfer.getPlayerId());
+            Team newTeam = teams.get(transfer.getNewTeamId());
+            if (player == null) {
+                results.set(i, BulkItemResponse.failed(item, String.format("Player ID: %d not found.", transfer.getPlayerId())));
+            } else if (newTeam == null) {
+                results.set(i, BulkItemResponse.failed(item, String.format("Team ID: %d does not exists.", transfer.getNewTeamId())));
+            } else if (acceptedTransfers.containsKey(transfer.getPlayerId())) {
+                results.set(i, BulkItemResponse.failed(item, String.format("Player ID: %d is listed more than once.", transfer.getPlayerId())));
+            } else if (player.getTeam().getId() == transfer.getNewTeamId()) {
+                results.set(i, BulkItemResponse.failed(item, String.format("Player %s %s already plays for team %s.",
+                        player.getFirstName(), player.getLastName(), newTeam.getTeamName())));
+            } else {
+                acceptedTransfers.put(transfer.getPlayerId(), i);
+            }
         }
 
-        //Check maximum number of goalkeepers limit
-        if (player.getPlayerType() == PlayerType.GOALKEEPER) {
-            int goalkeeperCount = playerService.getGoalkeeperCountByTeamId(team.getId());
-            checkGoalkeeperLimit(goalkeeperCount, team.getTeamName());
+        boolean refused;
+        do {
+            Map<Long, String> violations = finalRosterViolations(transfers, acceptedTransfers, players, teams);
+            refused = acceptedTransfers.entrySet().removeIf(acceptedTransfer -> {
+                int index = acceptedTransfer.getValue();
+                String violation = violations.get(transfers.get(index).getNewTeamId());
+                if (violation != null) {
+                    results.set(index, BulkItemResponse.failed(String.valueOf(acceptedTransfer.getKey()), violation));
+                }
+                return violation != null;
+            });
+        } while (refused);
+
+        if (!acceptedTransfers.isEmpty()) {
+            List<Player> transferredPlayers = new ArrayList<>();
+            Map<Long, Team> newTeamsByPlayerId = new HashMap<>();
+            acceptedTransfers.forEach((playerId, index) -> {
+                Player player = players.get(playerId);
+                Team newTeam = teams.get(transfers.get(index).getNewTeamId());
+                String message = String.format("%s %s 's team changed from %s to %s.",
+                        player.getFirstName(), player.getLastName(), player.getTeam().getTeamName(), newTeam.getTeamName());
+                results.set(index, BulkItemResponse.succeeded(String.valueOf(playerId), message));
+                transferredPlayers.add(player);
+                newTeamsByPlayerId.put(playerId, newTeam);
+            });
+            playerService.transferPlayers(transferredPlayers, newTeamsByPlayerId);
         }
-        return playerService.updatePlayerTeam(teamUpdateDto.getPlayerId(), team);
+        return results;
+    }
+
+    //Rosters of every team touched by the accepted transfers as they would be after them, keyed by the teams that break a limit
+    private Map<Long, String> finalRosterViolations(List<FootballPlayerTeamUpdateDto> transfers, Map<Long, Integer> acceptedTransfers,
+                                                    Map<Long, Player> players, Map<Long, Team> teams) {
+        Map<Long, RosterTally> finalRosters = new HashMap<>();
+        acceptedTransfers.forEach((playerId, index) -> {
+            Player player = players.get(playerId);
+            finalRosters.computeIfAbsent(player.getTeam().getId(), teamId -> new RosterTally(teams.get(teamId)))
+                    .remove(player.getNationality(), player.getPlayerType());
+            finalRosters.computeIfAbsent(transfers.get(index).getNewTeamId(), teamId -> new RosterTally(teams.get(teamId)))
+                    .add(player.getNationality(), player.getPlayerType());
+        });
+        Map<Long, String> violations = new HashMap<>();
+        finalRosters.forEach((teamId, roster) -> {
+            String teamName = teams.get(teamId).getTeamName();
+            if (roster.getPlayerCount() > PlayerService.MAX_PLAYER_COUNT) {
+                violations.put(teamId, String.format("Team %s would have %d players after the transfers, the limit is %d.",
+                        teamName, roster.getPlayerCount(), PlayerService.MAX_PLAYER_COUNT));
+            } else if (roster.getForeignCount() > PlayerService.MAX_FOREIGN_COUNT) {
+                violations.put(teamId, String.format("Team %s would have %d foreign players after the transfers, the limit is %d.",
+                        teamName, roster.getForeignCount(), PlayerService.MAX_FOREIGN_COUNT));
+            } else if (roster.getGoalkeeperCount() > PlayerService.MAX_GOALKEEPER_COUNT) {
+                violations.put(teamId, String.format("Team %s would have %d goalkeepers after the transfers, the limit is %d.",
+                        teamName, roster.getGoalkeeperCount(), PlayerService.MAX_GOALKEEPER_COUNT));
+            }
+        });
+        return violations;
     }
 }
@@ -0,0 +1,52 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kadiryuksel.peratestcase.projection.PlayerExportRow;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class PlayerExportService {
+    public static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+    private final PlayerRepository playerRepository;
+    private final ObjectMapper objectMapper;
+    private final static Logger logger = LoggerFactory.getLogger(PlayerExportService.class);
+
+    //Writes every player with its team as one JSON object per line, rows are read through a database cursor
+    @Transactional(readOnly = true)
+    public long exportPlayers(OutputStream outputStream) throws IOException {
+        long exportedRows = 0;
+        try (Stream<PlayerExportRow> rows = playerRepository.streamAllForExport();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            //Lines are ended explicitly instead of Jackson's default space between root values
+            generator.setRootValueSeparator(null);
+            //ObjectMapper flushes after every value, which would send each row as its own chunk
+            ObjectWriter rowWriter = objectMapper.writerFor(PlayerExportRow.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            Iterator<PlayerExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                exportedRows++;
+            }
+            generator.flush();
+        }
+        logger.info(String.format("%d players exported.", exportedRows));
+        return exportedRows;
+    }
+}
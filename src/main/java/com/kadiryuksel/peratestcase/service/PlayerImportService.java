@@ -0,0 +1,313 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.config.PlayerImportProperties;
+import com.kadiryuksel.peratestcase.config.VirtualThreadProperties;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.response.BulkItemResponse;
+import com.kadiryuksel.peratestcase.response.PlayerImportReport;
+import com.kadiryuksel.peratestcase.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+//Imports players from CSV in three overlapping stages: parse and validate, resolve teams, check limits and insert
+@Service
+public class PlayerImportService {
+    private final FootballClubService footballClubService;
+    private final TeamService teamService;
+    private final PlayerImportProperties importProperties;
+    private final ExecutorService stageExecutor;
+    private final static Logger logger = LoggerFactory.getLogger(PlayerImportService.class);
+
+    private static final ImportChunk END_OF_INPUT = new ImportChunk(Collections.emptyList(), null);
+
+    public PlayerImportService(FootballClubService footballClubService, TeamService teamService,
+                               PlayerImportProperties importProperties, VirtualThreadProperties virtualThreadProperties) {
+        this.footballClubService = footballClubService;
+        this.teamService = teamService;
+        this.importProperties = importProperties;
+        //The stages mostly wait on their queues, a virtual thread each is enough
+        this.stageExecutor = virtualThreadProperties.isEnabled() && VirtualThreads.isSupported() ?
+                VirtualThreads.newThreadPerTaskExecutor("import-stage-virtual-") : Executors.newCachedThreadPool();
+    }
+
+    public PlayerImportReport importPlayers(InputStream csv) {
+        long startTime = System.nanoTime();
+        BlockingQueue<ImportChunk> parsedChunks = new ArrayBlockingQueue<>(importProperties.getQueueCapacity());
+        BlockingQueue<ImportChunk> resolvedChunks = new ArrayBlockingQueue<>(importProperties.getQueueCapacity());
+
+        Future<?> parser = stageExecutor.submit(() -> parse(csv, parsedChunks));
+        Future<?> resolver = stageExecutor.submit(() -> resolveTeams(parsedChunks, resolvedChunks));
+        PlayerImportReport report = new PlayerImportReport(importProperties.getMaxListedRejections());
+        try {
+            ImportChunk chunk = resolvedChunks.take();
+            while (chunk != END_OF_INPUT) {
+                if (chunk.failure != null) {
+                    throw new IllegalStateException("Player import failed.", chunk.failure);
+                }
+                register(chunk, report);
+                chunk = resolvedChunks.take();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Player import interrupted.", exception);
+        } finally {
+            //Stops the earlier stages when the import ends early
+            parser.cancel(true);
+            resolver.cancel(true);
+        }
+
+        report.finish(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        logger.info(String.format("Player import finished: %d rows, %d imported, %d rejected in %d ms (%.1f rows/s).",
+                report.getTotalRows(), report.getImportedRows(), report.getRejectedRows(),
+                report.getElapsedMillis(), report.getRowsPerSecond()));
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stageExecutor.shutdownNow();
+    }
+
+    //Stage 1: read lines and validate the fields
+    private void parse(InputStream csv, BlockingQueue<ImportChunk> parsedChunks) {
+        try {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+                List<ImportRow> rows = new ArrayList<>(importProperties.getChunkSize());
+                long lineNumber = 0;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank() || (lineNumber == 1 && isHeader(line))) {
+                        continue;
+                    }
+                    rows.add(parseRow(lineNumber, line));
+                    if (rows.size() == importProperties.getChunkSize()) {
+                        parsedChunks.put(new ImportChunk(rows, null));
+                        rows = new ArrayList<>(importProperties.getChunkSize());
+                    }
+                }
+                if (!rows.isEmpty()) {
+                    parsedChunks.put(new ImportChunk(rows, null));
+                }
+            }
+            parsedChunks.put(END_OF_INPUT);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException exception) {
+            handOverFailure(parsedChunks, exception);
+        }
+    }
+
+    //Stage 2: replace team names with ids, one query per chunk
+    private void resolveTeams(BlockingQueue<ImportChunk> parsedChunks, BlockingQueue<ImportChunk> resolvedChunks) {
+        try {
+            ImportChunk chunk = parsedChunks.take();
+            while (chunk != END_OF_INPUT && chunk.failure == null) {
+                Set<String> teamNames = chunk.rows.stream()
+                        .filter(row -> row.rejection == null && row.teamName != null)
+                        .map(row -> row.teamName)
+                        .collect(Collectors.toSet());
+                Map<String, Long> teamIds = teamNames.isEmpty() ? Collections.emptyMap() :
+                        teamService.getTeamsByTeamNames(teamNames).stream()
+                                .collect(Collectors.toMap(Team::getTeamName, Team::getId, (first, second) -> first));
+                for (ImportRow row : chunk.rows) {
+                    if (row.rejection == null && row.teamName != null) {
+                        Long teamId = teamIds.get(row.teamName);
+                        if (teamId == null) {
+                            row.rejection = String.format("Team %s does not exist.", row.teamName);
+                        } else {
+                            row.playerDto.setTeamId(teamId);
+                        }
+                    }
+                }
+                resolvedChunks.put(chunk);
+                chunk = parsedChunks.take();
+            }
+            resolvedChunks.put(chunk);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException exception) {
+            handOverFailure(resolvedChunks, exception);
+        }
+    }
+
+    private void handOverFailure(BlockingQueue<ImportChunk> nextStage, Exception failure) {
+        try {
+            nextStage.put(new ImportChunk(Collections.emptyList(), failure));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //Stage 3: roster limits, name uniqueness and the batch insert of one chunk in one transaction
+    private void register(ImportChunk chunk, PlayerImportReport report) {
+        List<ImportRow> validRows = new ArrayList<>();
+        for (ImportRow row : chunk.rows) {
+            if (row.rejection != null) {
+                report.addRejection(row.line, row.playerName, row.rejection);
+            } else {
+                validRows.add(row);
+            }
+        }
+        if (validRows.isEmpty()) {
+            return;
+        }
+        List<FootballPlayerRegistrationDto> playerDtos = validRows.stream()
+                .map(row -> row.playerDto)
+                .collect(Collectors.toList());
+        List<BulkItemResponse> results;
+        try {
+            results = footballClubService.addNewFootballPlayers(playerDtos);
+        } catch (DataIntegrityViolationException | OptimisticLockingFailureException exception) {
+            //Only this chunk's transaction rolled back, the chunks before it stay imported and the rest still run
+            String message = exception instanceof DataIntegrityViolationException
+                    ? "Rolled back with its chunk, a player with one of its names was added meanwhile."
+                    : "Rolled back with its chunk, a team roster changed meanwhile.";
+            logger.warn(String.format("Import chunk of lines %d to %d rolled back: %s", validRows.get(0).line,
+                    validRows.get(validRows.size() - 1).line, exception.getMessage()));
+            validRows.forEach(row -> report.addRejection(row.line, row.playerName, message));
+            return;
+        }
+        for (int i = 0; i < validRows.size(); i++) {
+            BulkItemResponse result = results.get(i);
+            if (result.isSuccess()) {
+                report.addImported();
+            } else {
+                report.addRejection(validRows.get(i).line, result.getItem(), result.getMessage());
+            }
+        }
+    }
+
+    private boolean isHeader(String line) {
+        return line.trim().toLowerCase(Locale.ROOT).startsWith("first");
+    }
+
+    //Columns: first name, last name, nationality, player type, team name or team id
+    //A team value of digits only is always read as an id, a team named with digits only cannot be imported by name
+    private ImportRow parseRow(long lineNumber, String line) {
+        List<String> fields = splitCsvLine(line);
+        ImportRow row = new ImportRow(lineNumber);
+        if (fields.size() != 5) {
+            row.playerName = line;
+            row.rejection = String.format("Expected 5 columns but found %d.", fields.size());
+            return row;
+        }
+        String firstName = fields.get(0);
+        String lastName = fields.get(1);
+        String team = fields.get(4);
+        row.playerName = String.format("%s %s", firstName, lastName);
+        if (firstName.isBlank()) {
+            row.rejection = "Enter a valid first name.";
+            return row;
+        }
+        if (lastName.isBlank()) {
+            row.rejection = "Enter a valid last name.";
+            return row;
+        }
+        Nationality nationality = parseEnum(Nationality.class, fields.get(2));
+        if (nationality == null) {
+            row.rejection = String.format("Unknown nationality %s.", fields.get(2));
+            return row;
+        }
+        PlayerType playerType = parseEnum(PlayerType.class, fields.get(3));
+        if (playerType == null) {
+            row.rejection = String.format("Unknown player type %s.", fields.get(3));
+            return row;
+        }
+        if (team.isBlank()) {
+            row.rejection = "Enter a team name or team ID.";
+            return row;
+        }
+        row.playerDto = FootballPlayerRegistrationDto.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .nationality(nationality)
+                .playerType(playerType)
+                .build();
+        if (team.chars().allMatch(Character::isDigit)) {
+            try {
+                row.playerDto.setTeamId(Long.parseLong(team));
+            } catch (NumberFormatException exception) {
+                row.rejection = String.format("Team ID: %s is out of range.", team);
+            }
+        } else {
+            row.teamName = team;
+        }
+        return row;
+    }
+
+    private <E extends Enum<E>> E parseEnum(Class<E> enumType, String value) {
+        try {
+            return Enum.valueOf(enumType, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    //Splits one CSV line, fields may be quoted and quotes inside them are doubled
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private String playerName;
+        private FootballPlayerRegistrationDto playerDto;
+        private String teamName;
+        private String rejection;
+
+        private ImportRow(long line) {
+            this.line = line;
+        }
+    }
+
+    private static final class ImportChunk {
+        private final List<ImportRow> rows;
+        private final Exception failure;
+
+        private ImportChunk(List<ImportRow> rows, Exception failure) {
+            this.rows = rows;
+            this.failure = failure;
+        }
+    }
+}
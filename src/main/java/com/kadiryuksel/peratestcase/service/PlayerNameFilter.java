@@ -0,0 +1,84 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.config.PlayerNameFilterProperties;
+import com.kadiryuksel.peratestcase.projection.PlayerName;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import com.kadiryuksel.peratestcase.util.CountingBloomFilter;
+import com.kadiryuksel.peratestcase.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+//Keeps the names of the stored players in a Bloom filter so most new names skip the database check
+//The filter follows committed changes only, the unique name index stays the final check
+@Service
+@RequiredArgsConstructor
+public class PlayerNameFilter {
+    private final PlayerRepository playerRepository;
+    private final PlayerNameFilterProperties filterProperties;
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private final static Logger logger = LoggerFactory.getLogger(PlayerNameFilter.class);
+
+    //Null until the first rebuild, every name may exist until then
+    private volatile CountingBloomFilter filter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            long playerCount = playerRepository.count();
+            CountingBloomFilter newFilter = new CountingBloomFilter(
+                    Math.max(filterProperties.getExpectedPlayers(), playerCount * 2), filterProperties.getFalsePositiveRate());
+            try (Stream<PlayerName> playerNames = playerRepository.streamAllNames()) {
+                playerNames.forEach(playerName -> newFilter.add(key(playerName.getFirstName(), playerName.getLastName())));
+            }
+            filter = newFilter;
+            logger.info(String.format("Player name filter rebuilt for %d players.", playerCount));
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    public boolean mightExist(String firstName, String lastName) {
+        CountingBloomFilter currentFilter = filter;
+        return currentFilter == null || currentFilter.mightContain(key(firstName, lastName));
+    }
+
+    public void playerAdded(String firstName, String lastName) {
+        TransactionHooks.runAfterCommit(() -> update(firstName, lastName, true));
+    }
+
+    public void playerRemoved(String firstName, String lastName) {
+        TransactionHooks.runAfterCommit(() -> update(firstName, lastName, false));
+    }
+
+    private void update(String firstName, String lastName, boolean added) {
+        rebuildLock.readLock().lock();
+        try {
+            CountingBloomFilter currentFilter = filter;
+            if (currentFilter == null) {
+                return;
+            }
+            if (added) {
+                currentFilter.add(key(firstName, lastName));
+            } else {
+                currentFilter.remove(key(firstName, lastName));
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private String key(String firstName, String lastName) {
+        return firstName + '\u0000' + lastName;
+    }
+}
@@ -5,59 +5,106 @@ import com.kadiryuksel.peratestcase.entity.Player;
 import com.kadiryuksel.peratestcase.entity.Team;
 import com.kadiryuksel.peratestcase.enums.Nationality;
 import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.projection.RosterCounts;
 import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import com.kadiryuksel.peratestcase.response.CursorPage;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PlayerService {
     private final PlayerRepository playerRepository;
+    private final TeamRepository teamRepository;
+    private final PlayerNameFilter playerNameFilter;
+    private final TeamVersions teamVersions;
     private final Logger logger = LoggerFactory.getLogger(PlayerService.class);
 
     public static final int MAX_GOALKEEPER_COUNT = 2;
     public static final int MAX_FOREIGN_COUNT = 6;
     public static final int MAX_PLAYER_COUNT = 18;
 
-    public boolean doesPlayerExistByFirstNameAndLastName(String firstName, String lastName) {
-        return playerRepository.existsByFirstNameAndLastName(firstName, lastName);
+    //The player is loaded with its team in one query
+    public Optional<Player> findPlayerById(long playerId) {
+        return playerRepository.findById(playerId);
     }
 
-    public boolean doesPlayerExistById(long playerId) {
-        return playerRepository.existsById(playerId);
+    public List<Player> getPlayersByTeamId(long teamId) {
+        return playerRepository.getPlayersByTeamId(teamId);
     }
 
-    public Player getPlayerById(long playerId) {
-        return playerRepository.getPlayerById(playerId);
+    public CursorPage<Player> getPlayersByTeamId(long teamId, long afterId, int size) {
+        List<Player> rows = playerRepository.findByTeamIdAndIdGreaterThanOrderByIdAsc(teamId, afterId, PageRequest.of(0, size + 1));
+        return CursorPage.of(rows, size, Player::getId);
     }
 
-    public List<Player> getPlayersByTeamId(long teamId) {
-        return playerRepository.getPlayersByTeamId(teamId);
+    //The player is loaded with its team in one query, names the filter rules out never reach the database
+    public Optional<Player> findPlayerByFirstNameAndLastName(String firstName, String lastName) {
+        if (!playerNameFilter.mightExist(firstName, lastName)) {
+            return Optional.empty();
+        }
+        return playerRepository.findWithTeamByFirstNameAndLastName(firstName, lastName);
+    }
+
+    //Returns a superset of the stored players with the given names, callers match the exact pairs
+    //Always asks the database: the name filter only knows the names added through this instance, and a name it
+    //misses would fail the unique index and with it the whole batch instead of a single item
+    public List<Player> getPlayersByNames(Collection<FootballPlayerRegistrationDto> playerDtos) {
+        if (playerDtos.isEmpty()) {
+            return List.of();
+        }
+        Set<String> firstNames = playerDtos.stream().map(FootballPlayerRegistrationDto::getFirstName).collect(Collectors.toSet());
+        Set<String> lastNames = playerDtos.stream().map(FootballPlayerRegistrationDto::getLastName).collect(Collectors.toSet());
+        return playerRepository.findWithTeamByFirstNameInAndLastNameIn(firstNames, lastNames);
     }
 
-    public Player getPlayerByFirstNameAndLastName(String firstName, String lastName) {
-        return playerRepository.getPlayerByFirstNameAndLastName(firstName, lastName);
+    public RosterCounts getRosterCountsByTeamId(long teamId) {
+        return playerRepository.countRosterByTeamId(teamId);
+    }
+
+    //Reserves a roster slot with one conditional update, false means a roster limit would be broken
+    @Transactional
+    public boolean admitPlayerToTeam(long teamId, Nationality nationality, PlayerType playerType) {
+        return admitPlayersToTeam(teamId, 1, foreignWeight(nationality), goalkeeperWeight(playerType));
+    }
+
+    @Transactional
+    public boolean admitPlayersToTeam(long teamId, int players, int foreignPlayers, int goalkeepers) {
+        int updatedRows = teamRepository.admitPlayers(teamId, players, foreignPlayers, goalkeepers,
+                MAX_PLAYER_COUNT, MAX_FOREIGN_COUNT, MAX_GOALKEEPER_COUNT);
+        if (updatedRows != 1) {
+            return false;
+        }
+        teamRepository.evictTeamFromCache(teamId);
+        return true;
     }
 
-    public int getForeignPlayerCountByTeamId(long teamId) {
-        return playerRepository.countByNationalityAndTeamId(Nationality.FOREIGN, teamId);
+    private void releasePlayerFromTeam(Player player) {
+        teamRepository.releasePlayer(player.getTeam().getId(),
+                foreignWeight(player.getNationality()), goalkeeperWeight(player.getPlayerType()));
+        teamRepository.evictTeamFromCache(player.getTeam().getId());
     }
 
-    public int getGoalkeeperCountByTeamId(long teamId) {
-        return playerRepository.countByPlayerTypeAndTeamId(PlayerType.GOALKEEPER, teamId);
+    private int foreignWeight(Nationality nationality) {
+        return nationality == Nationality.FOREIGN ? 1 : 0;
     }
 
-    public int getPlayerCountByTeamId(long teamId) {
-        return playerRepository.countByTeamId(teamId);
+    private int goalkeeperWeight(PlayerType playerType) {
+        return playerType == PlayerType.GOALKEEPER ? 1 : 0;
     }
 
+    //The team may be a reference, only its id is read here
     @Transactional
-    public String addNewFootballPlayer(FootballPlayerRegistrationDto playerDto, Team team) {
+    public Player addNewFootballPlayer(FootballPlayerRegistrationDto playerDto, Team team) {
         Player newPlayer = Player.builder()
                 .firstName(playerDto.getFirstName())
                 .lastName(playerDto.getLastName())
@@ -66,31 +113,112 @@ public class PlayerService {
                 .team(team)
                 .build();
         Player savedPlayer = playerRepository.save(newPlayer);
-        String playerName = savedPlayer.getFirstName() + " " + savedPlayer.getLastName();
-        logger.info(String.format("New football player added to the player table -> %s", savedPlayer));
-        return String.format("%s added to the team %s.", playerName, savedPlayer.getTeam().getTeamName());
+        playerNameFilter.playerAdded(savedPlayer.getFirstName(), savedPlayer.getLastName());
+        teamVersions.teamChanged(team.getId());
+        logger.info(String.format("New football player added to the player table -> %d %s %s (team ID: %d)",
+                savedPlayer.getId(), savedPlayer.getFirstName(), savedPlayer.getLastName(), team.getId()));
+        return savedPlayer;
     }
 
     @Transactional
-    public String updatePlayerTeam(long playerId, Team newTeam) {
-        Player player = playerRepository.getPlayerById(playerId);
-        String oldTeamStr = player.getTeam().getTeamName();
+    public List<Player> addNewFootballPlayers(List<Player> newPlayers) {
+        List<Player> savedPlayers = playerRepository.saveAll(newPlayers);
+        savedPlayers.forEach(player -> playerNameFilter.playerAdded(player.getFirstName(), player.getLastName()));
+        savedPlayers.stream()
+                .map(player -> player.getTeam().getId())
+                .distinct()
+                .forEach(teamVersions::teamChanged);
+        logger.info(String.format("%d football players added to the player table.", savedPlayers.size()));
+        return savedPlayers;
+    }
+
+    //The player must be managed, the change is written when the transaction flushes
+    //Both counters change in team id order like transferPlayers, so opposite moves lock the two team rows alike
+    //False when the new team has no room, the caller must roll back as the old slot may already be released
+    @Transactional
+    public boolean updatePlayerTeam(Player player, Team newTeam) {
+        long oldTeamId = player.getTeam().getId();
+        long newTeamId = newTeam.getId();
+        if (oldTeamId < newTeamId) {
+            releasePlayerFromTeam(player);
+        }
+        if (!admitPlayerToTeam(newTeamId, player.getNationality(), player.getPlayerType())) {
+            return false;
+        }
+        if (oldTeamId >= newTeamId) {
+            releasePlayerFromTeam(player);
+        }
+        teamVersions.teamChanged(oldTeamId);
+        teamVersions.teamChanged(newTeamId);
         player.setTeam(newTeam);
-        Player updatedPlayer = playerRepository.save(player);
-        String newTeamStr = updatedPlayer.getTeam().getTeamName();
-        String playerName = String.format("%s %s", player.getFirstName(), player.getLastName());
-        String message = String.format("%s 's team changed from %s to %s.", playerName, oldTeamStr, newTeamStr);
-        logger.info(message);
-        return message;
+        return true;
+    }
+
+    //Moves the players with one net counter update per team, in team id order so concurrent batches lock the rows alike
+    //The limits are checked by the same conditional update, a refusal means a roster changed after the caller checked it
+    //The players must be managed, their updates are written as one JDBC batch when the transaction flushes
+    @Transactional
+    public void transferPlayers(Collection<Player> players, Map<Long, Team> newTeamsByPlayerId) {
+        Map<Long, RosterTally> rosterChanges = new TreeMap<>();
+        for (Player player : players) {
+            Team newTeam = newTeamsByPlayerId.get(player.getId());
+            rosterChanges.computeIfAbsent(player.getTeam().getId(), teamId -> new RosterTally())
+                    .remove(player.getNationality(), player.getPlayerType());
+            rosterChanges.computeIfAbsent(newTeam.getId(), teamId -> new RosterTally())
+                    .add(player.getNationality(), player.getPlayerType());
+        }
+        rosterChanges.forEach((teamId, rosterChange) -> {
+            if (!rosterChange.isUnchanged() && !admitPlayersToTeam(teamId, rosterChange.getAddedPlayers(),
+                    rosterChange.getAddedForeign(), rosterChange.getAddedGoalkeepers())) {
+                throw new OptimisticLockingFailureException(String.format("Roster of team ID: %d changed during the transfers.", teamId));
+            }
+            teamVersions.teamChanged(teamId);
+        });
+        players.forEach(player -> player.setTeam(newTeamsByPlayerId.get(player.getId())));
+        logger.info(String.format("%d players transferred between %d teams.", players.size(), rosterChanges.size()));
+    }
+
+    //Only the names are read for the name filter, the players go with one delete whatever their number
+    //The roster counters are left as they are, the teams are deleted right after
+    @Transactional
+    public void deletePlayersOfTeams(Collection<Long> teamIds) {
+        playerRepository.findNamesByTeamIdIn(teamIds)
+                .forEach(playerName -> playerNameFilter.playerRemoved(playerName.getFirstName(), playerName.getLastName()));
+        playerRepository.deleteByTeamIdIn(teamIds);
+        teamIds.forEach(teamVersions::teamChanged);
+    }
+
+    public List<Player> getPlayersByIds(Collection<Long> playerIds) {
+        return playerRepository.findWithTeamByIdIn(playerIds);
     }
 
+    //One delete for all players and one counter update per team they played in, in team id order like transferPlayers
     @Transactional
-    public void deleteTeamPlayersByTeamId(long teamId) {
-        playerRepository.deleteAllByTeamId(teamId);
+    public void deletePlayers(Collection<Player> players) {
+        List<Long> playerIds = players.stream().map(Player::getId).collect(Collectors.toList());
+        int deletedRows = playerRepository.deleteByIdIn(playerIds);
+        if (deletedRows != playerIds.size()) {
+            //Another request deleted some of them first, their counters were released there
+            throw new OptimisticLockingFailureException(String.format("%d of %d players were already deleted.",
+                    playerIds.size() - deletedRows, playerIds.size()));
+        }
+        Map<Long, List<Player>> playersByTeam = players.stream()
+                .collect(Collectors.groupingBy(player -> player.getTeam().getId(), TreeMap::new, Collectors.toList()));
+        playersByTeam.forEach((teamId, teamPlayers) -> {
+            int foreignPlayers = teamPlayers.stream().mapToInt(player -> foreignWeight(player.getNationality())).sum();
+            int goalkeepers = teamPlayers.stream().mapToInt(player -> goalkeeperWeight(player.getPlayerType())).sum();
+            teamRepository.releasePlayers(teamId, teamPlayers.size(), foreignPlayers, goalkeepers);
+            teamRepository.evictTeamFromCache(teamId);
+            teamVersions.teamChanged(teamId);
+        });
+        players.forEach(player -> playerNameFilter.playerRemoved(player.getFirstName(), player.getLastName()));
     }
 
     @Transactional
-    public void deletePlayerById(long playerId) {
-        playerRepository.deleteById(playerId);
+    public void deletePlayer(Player player) {
+        playerRepository.delete(player);
+        playerNameFilter.playerRemoved(player.getFirstName(), player.getLastName());
+        releasePlayerFromTeam(player);
+        teamVersions.teamChanged(player.getTeam().getId());
     }
 }
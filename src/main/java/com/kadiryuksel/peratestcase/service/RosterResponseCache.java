@@ -0,0 +1,148 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.config.RosterCacheProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+//Team roster pages kept as the JSON bytes of the response, so a hit skips the database and Jackson
+//Pages are stored under the team version read before loading them, every write raises it in TeamVersions
+//Versions only see the writes of this instance, so pages also expire after roster-cache.time-to-live-millis
+@Service
+public class RosterResponseCache {
+    private final RosterCacheProperties rosterCacheProperties;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    //Orders the reads, the team and the page read longest ago are dropped first
+    private final AtomicLong readSequence = new AtomicLong();
+
+    //Reads take no lock, the writes of a team run in compute and only wait for the writes of the same team
+    private final ConcurrentHashMap<Long, TeamPages> pagesByTeam = new ConcurrentHashMap<>();
+
+    public RosterResponseCache(RosterCacheProperties rosterCacheProperties, MeterRegistry meterRegistry) {
+        this.rosterCacheProperties = rosterCacheProperties;
+        FunctionCounter.builder("roster.cache.lookups", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("roster.cache.lookups", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("roster.cache.size", this, RosterResponseCache::size)
+                .register(meterRegistry);
+    }
+
+    public Page getPage(long teamId, long teamVersion, long afterId, int size, Supplier<Page> loader) {
+        List<Long> pageKey = List.of(afterId, (long) size);
+        TeamPages teamPages = pagesByTeam.get(teamId);
+        CachedPage cachedPage = teamPages == null || teamPages.version != teamVersion ? null : teamPages.pages.get(pageKey);
+        if (cachedPage != null && !isExpired(cachedPage)) {
+            long read = readSequence.incrementAndGet();
+            teamPages.lastRead = read;
+            cachedPage.lastRead = read;
+            hits.incrementAndGet();
+            return cachedPage.page;
+        }
+        misses.incrementAndGet();
+        Page page = loader.get();
+        store(teamId, teamVersion, pageKey, page);
+        return page;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        return pagesByTeam.size();
+    }
+
+    //A page loaded under an older version than the stored pages is dropped, newer versions replace the older pages
+    private void store(long teamId, long teamVersion, List<Long> pageKey, Page page) {
+        long read = readSequence.incrementAndGet();
+        pagesByTeam.compute(teamId, (id, teamPages) -> {
+            if (teamPages != null && teamPages.version > teamVersion) {
+                return teamPages;
+            }
+            if (teamPages == null || teamPages.version < teamVersion) {
+                teamPages = new TeamPages(teamVersion);
+            }
+            teamPages.lastRead = read;
+            teamPages.pages.put(pageKey, new CachedPage(page, System.nanoTime(), read));
+            if (teamPages.pages.size() > rosterCacheProperties.getMaxPagesPerTeam()) {
+                teamPages.pages.remove(leastRecentlyRead(teamPages.pages, cachedPage -> cachedPage.lastRead));
+            }
+            return teamPages;
+        });
+        //Only a new team makes the map grow, concurrent writers may both drop a team before the size is back in bounds
+        if (pagesByTeam.size() > rosterCacheProperties.getMaxTeams()) {
+            Long leastRecentlyReadTeam = leastRecentlyRead(pagesByTeam, teamPages -> teamPages.lastRead);
+            if (leastRecentlyReadTeam != null) {
+                pagesByTeam.remove(leastRecentlyReadTeam);
+            }
+        }
+    }
+
+    private static <K, V> K leastRecentlyRead(Map<K, V> entries, ToLongFunction<V> lastRead) {
+        K leastRecentlyRead = null;
+        long oldestRead = Long.MAX_VALUE;
+        for (Map.Entry<K, V> entry : entries.entrySet()) {
+            long read = lastRead.applyAsLong(entry.getValue());
+            if (read < oldestRead) {
+                oldestRead = read;
+                leastRecentlyRead = entry.getKey();
+            }
+        }
+        return leastRecentlyRead;
+    }
+
+    private boolean isExpired(CachedPage cachedPage) {
+        long timeToLiveMillis = rosterCacheProperties.getTimeToLiveMillis();
+        return timeToLiveMillis > 0 && System.nanoTime() - cachedPage.storedAtNanos > TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+    }
+
+    private static final class TeamPages {
+        private final long version;
+        //Written in compute of its team, read without it
+        private final Map<List<Long>, CachedPage> pages = new ConcurrentHashMap<>(4);
+        private volatile long lastRead;
+
+        private TeamPages(long version) {
+            this.version = version;
+        }
+    }
+
+    private static final class CachedPage {
+        private final Page page;
+        private final long storedAtNanos;
+        private volatile long lastRead;
+
+        private CachedPage(Page page, long storedAtNanos, long lastRead) {
+            this.page = page;
+            this.storedAtNanos = storedAtNanos;
+            this.lastRead = lastRead;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Page {
+        private final byte[] body;
+        //Null on the last page
+        private final Long nextCursor;
+    }
+}
@@ -0,0 +1,59 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.projection.RosterCounts;
+import lombok.Getter;
+
+//Running roster of a team while a batch is checked in memory
+//The added counts are net, a team that gives away more players than it receives has negative ones
+@Getter
+public class RosterTally implements RosterCounts {
+    private int playerCount;
+    private int foreignCount;
+    private int goalkeeperCount;
+
+    private int addedPlayers;
+    private int addedForeign;
+    private int addedGoalkeepers;
+
+    //Starts from an empty roster, only the changes are counted
+    public RosterTally() {
+    }
+
+    public RosterTally(RosterCounts rosterCounts) {
+        this.playerCount = rosterCounts.getPlayerCount();
+        this.foreignCount = rosterCounts.getForeignCount();
+        this.goalkeeperCount = rosterCounts.getGoalkeeperCount();
+    }
+
+    public void add(Nationality nationality, PlayerType playerType) {
+        playerCount++;
+        addedPlayers++;
+        if (nationality == Nationality.FOREIGN) {
+            foreignCount++;
+            addedForeign++;
+        }
+        if (playerType == PlayerType.GOALKEEPER) {
+            goalkeeperCount++;
+            addedGoalkeepers++;
+        }
+    }
+
+    public void remove(Nationality nationality, PlayerType playerType) {
+        playerCount--;
+        addedPlayers--;
+        if (nationality == Nationality.FOREIGN) {
+            foreignCount--;
+            addedForeign--;
+        }
+        if (playerType == PlayerType.GOALKEEPER) {
+            goalkeeperCount--;
+            addedGoalkeepers--;
+        }
+    }
+
+    public boolean isUnchanged() {
+        return addedPlayers == 0 && addedForeign == 0 && addedGoalkeepers == 0;
+    }
+}
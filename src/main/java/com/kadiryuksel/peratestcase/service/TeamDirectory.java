@@ -0,0 +1,128 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+//In-process copy of team ids and names, TeamService writes it through after every committed change
+//Lookups that miss fall back to the database, so only teams changed outside this instance can be stale until a reload
+//Names are matched exactly like the team queries do, team_name has no unique index and the registrations only check
+//for an existing name, so a name two teams share maps to the one stored last
+@Service
+public class TeamDirectory {
+    private final TeamRepository teamRepository;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final static Logger logger = LoggerFactory.getLogger(TeamDirectory.class);
+
+    //Replaced as a whole on reload, writes take the lock of the reload so none of them is lost
+    //A lock instead of synchronized, the reload queries the database and must not pin a virtual thread to its carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Entries entries = new Entries();
+
+    public TeamDirectory(TeamRepository teamRepository, MeterRegistry meterRegistry) {
+        this.teamRepository = teamRepository;
+        FunctionCounter.builder("team.directory.lookups", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("team.directory.lookups", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("team.directory.size", this, TeamDirectory::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reload() {
+        List<Team> teams;
+        writeLock.lock();
+        try {
+            teams = teamRepository.findAll();
+            Entries newEntries = new Entries();
+            teams.forEach(team -> newEntries.put(team.getId(), team.getTeamName()));
+            entries = newEntries;
+        } finally {
+            writeLock.unlock();
+        }
+        logger.info(String.format("Team directory reloaded with %d teams.", teams.size()));
+    }
+
+    //Returns null when the team is not in the directory
+    public String getTeamName(long teamId) {
+        return record(entries.namesById.get(teamId));
+    }
+
+    public Optional<Long> findTeamId(String teamName) {
+        return Optional.ofNullable(record(entries.idsByName.get(teamName)));
+    }
+
+    public void put(long teamId, String teamName) {
+        writeLock.lock();
+        try {
+            entries.put(teamId, teamName);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(long teamId) {
+        writeLock.lock();
+        try {
+            entries.remove(teamId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        return entries.namesById.size();
+    }
+
+    private <T> T record(T value) {
+        (value != null ? hits : misses).incrementAndGet();
+        return value;
+    }
+
+    private static final class Entries {
+        private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+        private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+
+        //Also handles renames, the old name of the team is dropped first
+        private void put(long teamId, String teamName) {
+            remove(teamId);
+            namesById.put(teamId, teamName);
+            idsByName.put(teamName, teamId);
+        }
+
+        private void remove(long teamId) {
+            String oldName = namesById.remove(teamId);
+            if (oldName != null) {
+                idsByName.remove(oldName, teamId);
+            }
+        }
+    }
+}
@@ -2,41 +2,69 @@ package com.kadiryuksel.peratestcase.service;
 
 import com.kadiryuksel.peratestcase.entity.Team;
 import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import com.kadiryuksel.peratestcase.response.CursorPage;
+import com.kadiryuksel.peratestcase.util.TransactionHooks;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TeamService {
     private final TeamRepository teamRepository;
+    private final TeamDirectory teamDirectory;
+    private final TeamVersions teamVersions;
     private final static Logger logger = LoggerFactory.getLogger(TeamService.class);
 
     @Transactional
     public String addTeam(String teamName) {
         Team newTeam = Team.builder().teamName(teamName).build();
         Team savedTeam = teamRepository.save(newTeam);
+        rememberTeam(savedTeam);
+        teamVersions.teamListChanged();
         String infoMessage = String.format("Team added to the team table: %d %s", savedTeam.getId(), savedTeam.getTeamName());
         logger.info(infoMessage);
         return infoMessage;
     }
 
+    @Transactional
+    public List<Team> addTeams(Collection<String> teamNames) {
+        List<Team> newTeams = teamNames.stream()
+                .map(teamName -> Team.builder().teamName(teamName).build())
+                .collect(Collectors.toList());
+        List<Team> savedTeams = teamRepository.saveAll(newTeams);
+        savedTeams.forEach(this::rememberTeam);
+        teamVersions.teamListChanged();
+        logger.info(String.format("%d teams added to the team table.", savedTeams.size()));
+        return savedTeams;
+    }
+
     @Transactional String updateTeamName(long teamId,String newName){
         Team team = teamRepository.findTeamById(teamId);
         String oldTeamName = team.getTeamName();
         team.setTeamName(newName);
         Team updatedTeam = teamRepository.save(team);
+        rememberTeam(updatedTeam);
+        //Roster pages show the team of every player
+        teamVersions.teamChanged(teamId);
         String message = String.format("Team %s name updated to %s.", oldTeamName, updatedTeam.getTeamName());
         logger.info(message);
         return message;
     }
 
-    public List<Team> getAllTeams() {
-        return teamRepository.findAll();
+    public CursorPage<Team> getTeams(long afterId, int size) {
+        List<Team> rows = teamRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size + 1));
+        return CursorPage.of(rows, size, Team::getId);
     }
 
     public Team getTeamByTeamName(String teamName) {
@@ -44,24 +72,88 @@ public class TeamService {
     }
 
     public boolean doesTeamExistByTeamId(long teamId) {
-        return teamRepository.existsById(teamId);
+        return getTeamNameByTeamId(teamId) != null;
     }
 
     public boolean doesTeamExistByTeamName(String teamName) {
-        return teamRepository.existsTeamByTeamName(teamName);
+        if (teamDirectory.findTeamId(teamName).isPresent()) {
+            return true;
+        }
+        Team team = teamRepository.findTeamByTeamName(teamName);
+        if (team == null) {
+            return false;
+        }
+        rememberTeam(team);
+        return true;
+    }
+
+    public Set<String> getExistingTeamNames(Collection<String> teamNames) {
+        Set<String> existingTeamNames = new HashSet<>();
+        Set<String> unknownTeamNames = new HashSet<>();
+        for (String teamName : teamNames) {
+            if (teamDirectory.findTeamId(teamName).isPresent()) {
+                existingTeamNames.add(teamName);
+            } else {
+                unknownTeamNames.add(teamName);
+            }
+        }
+        if (!unknownTeamNames.isEmpty()) {
+            existingTeamNames.addAll(teamRepository.findExistingTeamNames(unknownTeamNames));
+        }
+        return existingTeamNames;
     }
 
     @Transactional
     public void deleteTeamById(long teamId) {
-        teamRepository.deleteById(teamId);
+        teamRepository.deleteTeamById(teamId);
+        TransactionHooks.runAfterCommit(() -> teamDirectory.remove(teamId));
+        teamVersions.teamChanged(teamId);
         logger.warn(String.format("Team deleted from database(ID: %d).", teamId));
     }
 
+    @Transactional
+    public void deleteTeamsByIds(Collection<Long> teamIds) {
+        teamRepository.deleteByIdIn(teamIds);
+        TransactionHooks.runAfterCommit(() -> teamIds.forEach(teamDirectory::remove));
+        teamIds.forEach(teamVersions::teamChanged);
+        logger.warn(String.format("%d teams deleted from database(IDs: %s).", teamIds.size(), teamIds));
+    }
+
+    //Returns null when the team does not exist
     public String getTeamNameByTeamId(long teamId) {
-        return teamRepository.findTeamById(teamId).getTeamName();
+        String teamName = teamDirectory.getTeamName(teamId);
+        if (teamName != null) {
+            return teamName;
+        }
+        Team team = teamRepository.findTeamById(teamId);
+        if (team == null) {
+            return null;
+        }
+        rememberTeam(team);
+        return team.getTeamName();
+    }
+
+    public List<Team> getTeamsByIds(Collection<Long> teamIds) {
+        return teamRepository.findAllById(teamIds);
+    }
+
+    public List<Team> getTeamsByTeamNames(Collection<String> teamNames) {
+        return teamRepository.findByTeamNameIn(teamNames);
+    }
+
+    public Optional<Team> findTeamById(long teamId) {
+        return teamRepository.findById(teamId);
+    }
+
+    //Proxy for foreign keys, the team row is not read unless a field other than the id is used
+    public Team getTeamReference(long teamId) {
+        return teamRepository.getReferenceById(teamId);
     }
 
-    public Team getTeamById(long teamId){
-        return teamRepository.findTeamById(teamId);
+    //The directory only learns about a team once its transaction has committed
+    private void rememberTeam(Team team) {
+        long teamId = team.getId();
+        String teamName = team.getTeamName();
+        TransactionHooks.runAfterCommit(() -> teamDirectory.put(teamId, teamName));
     }
 }
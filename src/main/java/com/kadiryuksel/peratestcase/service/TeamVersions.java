@@ -0,0 +1,61 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.config.RosterCacheProperties;
+import com.kadiryuksel.peratestcase.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Versions of the team list and of every team roster, the ETags of both endpoints are built from them
+//Versions are raised after the commit and read before the rows, so a tag is never newer than the rows it is sent with
+//They only count the writes of this instance, so every tag also carries the current roster-cache.time-to-live-millis
+//period: behind a load balancer a client gets a 304 for data changed on another instance until the period ends
+@Service
+@RequiredArgsConstructor
+public class TeamVersions {
+    private final RosterCacheProperties rosterCacheProperties;
+    //Differs between runs, so a tag handed out before a restart never matches
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong clock = new AtomicLong();
+    //Deleted teams keep their entry, a deleted team must not fall back to the version of an unchanged one
+    private final Map<Long, Long> teamVersions = new ConcurrentHashMap<>();
+    private volatile long teamListVersion;
+
+    public long getTeamVersion(long teamId) {
+        return teamVersions.getOrDefault(teamId, 0L);
+    }
+
+    public long getTeamListVersion() {
+        return teamListVersion;
+    }
+
+    public String getTeamETag(long teamId) {
+        return eTag(getTeamVersion(teamId));
+    }
+
+    public String getTeamListETag() {
+        return eTag(teamListVersion);
+    }
+
+    //The team list shows the roster counters and names, so it changes with every team
+    public void teamChanged(long teamId) {
+        TransactionHooks.runAfterCommit(() -> {
+            long version = clock.incrementAndGet();
+            teamVersions.put(teamId, version);
+            teamListVersion = version;
+        });
+    }
+
+    public void teamListChanged() {
+        TransactionHooks.runAfterCommit(() -> teamListVersion = clock.incrementAndGet());
+    }
+
+    private String eTag(long version) {
+        long timeToLiveMillis = rosterCacheProperties.getTimeToLiveMillis();
+        long period = timeToLiveMillis > 0 ? System.currentTimeMillis() / timeToLiveMillis : 0;
+        return String.format("\"%s-%d-%d\"", epoch, period, version);
+    }
+}
@@ -2,4 +2,5 @@ package com.kadiryuksel.peratestcase.util;
 
 public final class ConstantMessages {
     public static final String POSITIVE_OR_ZERO_MSG = "ID cannot be a negative value.";
+    public static final String POSITIVE_PAGE_SIZE_MSG = "Page size must be a positive value.";
 }
@@ -0,0 +1,61 @@
+package com.kadiryuksel.peratestcase.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+//Bloom filter with a counter per slot so keys can be removed again, safe to use from many threads
+public class CountingBloomFilter {
+    private final AtomicIntegerArray counters;
+    private final int hashCount;
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long expected = Math.max(1, expectedInsertions);
+        long slots = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.counters = new AtomicIntegerArray((int) Math.min(Integer.MAX_VALUE - 8, Math.max(64, slots)));
+        this.hashCount = (int) Math.max(1, Math.round((double) counters.length() / expected * Math.log(2)));
+    }
+
+    public void add(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            counters.incrementAndGet(slot(hash, i));
+        }
+    }
+
+    public void remove(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            counters.getAndUpdate(slot(hash, i), count -> count > 0 ? count - 1 : 0);
+        }
+    }
+
+    //False means the key was never added, true means it may have been
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            if (counters.get(slot(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Double hashing, the two halves of one 64 bit hash give every slot of the key
+    private int slot(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % counters.length();
+    }
+
+    //64 bit FNV-1a over the UTF-8 bytes with a final mix
+    private long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,68 @@
+package com.kadiryuksel.peratestcase.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+//Virtual threads are final from JDK 21 on, the project still builds for 17 so they are reached through reflection
+public final class VirtualThreads {
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    private static final Method NAME = findMethod(findClass("java.lang.Thread$Builder"), "name", String.class, long.class);
+    private static final Method FACTORY = findMethod(findClass("java.lang.Thread$Builder"), "factory");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+    private static final boolean SUPPORTED = isCreatable();
+
+    private VirtualThreads() {
+    }
+
+    //False before JDK 21 and on JDK 19 and 20 without --enable-preview
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    //One new virtual thread per task, named namePrefix0, namePrefix1 and so on
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        if (!SUPPORTED) {
+            throw new IllegalStateException(String.format("Virtual threads need JDK 21, this is JDK %d.", Runtime.version().feature()));
+        }
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, FACTORY.invoke(builder));
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Virtual thread executor could not be created.", exception);
+        }
+    }
+
+    private static boolean isCreatable() {
+        if (OF_VIRTUAL == null || NAME == null || FACTORY == null || NEW_THREAD_PER_TASK_EXECUTOR == null) {
+            return false;
+        }
+        try {
+            FACTORY.invoke(OF_VIRTUAL.invoke(null));
+            return true;
+        } catch (ReflectiveOperationException exception) {
+            //Preview API that is not enabled
+            return false;
+        }
+    }
+
+    private static Class<?> findClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException exception) {
+            return null;
+        }
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException exception) {
+            return null;
+        }
+    }
+}
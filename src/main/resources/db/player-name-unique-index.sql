@@ -0,0 +1,23 @@
+-- PostgreSQL databases created before uk_player_first_name_last_name: ddl-auto=update only logs a warning when the
+-- players already break it, and a registration with a taken name is then stored instead of rejected
+-- Stops without a change and lists the names while two players share one, rename or delete them and run it again
+-- Adds the constraint the way Hibernate does, its unique index has the same name. Run once with: psql -d perasoftwaretestDB -f player-name-unique-index.sql
+do $$
+declare
+    duplicate_names text;
+begin
+    select string_agg(format('%s %s (%s players)', first_name, last_name, players), ', ')
+    into duplicate_names
+    from (
+        select first_name, last_name, count(*) as players
+        from player
+        group by first_name, last_name
+        having count(*) > 1
+    ) duplicates;
+    if duplicate_names is not null then
+        raise exception 'Players share a name, no index created: %', duplicate_names;
+    end if;
+    if not exists (select 1 from pg_constraint where conrelid = 'player'::regclass and conname = 'uk_player_first_name_last_name') then
+        alter table player add constraint uk_player_first_name_last_name unique (first_name, last_name);
+    end if;
+end $$;
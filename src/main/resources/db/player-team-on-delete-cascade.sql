@@ -0,0 +1,17 @@
+-- PostgreSQL databases created before fk_player_team: ddl-auto=update keeps the old foreign key of player.team_id
+-- Replaces it with the cascading one, run once with: psql -d perasoftwaretestDB -f player-team-on-delete-cascade.sql
+do $$
+declare
+    old_constraint text;
+begin
+    for old_constraint in
+        select con.conname
+        from pg_constraint con
+        where con.conrelid = 'player'::regclass
+          and con.confrelid = 'team'::regclass
+          and con.contype = 'f'
+    loop
+        execute format('alter table player drop constraint %I', old_constraint);
+    end loop;
+    alter table player add constraint fk_player_team foreign key (team_id) references team (id) on delete cascade;
+end $$;
@@ -0,0 +1,21 @@
+-- PostgreSQL databases created before the pooled id sequences, and new ones used by the reactive variant
+-- Older schemas have bigserial ids whose sequences count by 1, Hibernate refuses to start while their increment
+-- differs from id-generation.allocation-size. Keep allocation_size below equal to it.
+-- Run once with: psql -d perasoftwaretestDB -f pooled-id-sequences.sql
+do $$
+declare
+    allocation_size constant integer := 50;
+    table_name text;
+    sequence_name text;
+begin
+    foreach table_name in array array['team', 'player']
+    loop
+        sequence_name := table_name || '_id_seq';
+        execute format('create sequence if not exists %I', sequence_name);
+        execute format('alter sequence %I increment by %s', sequence_name, allocation_size);
+        -- The pooled optimizer uses the block below every value it reads, the next value starts a block above the highest id
+        execute format('select setval(%L, greatest((select coalesce(max(id), 0) from %I), 1))', sequence_name, table_name);
+        -- Inserts that leave the id out, like the ones of the reactive variant, take a whole block and use its last value
+        execute format('alter table %I alter column id set default nextval(%L)', table_name, sequence_name);
+    end loop;
+end $$;
@@ -0,0 +1,11 @@
+-- PostgreSQL databases created before the roster counters: ddl-auto=update adds player_count, foreign_count and
+-- goalkeeper_count with 0 for every existing team, recomputes them from the player table
+-- The lock keeps players from being added, moved or deleted while the counts are taken, so no concurrent
+-- admission is overwritten with a count that misses its player. Run once with: psql -d perasoftwaretestDB -f roster-counters.sql
+begin;
+lock table player in share mode;
+update team t set
+    player_count = (select count(*) from player p where p.team_id = t.id),
+    foreign_count = (select count(*) from player p where p.team_id = t.id and p.nationality = 'FOREIGN'),
+    goalkeeper_count = (select count(*) from player p where p.team_id = t.id and p.player_type = 'GOALKEEPER');
+commit;
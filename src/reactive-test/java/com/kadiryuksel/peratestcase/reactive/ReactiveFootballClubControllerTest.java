@@ -0,0 +1,233 @@
+package com.kadiryuksel.peratestcase.reactive;
+
+import com.kadiryuksel.peratestcase.controller.FootballClubController;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerTeamUpdateDto;
+import com.kadiryuksel.peratestcase.dto.TeamRegistrationDto;
+import com.kadiryuksel.peratestcase.entity.Player;
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.projection.PlayerExportRow;
+import com.kadiryuksel.peratestcase.response.BulkItemResponse;
+import com.kadiryuksel.peratestcase.service.PlayerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Runs the reactive application on H2 through R2DBC and checks it answers like the servlet one
+@SpringBootTest(classes = ReactiveApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles({ReactiveApplication.PROFILE, "reactive-test"})
+class ReactiveFootballClubControllerTest {
+    private static final AtomicInteger nameNumber = new AtomicInteger();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private ReactivePlayerRepository playerRepository;
+
+    @Test
+    public void testRegisterTeamAndPlayer() {
+        String teamName = uniqueName();
+        long teamId = createTeam(teamName);
+
+        webTestClient.post().uri("/api/v1/registerFootballPlayer")
+                .bodyValue(playerDto("Anna", Nationality.LOCAL, PlayerType.DEFENDER, teamId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(String.format("Anna %s added to the team %s.", lastName(teamId), teamName));
+
+        webTestClient.post().uri("/api/v1/registerFootballTeam")
+                .bodyValue(new TeamRegistrationDto(teamName))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    public void testRosterLimitsAreChecked() {
+        long teamId = createTeam(uniqueName());
+        for (int i = 0; i < PlayerService.MAX_GOALKEEPER_COUNT; i++) {
+            registerPlayer(uniqueName(), Nationality.LOCAL, PlayerType.GOALKEEPER, teamId).expectStatus().isOk();
+        }
+
+        registerPlayer(uniqueName(), Nationality.LOCAL, PlayerType.GOALKEEPER, teamId)
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody().jsonPath("$.message").value(message -> assertTrue(String.valueOf(message).contains("goalkeepers")));
+        assertEquals(PlayerService.MAX_GOALKEEPER_COUNT, team(teamId).getGoalkeeperCount());
+    }
+
+    @Test
+    public void testBulkRegistrationReportsEachPlayer() {
+        String teamName = uniqueName();
+        long teamId = createTeam(teamName);
+        String firstName = uniqueName();
+        List<FootballPlayerRegistrationDto> playerDtos = List.of(
+                playerDto(firstName, Nationality.FOREIGN, PlayerType.FORWARD, teamId),
+                playerDto(firstName, Nationality.FOREIGN, PlayerType.FORWARD, teamId),
+                playerDto(uniqueName(), Nationality.LOCAL, PlayerType.FORWARD, teamId + 1000));
+
+        List<BulkItemResponse> results = webTestClient.post().uri("/api/v1/registerFootballPlayers")
+                .bodyValue(playerDtos)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BulkItemResponse.class).returnResult().getResponseBody();
+
+        assertNotNull(results);
+        assertEquals(List.of(true, false, false), results.stream().map(BulkItemResponse::isSuccess).toList());
+        assertEquals(String.format("Player %s %s is listed more than once.", firstName, lastName(teamId)), results.get(1).getMessage());
+        assertEquals(1, team(teamId).getPlayerCount());
+        assertEquals(1, team(teamId).getForeignCount());
+    }
+
+    @Test
+    public void testTransferMovesCounters() {
+        long oldTeamId = createTeam(uniqueName());
+        long newTeamId = createTeam(uniqueName());
+        String firstName = uniqueName();
+        registerPlayer(firstName, Nationality.FOREIGN, PlayerType.GOALKEEPER, oldTeamId).expectStatus().isOk();
+        long playerId = playerRepository.findWithTeamByFirstNameAndLastName(firstName, lastName(oldTeamId)).block().getId();
+
+        webTestClient.post().uri("/api/v1/updatePlayerTeam")
+                .bodyValue(new FootballPlayerTeamUpdateDto(playerId, newTeamId))
+                .exchange()
+                .expectStatus().isOk();
+
+        Team oldTeam = team(oldTeamId);
+        Team newTeam = team(newTeamId);
+        assertEquals(List.of(0, 0, 0), List.of(oldTeam.getPlayerCount(), oldTeam.getForeignCount(), oldTeam.getGoalkeeperCount()));
+        assertEquals(List.of(1, 1, 1), List.of(newTeam.getPlayerCount(), newTeam.getForeignCount(), newTeam.getGoalkeeperCount()));
+    }
+
+    @Test
+    public void testRosterPagesCarryTheNextCursor() {
+        long teamId = createTeam(uniqueName());
+        for (int i = 0; i < 3; i++) {
+            registerPlayer(uniqueName(), Nationality.LOCAL, PlayerType.MIDFIELDER, teamId).expectStatus().isOk();
+        }
+
+        String nextCursor = webTestClient.get().uri("/api/v1/getTeamPlayers/team/{id}?size=2", teamId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Player.class).hasSize(2)
+                .returnResult().getResponseHeaders().getFirst(FootballClubController.NEXT_CURSOR_HEADER);
+        assertNotNull(nextCursor);
+
+        webTestClient.get().uri("/api/v1/getTeamPlayers/team/{id}?size=2&after={after}", teamId, nextCursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(FootballClubController.NEXT_CURSOR_HEADER)
+                .expectBodyList(Player.class).hasSize(1);
+    }
+
+    @Test
+    public void testDeleteTeamRemovesItsPlayers() {
+        long teamId = createTeam(uniqueName());
+        registerPlayer(uniqueName(), Nationality.LOCAL, PlayerType.DEFENDER, teamId).expectStatus().isOk();
+
+        webTestClient.delete().uri("/api/v1/deleteTeam/{id}", teamId)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.delete().uri("/api/v1/deleteTeam/{id}", teamId)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo(String.format("Team ID: %d does not exists.", teamId));
+        List<PlayerExportRow> exported = webTestClient.get().uri("/api/v1/exportPlayers")
+                .accept(MediaType.parseMediaType("application/x-ndjson"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(PlayerExportRow.class).getResponseBody().collectList().block();
+        assertNotNull(exported);
+        assertTrue(exported.stream().noneMatch(row -> row.getTeamId() == teamId));
+    }
+
+    @Test
+    public void testInvalidRequestsAreRejected() {
+        webTestClient.post().uri("/api/v1/registerFootballTeam")
+                .bodyValue(new TeamRegistrationDto(""))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.get().uri("/api/v1/getAllFootballTeams?size=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testConcurrentRegistrationsStayWithinLimits() {
+        long teamId = createTeam(uniqueName());
+        int attempts = PlayerService.MAX_PLAYER_COUNT * 2;
+
+        WebClient webClient = WebClient.create("http://localhost:" + port);
+
+        //All registrations are in flight at the same time, the event loop does not wait for one to finish
+        List<HttpStatus> statuses = Flux.range(0, attempts)
+                .flatMap(i -> webClient.post().uri("/api/v1/registerFootballPlayer")
+                        .bodyValue(playerDto(uniqueName(), Nationality.LOCAL, PlayerType.MIDFIELDER, teamId))
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode())), attempts)
+                .collectList()
+                .block();
+
+        assertNotNull(statuses);
+        assertEquals(PlayerService.MAX_PLAYER_COUNT, statuses.stream().filter(HttpStatus.OK::equals).count());
+        assertEquals(PlayerService.MAX_PLAYER_COUNT, team(teamId).getPlayerCount());
+        assertEquals(PlayerService.MAX_PLAYER_COUNT, playerRepository.countRosterByTeamId(teamId).block().getPlayerCount());
+    }
+
+    private long createTeam(String teamName) {
+        webTestClient.post().uri("/api/v1/registerFootballTeam")
+                .bodyValue(new TeamRegistrationDto(teamName))
+                .exchange()
+                .expectStatus().isOk();
+        return teams().stream()
+                .filter(team -> team.getTeamName().equals(teamName))
+                .findFirst().orElseThrow().getId();
+    }
+
+    private Team team(long teamId) {
+        return teams().stream().filter(team -> team.getId() == teamId).findFirst().orElseThrow();
+    }
+
+    private List<Team> teams() {
+        return webTestClient.get().uri("/api/v1/getAllFootballTeams?size=500")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<List<Team>>() {
+                })
+                .returnResult().getResponseBody();
+    }
+
+    private WebTestClient.ResponseSpec registerPlayer(String firstName, Nationality nationality, PlayerType playerType, long teamId) {
+        return webTestClient.post().uri("/api/v1/registerFootballPlayer")
+                .bodyValue(playerDto(firstName, nationality, playerType, teamId))
+                .exchange();
+    }
+
+    private FootballPlayerRegistrationDto playerDto(String firstName, Nationality nationality, PlayerType playerType, long teamId) {
+        return new FootballPlayerRegistrationDto(firstName, lastName(teamId), nationality, playerType, teamId);
+    }
+
+    private String lastName(long teamId) {
+        return "Reactive" + teamId;
+    }
+
+    private String uniqueName() {
+        return "Reactive" + nameNumber.incrementAndGet();
+    }
+}
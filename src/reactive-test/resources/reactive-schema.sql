@@ -0,0 +1,18 @@
+create table if not exists team (
+    id bigint generated by default as identity primary key,
+    team_name varchar(255),
+    player_count integer default 0 not null,
+    foreign_count integer default 0 not null,
+    goalkeeper_count integer default 0 not null
+);
+
+create table if not exists player (
+    id bigint generated by default as identity primary key,
+    first_name varchar(255),
+    last_name varchar(255),
+    nationality varchar(255),
+    player_type varchar(255),
+    team_id bigint,
+    constraint fk_player_team foreign key (team_id) references team (id) on delete cascade,
+    constraint uk_player_first_name_last_name unique (first_name, last_name)
+);
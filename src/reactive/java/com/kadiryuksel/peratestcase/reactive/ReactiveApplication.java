@@ -0,0 +1,30 @@
+package com.kadiryuksel.peratestcase.reactive;
+
+import com.kadiryuksel.peratestcase.advice.ErrorHandlingAdvice;
+import com.kadiryuksel.peratestcase.config.PagingProperties;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+//WebFlux and R2DBC variant of the /api/v1 contract, only compiled with -Preactive
+//The servlet application scans this package too, every bean here is limited to reactive web applications so it skips them
+//Not a @SpringBootConfiguration, the servlet tests would otherwise find two of them
+@Configuration
+@EnableAutoConfiguration
+@ComponentScan
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import({ErrorHandlingAdvice.class, PagingProperties.class})
+public class ReactiveApplication {
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE)
+                .run(args);
+    }
+}
@@ -0,0 +1,130 @@
+package com.kadiryuksel.peratestcase.reactive;
+
+import com.kadiryuksel.peratestcase.config.PagingProperties;
+import com.kadiryuksel.peratestcase.controller.FootballClubController;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerTeamUpdateDto;
+import com.kadiryuksel.peratestcase.dto.TeamNameUpdateDto;
+import com.kadiryuksel.peratestcase.dto.TeamRegistrationDto;
+import com.kadiryuksel.peratestcase.entity.Player;
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.projection.PlayerExportRow;
+import com.kadiryuksel.peratestcase.response.BulkItemResponse;
+import com.kadiryuksel.peratestcase.response.CursorPage;
+import com.kadiryuksel.peratestcase.service.PlayerExportService;
+import com.kadiryuksel.peratestcase.util.ConstantMessages;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
+import java.util.stream.Collectors;
+
+//Same paths, bodies and headers as FootballClubController, handlers return publishers and never block the event loop
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+@CrossOrigin
+@Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveFootballClubController {
+    private final ReactiveFootballClubService footballClubService;
+    private final PagingProperties pagingProperties;
+
+    @PostMapping("/registerFootballTeam")
+    public Mono<ResponseEntity<String>> registerFootballTeam(@RequestBody @Valid TeamRegistrationDto club) {
+        return footballClubService.addNewFootballTeam(club.getTeamName())
+                .map(message -> new ResponseEntity<>(message, HttpStatus.OK));
+    }
+
+    @PostMapping("/registerFootballTeams")
+    public Mono<ResponseEntity<List<BulkItemResponse>>> registerFootballTeams(@RequestBody @Valid List<@Valid TeamRegistrationDto> clubs) {
+        List<String> teamNames = clubs.stream().map(TeamRegistrationDto::getTeamName).collect(Collectors.toList());
+        return footballClubService.addNewFootballTeams(teamNames)
+                .map(results -> new ResponseEntity<>(results, HttpStatus.OK));
+    }
+
+    @PostMapping("/registerFootballPlayer")
+    public Mono<ResponseEntity<String>> registerFootballPlayer(@RequestBody @Valid FootballPlayerRegistrationDto playerDto) {
+        return footballClubService.addNewFootballPlayer(playerDto)
+                .map(message -> new ResponseEntity<>(message, HttpStatus.OK));
+    }
+
+    @PostMapping("/registerFootballPlayers")
+    public Mono<ResponseEntity<List<BulkItemResponse>>> registerFootballPlayers(@RequestBody @Valid List<@Valid FootballPlayerRegistrationDto> playerDtos) {
+        return footballClubService.addNewFootballPlayers(playerDtos)
+                .map(results -> new ResponseEntity<>(results, HttpStatus.OK));
+    }
+
+    @PostMapping("/updateTeamNameById")
+    public Mono<ResponseEntity<String>> updateTeamName(@RequestBody @Valid TeamNameUpdateDto teamNameUpdateDto) {
+        return footballClubService.changeTeamName(teamNameUpdateDto)
+                .map(message -> new ResponseEntity<>(message, HttpStatus.OK));
+    }
+
+    @PostMapping("/updatePlayerTeam")
+    public Mono<ResponseEntity<String>> updatePlayerTeam(@RequestBody @Valid FootballPlayerTeamUpdateDto teamUpdateDto) {
+        return footballClubService.changePlayerTeam(teamUpdateDto)
+                .map(message -> new ResponseEntity<>(message, HttpStatus.OK));
+    }
+
+    @GetMapping("/getAllFootballTeams")
+    public Mono<ResponseEntity<List<Team>>> getAllFootballTeams(
+            @RequestParam(name = "after", required = false)
+            @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) Long afterId,
+            @RequestParam(name = "size", required = false)
+            @Positive(message = ConstantMessages.POSITIVE_PAGE_SIZE_MSG) Integer size) {
+        return footballClubService.getAllFootballTeams(afterId == null ? 0 : afterId, pagingProperties.resolveSize(size, afterId))
+                .map(this::pageResponse);
+    }
+
+    @GetMapping("/getTeamPlayers/team/{id}")
+    public Mono<ResponseEntity<List<Player>>> getTeamPlayersById(
+            @PathVariable("id")
+            @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) long teamId,
+            @RequestParam(name = "after", required = false)
+            @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) Long afterId,
+            @RequestParam(name = "size", required = false)
+            @Positive(message = ConstantMessages.POSITIVE_PAGE_SIZE_MSG) Integer size) {
+        return footballClubService.getTeamPlayersByTeamId(teamId, afterId == null ? 0 : afterId, pagingProperties.resolveSize(size, afterId))
+                .map(this::pageResponse);
+    }
+
+    //Rows are written as they arrive from the database, the client's demand slows down the query
+    @GetMapping(value = "/exportPlayers", produces = PlayerExportService.NDJSON_CONTENT_TYPE)
+    public Flux<PlayerExportRow> exportPlayers() {
+        return footballClubService.exportPlayers();
+    }
+
+    @DeleteMapping("/deleteTeam/{id}")
+    public Mono<ResponseEntity<String>> deleteTeamById(
+            @PathVariable("id")
+            @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) long teamId) {
+        return footballClubService.deleteTeamById(teamId)
+                .map(message -> new ResponseEntity<>(message, HttpStatus.OK));
+    }
+
+    @DeleteMapping("/deletePlayer/{id}")
+    public Mono<ResponseEntity<String>> deletePlayerById(
+            @PathVariable("id")
+            @PositiveOrZero(message = ConstantMessages.POSITIVE_OR_ZERO_MSG) long playerId) {
+        return footballClubService.deletePlayerById(playerId)
+                .map(message -> new ResponseEntity<>(message, HttpStatus.OK));
+    }
+
+    private <T> ResponseEntity<List<T>> pageResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (page.getNextCursor() != null) {
+            response.header(FootballClubController.NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
+    }
+}
@@ -0,0 +1,316 @@
+package com.kadiryuksel.peratestcase.reactive;
+
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerTeamUpdateDto;
+import com.kadiryuksel.peratestcase.dto.TeamNameUpdateDto;
+import com.kadiryuksel.peratestcase.entity.Player;
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.exception.NotFoundException;
+import com.kadiryuksel.peratestcase.exception.PlayerAlreadyExistsException;
+import com.kadiryuksel.peratestcase.exception.PlayerLimitException;
+import com.kadiryuksel.peratestcase.exception.TeamAlreadyExistsException;
+import com.kadiryuksel.peratestcase.projection.PlayerExportRow;
+import com.kadiryuksel.peratestcase.projection.RosterCounts;
+import com.kadiryuksel.peratestcase.response.BulkItemResponse;
+import com.kadiryuksel.peratestcase.response.CursorPage;
+import com.kadiryuksel.peratestcase.service.PlayerService;
+import com.kadiryuksel.peratestcase.service.RosterTally;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+//Non-blocking counterpart of FootballClubService with the same checks and messages
+//Roster limits use the same conditional counter update, a pipeline only goes on to the insert when it changed the team row
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveFootballClubService {
+    private final ReactiveTeamRepository teamRepository;
+    private final ReactivePlayerRepository playerRepository;
+    private final static Logger logger = LoggerFactory.getLogger(ReactiveFootballClubService.class);
+
+    @Transactional
+    public Mono<String> addNewFootballTeam(String teamName) {
+        return teamRepository.existsByTeamName(teamName)
+                .flatMap(teamExists -> teamExists ?
+                        Mono.<Team>error(new TeamAlreadyExistsException(String.format("Team %s already exists.", teamName))) :
+                        teamRepository.save(teamName))
+                .map(savedTeam -> {
+                    String message = String.format("Team added to the team table: %d %s", savedTeam.getId(), savedTeam.getTeamName());
+                    logger.info(message);
+                    return message;
+                });
+    }
+
+    @Transactional
+    public Mono<List<BulkItemResponse>> addNewFootballTeams(List<String> teamNames) {
+        if (teamNames.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return teamRepository.findExistingTeamNames(new HashSet<>(teamNames))
+                .collect(Collectors.toSet())
+                .flatMap(existingTeamNames -> {
+                    List<BulkItemResponse> results = new ArrayList<>(Collections.nCopies(teamNames.size(), null));
+                    Map<String, Integer> acceptedTeamNames = new LinkedHashMap<>();
+                    for (int i = 0; i < teamNames.size(); i++) {
+                        String teamName = teamNames.get(i);
+                        if (existingTeamNames.contains(teamName)) {
+                            results.set(i, BulkItemResponse.failed(teamName, String.format("Team %s already exists.", teamName)));
+                        } else if (acceptedTeamNames.containsKey(teamName)) {
+                            results.set(i, BulkItemResponse.failed(teamName, String.format("Team %s is listed more than once.", teamName)));
+                        } else {
+                            acceptedTeamNames.put(teamName, i);
+                        }
+                    }
+                    return Flux.fromIterable(acceptedTeamNames.entrySet())
+                            .concatMap(accepted -> teamRepository.save(accepted.getKey())
+                                    .doOnNext(savedTeam -> results.set(accepted.getValue(), BulkItemResponse.succeeded(savedTeam.getTeamName(),
+                                            String.format("Team added to the team table: %d %s", savedTeam.getId(), savedTeam.getTeamName())))))
+                            .then(Mono.fromSupplier(() -> results));
+                });
+    }
+
+    @Transactional
+    public Mono<String> addNewFootballPlayer(FootballPlayerRegistrationDto playerDto) {
+        long teamId = playerDto.getTeamId();
+        return getTeamNameOrError(teamId)
+                .flatMap(teamName -> checkPlayerByFirstNameAndLastName(playerDto.getFirstName(), playerDto.getLastName())
+                        .then(admitPlayer(teamId, teamName, playerDto.getNationality(), playerDto.getPlayerType()))
+                        .then(playerRepository.insert(playerDto))
+                        .map(playerId -> String.format("%s %s added to the team %s.",
+                                playerDto.getFirstName(), playerDto.getLastName(), teamName)));
+    }
+
+    //Checks the batch in memory against the rosters, then reserves the slots with one conditional update per team
+    @Transactional
+    public Mono<List<BulkItemResponse>> addNewFootballPlayers(List<FootballPlayerRegistrationDto> playerDtos) {
+        if (playerDtos.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        Set<Long> teamIds = playerDtos.stream().map(FootballPlayerRegistrationDto::getTeamId).collect(Collectors.toSet());
+        Set<String> firstNames = playerDtos.stream().map(FootballPlayerRegistrationDto::getFirstName).collect(Collectors.toSet());
+        Set<String> lastNames = playerDtos.stream().map(FootballPlayerRegistrationDto::getLastName).collect(Collectors.toSet());
+        //One statement at a time, the queries share the connection of the transaction
+        return teamRepository.findAllById(teamIds)
+                .collectMap(Team::getId)
+                .flatMap(teams -> playerRepository.findWithTeamByFirstNameInAndLastNameIn(firstNames, lastNames)
+                        .collectMap(player -> List.of(player.getFirstName(), player.getLastName()))
+                        .flatMap(existingPlayers -> registerPlayers(playerDtos, teams, existingPlayers)));
+    }
+
+    private Mono<List<BulkItemResponse>> registerPlayers(List<FootballPlayerRegistrationDto> playerDtos, Map<Long, Team> teams,
+                                                         Map<List<String>, Player> existingPlayers) {
+        List<BulkItemResponse> results = new ArrayList<>(Collections.nCopies(playerDtos.size(), null));
+        Set<List<String>> acceptedNames = new HashSet<>();
+        Map<Long, RosterTally> rosterTallies = new HashMap<>();
+        Map<Long, List<Integer>> acceptedByTeam = new LinkedHashMap<>();
+
+        for (int i = 0; i < playerDtos.size(); i++) {
+            FootballPlayerRegistrationDto playerDto = playerDtos.get(i);
+            String playerName = playerName(playerDto);
+            List<String> nameKey = List.of(playerDto.getFirstName(), playerDto.getLastName());
+
+            Team team = teams.get(playerDto.getTeamId());
+            if (team == null) {
+                results.set(i, BulkItemResponse.failed(playerName, String.format("Team ID: %d does not exists.", playerDto.getTeamId())));
+                continue;
+            }
+            Player existingPlayer = existingPlayers.get(nameKey);
+            if (existingPlayer != null) {
+                results.set(i, BulkItemResponse.failed(playerName,
+                        String.format("Player %s already exists in %s.", playerName, existingPlayer.getTeam().getTeamName())));
+                continue;
+            }
+            if (acceptedNames.contains(nameKey)) {
+                results.set(i, BulkItemResponse.failed(playerName, String.format("Player %s is listed more than once.", playerName)));
+                continue;
+            }
+            RosterTally rosterTally = rosterTallies.computeIfAbsent(team.getId(), teamId -> new RosterTally(team));
+            String limitMessage = rosterLimitMessage(rosterTally, team.getTeamName(), playerDto.getNationality(), playerDto.getPlayerType());
+            if (limitMessage != null) {
+                results.set(i, BulkItemResponse.failed(playerName, limitMessage));
+                continue;
+            }
+            rosterTally.add(playerDto.getNationality(), playerDto.getPlayerType());
+            acceptedNames.add(nameKey);
+            acceptedByTeam.computeIfAbsent(team.getId(), teamId -> new ArrayList<>()).add(i);
+        }
+
+        return Flux.fromIterable(acceptedByTeam.entrySet())
+                .concatMap(accepted -> {
+                    Team team = teams.get(accepted.getKey());
+                    RosterTally rosterTally = rosterTallies.get(accepted.getKey());
+                    return teamRepository.admitPlayers(team.getId(),
+                                    rosterTally.getAddedPlayers(), rosterTally.getAddedForeign(), rosterTally.getAddedGoalkeepers())
+                            .flatMapMany(updatedRows -> Flux.fromIterable(accepted.getValue())
+                                    .concatMap(index -> {
+                                        FootballPlayerRegistrationDto playerDto = playerDtos.get(index);
+                                        String playerName = playerName(playerDto);
+                                        if (updatedRows != 1) {
+                                            String message = String.format("Roster of team %s changed during the registration, try again.", team.getTeamName());
+                                            results.set(index, BulkItemResponse.failed(playerName, message));
+                                            return Mono.empty();
+                                        }
+                                        return playerRepository.insert(playerDto)
+                                                .doOnNext(playerId -> results.set(index, BulkItemResponse.succeeded(playerName,
+                                                        String.format("%s added to the team %s.", playerName, team.getTeamName()))));
+                                    }));
+                })
+                .then(Mono.fromSupplier(() -> results));
+    }
+
+    public Mono<CursorPage<Team>> getAllFootballTeams(long afterId, int size) {
+        return teamRepository.findByIdGreaterThanOrderByIdAsc(afterId, size + 1)
+                .collectList()
+                .map(rows -> CursorPage.of(rows, size, Team::getId));
+    }
+
+    public Mono<CursorPage<Player>> getTeamPlayersByTeamId(long teamId, long afterId, int size) {
+        return playerRepository.findByTeamIdAndIdGreaterThanOrderByIdAsc(teamId, afterId, size + 1)
+                .collectList()
+                .map(rows -> CursorPage.of(rows, size, Player::getId));
+    }
+
+    public Flux<PlayerExportRow> exportPlayers() {
+        return playerRepository.streamAllForExport();
+    }
+
+    @Transactional
+    public Mono<String> deleteTeamById(long teamId) {
+        return getTeamNameOrError(teamId)
+                //The players go with the team through the on delete cascade of fk_player_team
+                .flatMap(teamName -> teamRepository.deleteTeamById(teamId)
+                        .then(Mono.fromSupplier(() -> {
+                            logger.warn(String.format("Team deleted from database(ID: %d).", teamId));
+                            return String.format("Team %s deleted from database.", teamName);
+                        })));
+    }
+
+    @Transactional
+    public Mono<String> deletePlayerById(long playerId) {
+        return getPlayerOrError(playerId)
+                .flatMap(player -> playerRepository.deleteById(playerId)
+                        .then(releasePlayer(player))
+                        .thenReturn(String.format("Player %s %s deleted from team %s.",
+                                player.getFirstName(), player.getLastName(), player.getTeam().getTeamName())));
+    }
+
+    @Transactional
+    public Mono<String> changeTeamName(TeamNameUpdateDto updateDto) {
+        long teamId = updateDto.getTeamId();
+        return getTeamNameOrError(teamId)
+                .flatMap(oldTeamName -> teamRepository.updateTeamName(teamId, updateDto.getNewTeamName())
+                        .then(Mono.fromSupplier(() -> {
+                            String message = String.format("Team %s name updated to %s.", oldTeamName, updateDto.getNewTeamName());
+                            logger.info(message);
+                            return message;
+                        })));
+    }
+
+    @Transactional
+    public Mono<String> changePlayerTeam(FootballPlayerTeamUpdateDto teamUpdateDto) {
+        long newTeamId = teamUpdateDto.getNewTeamId();
+        return getTeamNameOrError(newTeamId)
+                .flatMap(newTeamName -> getPlayerOrError(teamUpdateDto.getPlayerId())
+                        .flatMap(player -> admitPlayer(newTeamId, newTeamName, player.getNationality(), player.getPlayerType())
+                                .then(releasePlayer(player))
+                                .then(playerRepository.updateTeam(player.getId(), newTeamId))
+                                .then(Mono.fromSupplier(() -> {
+                                    String message = String.format("%s 's team changed from %s to %s.",
+                                            playerName(player), player.getTeam().getTeamName(), newTeamName);
+                                    logger.info(message);
+                                    return message;
+                                }))));
+    }
+
+    private Mono<String> getTeamNameOrError(long teamId) {
+        return teamRepository.findTeamNameById(teamId)
+                .switchIfEmpty(Mono.error(() -> {
+                    String message = String.format("Team ID: %d does not exists.", teamId);
+                    logger.warn(message);
+                    return new NotFoundException(message);
+                }));
+    }
+
+    private Mono<Player> getPlayerOrError(long playerId) {
+        return playerRepository.findWithTeamById(playerId)
+                .switchIfEmpty(Mono.error(() -> {
+                    String message = String.format("Player ID: %d not found.", playerId);
+                    logger.warn(message);
+                    return new NotFoundException(message);
+                }));
+    }
+
+    private Mono<Void> checkPlayerByFirstNameAndLastName(String firstName, String lastName) {
+        return playerRepository.findWithTeamByFirstNameAndLastName(firstName, lastName)
+                .flatMap(player -> {
+                    String message = String.format("Player %s already exists in %s.", playerName(player), player.getTeam().getTeamName());
+                    logger.warn(message);
+                    return Mono.error(new PlayerAlreadyExistsException(message));
+                });
+    }
+
+    //Errors with the broken limit when the conditional update refused the player
+    private Mono<Void> admitPlayer(long teamId, String teamName, Nationality nationality, PlayerType playerType) {
+        return teamRepository.admitPlayers(teamId, 1, foreignWeight(nationality), goalkeeperWeight(playerType))
+                .flatMap(updatedRows -> updatedRows == 1 ? Mono.<Void>empty() : rejectPlayer(teamId, teamName, nationality, playerType));
+    }
+
+    private Mono<Void> rejectPlayer(long teamId, String teamName, Nationality nationality, PlayerType playerType) {
+        return playerRepository.countRosterByTeamId(teamId)
+                .flatMap(rosterCounts -> {
+                    String message = rosterLimitMessage(rosterCounts, teamName, nationality, playerType);
+                    if (message == null) {
+                        //The roster changed after it was counted
+                        message = String.format("Team %s has no room for the player.", teamName);
+                    }
+                    logger.warn(message);
+                    return Mono.error(new PlayerLimitException(message));
+                });
+    }
+
+    private Mono<Integer> releasePlayer(Player player) {
+        return teamRepository.releasePlayer(player.getTeam().getId(),
+                foreignWeight(player.getNationality()), goalkeeperWeight(player.getPlayerType()));
+    }
+
+    //Null when the player fits, the messages are the ones of FootballClubService
+    private String rosterLimitMessage(RosterCounts rosterCounts, String teamName, Nationality nationality, PlayerType playerType) {
+        if (rosterCounts.getPlayerCount() >= PlayerService.MAX_PLAYER_COUNT) {
+            return String.format("Team %s already has %d players in the team.", teamName, PlayerService.MAX_PLAYER_COUNT);
+        }
+        if (nationality == Nationality.FOREIGN && rosterCounts.getForeignCount() >= PlayerService.MAX_FOREIGN_COUNT) {
+            return String.format("Team %s already has %d foreign players in the team.", teamName, PlayerService.MAX_FOREIGN_COUNT);
+        }
+        if (playerType == PlayerType.GOALKEEPER && rosterCounts.getGoalkeeperCount() >= PlayerService.MAX_GOALKEEPER_COUNT) {
+            return String.format("Team %s already has %d goalkeepers in the team.", teamName, PlayerService.MAX_GOALKEEPER_COUNT);
+        }
+        return null;
+    }
+
+    private int foreignWeight(Nationality nationality) {
+        return nationality == Nationality.FOREIGN ? 1 : 0;
+    }
+
+    private int goalkeeperWeight(PlayerType playerType) {
+        return playerType == PlayerType.GOALKEEPER ? 1 : 0;
+    }
+
+    private String playerName(FootballPlayerRegistrationDto playerDto) {
+        return String.format("%s %s", playerDto.getFirstName(), playerDto.getLastName());
+    }
+
+    private String playerName(Player player) {
+        return String.format("%s %s", player.getFirstName(), player.getLastName());
+    }
+}
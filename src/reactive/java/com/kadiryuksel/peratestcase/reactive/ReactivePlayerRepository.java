@@ -0,0 +1,142 @@
+package com.kadiryuksel.peratestcase.reactive;
+
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.entity.Player;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.projection.PlayerExportRow;
+import com.kadiryuksel.peratestcase.projection.RosterCounts;
+import io.r2dbc.spi.Row;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+//Same queries as PlayerRepository written for R2DBC, players are always read together with their team
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePlayerRepository {
+    private static final String PLAYER_WITH_TEAM = "select p.id, p.first_name, p.last_name, p.nationality, p.player_type, " +
+            "t.id as team_id, t.team_name, t.player_count, t.foreign_count, t.goalkeeper_count " +
+            "from player p join team t on t.id = p.team_id ";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Player> findWithTeamById(long playerId) {
+        return databaseClient.sql(PLAYER_WITH_TEAM + "where p.id = :playerId")
+                .bind("playerId", playerId)
+                .map((row, metadata) -> mapPlayer(row))
+                .one();
+    }
+
+    public Mono<Player> findWithTeamByFirstNameAndLastName(String firstName, String lastName) {
+        return databaseClient.sql(PLAYER_WITH_TEAM + "where p.first_name = :firstName and p.last_name = :lastName")
+                .bind("firstName", firstName)
+                .bind("lastName", lastName)
+                .map((row, metadata) -> mapPlayer(row))
+                .one();
+    }
+
+    //Returns a superset of the players with the given names, callers match the exact pairs
+    public Flux<Player> findWithTeamByFirstNameInAndLastNameIn(Collection<String> firstNames, Collection<String> lastNames) {
+        return databaseClient.sql(PLAYER_WITH_TEAM + "where p.first_name in (:firstNames) and p.last_name in (:lastNames)")
+                .bind("firstNames", firstNames)
+                .bind("lastNames", lastNames)
+                .map((row, metadata) -> mapPlayer(row))
+                .all();
+    }
+
+    public Flux<Player> findByTeamIdAndIdGreaterThanOrderByIdAsc(long teamId, long afterId, int limit) {
+        return databaseClient.sql(PLAYER_WITH_TEAM + "where p.team_id = :teamId and p.id > :afterId order by p.id limit :limit")
+                .bind("teamId", teamId)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map((row, metadata) -> mapPlayer(row))
+                .all();
+    }
+
+    //Counted from the player table, the team row may be older than a refused admission
+    public Mono<RosterCounts> countRosterByTeamId(long teamId) {
+        return databaseClient.sql("select count(*) as player_count, " +
+                        "sum(case when nationality = 'FOREIGN' then 1 else 0 end) as foreign_count, " +
+                        "sum(case when player_type = 'GOALKEEPER' then 1 else 0 end) as goalkeeper_count " +
+                        "from player where team_id = :teamId")
+                .bind("teamId", teamId)
+                .map(row -> (RosterCounts) new CountedRoster(count(row, "player_count"), count(row, "foreign_count"),
+                        count(row, "goalkeeper_count")))
+                .one();
+    }
+
+    public Mono<Long> insert(FootballPlayerRegistrationDto playerDto) {
+        return databaseClient.sql("insert into player (first_name, last_name, nationality, player_type, team_id) " +
+                        "values (:firstName, :lastName, :nationality, :playerType, :teamId)")
+                .bind("firstName", playerDto.getFirstName())
+                .bind("lastName", playerDto.getLastName())
+                .bind("nationality", playerDto.getNationality().name())
+                .bind("playerType", playerDto.getPlayerType().name())
+                .bind("teamId", playerDto.getTeamId())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Mono<Integer> updateTeam(long playerId, long teamId) {
+        return databaseClient.sql("update player set team_id = :teamId where id = :playerId")
+                .bind("teamId", teamId)
+                .bind("playerId", playerId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> deleteById(long playerId) {
+        return databaseClient.sql("delete from player where id = :playerId")
+                .bind("playerId", playerId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    //Rows are emitted as the driver reads them, the export never holds the whole table
+    public Flux<PlayerExportRow> streamAllForExport() {
+        return databaseClient.sql("select p.id, p.first_name, p.last_name, p.nationality, p.player_type, t.id as team_id, t.team_name " +
+                        "from player p join team t on t.id = p.team_id order by p.id")
+                .map(row -> new PlayerExportRow(row.get("id", Long.class),
+                        row.get("first_name", String.class),
+                        row.get("last_name", String.class),
+                        Nationality.valueOf(row.get("nationality", String.class)),
+                        PlayerType.valueOf(row.get("player_type", String.class)),
+                        row.get("team_id", Long.class),
+                        row.get("team_name", String.class)))
+                .all();
+    }
+
+    private static Player mapPlayer(Row row) {
+        return Player.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .nationality(Nationality.valueOf(row.get("nationality", String.class)))
+                .playerType(PlayerType.valueOf(row.get("player_type", String.class)))
+                .team(ReactiveTeamRepository.mapTeam(row, "team_id"))
+                .build();
+    }
+
+    //Sums over no rows are null
+    private static int count(Row row, String column) {
+        Number value = row.get(column, Number.class);
+        return value == null ? 0 : value.intValue();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class CountedRoster implements RosterCounts {
+        private final int playerCount;
+        private final int foreignCount;
+        private final int goalkeeperCount;
+    }
+}
@@ -0,0 +1,129 @@
+package com.kadiryuksel.peratestcase.reactive;
+
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.service.PlayerService;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+//Same queries as TeamRepository written for R2DBC, the rows are mapped to the JPA entity so the JSON stays the same
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTeamRepository {
+    private static final String TEAM_COLUMNS = "id, team_name, player_count, foreign_count, goalkeeper_count";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<String> findTeamNameById(long teamId) {
+        return databaseClient.sql("select team_name from team where id = :teamId")
+                .bind("teamId", teamId)
+                .map(row -> row.get("team_name", String.class))
+                .one();
+    }
+
+    public Mono<Boolean> existsByTeamName(String teamName) {
+        return databaseClient.sql("select count(*) as teams from team where team_name = :teamName")
+                .bind("teamName", teamName)
+                .map(row -> row.get("teams", Long.class) > 0)
+                .one();
+    }
+
+    public Flux<String> findExistingTeamNames(Collection<String> teamNames) {
+        return databaseClient.sql("select team_name from team where team_name in (:teamNames)")
+                .bind("teamNames", teamNames)
+                .map(row -> row.get("team_name", String.class))
+                .all();
+    }
+
+    public Flux<Team> findAllById(Collection<Long> teamIds) {
+        return databaseClient.sql(String.format("select %s from team where id in (:teamIds)", TEAM_COLUMNS))
+                .bind("teamIds", teamIds)
+                .map((row, metadata) -> mapTeam(row))
+                .all();
+    }
+
+    public Flux<Team> findByIdGreaterThanOrderByIdAsc(long afterId, int limit) {
+        return databaseClient.sql(String.format("select %s from team where id > :afterId order by id limit :limit", TEAM_COLUMNS))
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map((row, metadata) -> mapTeam(row))
+                .all();
+    }
+
+    //The roster counters start at the column defaults
+    public Mono<Team> save(String teamName) {
+        return databaseClient.sql("insert into team (team_name) values (:teamName)")
+                .bind("teamName", teamName)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(teamId -> new Team(teamId, teamName));
+    }
+
+    public Mono<Integer> updateTeamName(long teamId, String teamName) {
+        return databaseClient.sql("update team set team_name = :teamName where id = :teamId")
+                .bind("teamName", teamName)
+                .bind("teamId", teamId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> deleteTeamById(long teamId) {
+        return databaseClient.sql("delete from team where id = :teamId")
+                .bind("teamId", teamId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    //Reserves the roster slots only while every limit holds, 0 updated rows means the players do not fit
+    public Mono<Integer> admitPlayers(long teamId, int players, int foreign, int goalkeepers) {
+        return databaseClient.sql("update team set player_count = player_count + :players, " +
+                        "foreign_count = foreign_count + :foreign, " +
+                        "goalkeeper_count = goalkeeper_count + :goalkeepers " +
+                        "where id = :teamId " +
+                        "and player_count + :players <= :maxPlayers " +
+                        "and foreign_count + :foreign <= :maxForeign " +
+                        "and goalkeeper_count + :goalkeepers <= :maxGoalkeepers")
+                .bind("players", players)
+                .bind("foreign", foreign)
+                .bind("goalkeepers", goalkeepers)
+                .bind("teamId", teamId)
+                .bind("maxPlayers", PlayerService.MAX_PLAYER_COUNT)
+                .bind("maxForeign", PlayerService.MAX_FOREIGN_COUNT)
+                .bind("maxGoalkeepers", PlayerService.MAX_GOALKEEPER_COUNT)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> releasePlayer(long teamId, int foreign, int goalkeeper) {
+        return databaseClient.sql("update team set player_count = player_count - 1, " +
+                        "foreign_count = foreign_count - :foreign, " +
+                        "goalkeeper_count = goalkeeper_count - :goalkeeper " +
+                        "where id = :teamId")
+                .bind("foreign", foreign)
+                .bind("goalkeeper", goalkeeper)
+                .bind("teamId", teamId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    //Also used for the team columns of a player row, there the team id is read as team_id
+    static Team mapTeam(Row row, String idColumn) {
+        return new Team(row.get(idColumn, Long.class),
+                row.get("team_name", String.class),
+                row.get("player_count", Integer.class),
+                row.get("foreign_count", Integer.class),
+                row.get("goalkeeper_count", Integer.class));
+    }
+
+    private static Team mapTeam(Row row) {
+        return mapTeam(row, "id");
+    }
+}
@@ -0,0 +1,31 @@
+package com.kadiryuksel.peratestcase.reactive;
+
+import com.kadiryuksel.peratestcase.response.BadRequestResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.stream.Collectors;
+
+//WebFlux reports invalid request bodies with its own exception, the message is built like in ErrorHandlingAdvice
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveValidationAdvice {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<BadRequestResponse> handleWebExchangeBindException(WebExchangeBindException exception){
+        String errorMessage = exception.getBindingResult()
+                .getFieldErrors()
+                .stream()
+                .map(FieldError::getDefaultMessage)
+                .collect(Collectors.toList())
+                .toString()
+                .replaceAll("\\[*]*", "");
+        BadRequestResponse response = new BadRequestResponse(errorMessage);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,58 @@
+package com.kadiryuksel.peratestcase;
+
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import com.kadiryuksel.peratestcase.service.FootballClubService;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Teams and players with unique names for the integration tests, all test classes of a run share the database
+//Every test class passes its own last name, so players of different classes never collide
+public class ClubFixture {
+    private static final AtomicInteger nameNumber = new AtomicInteger();
+
+    private final FootballClubService footballClubService;
+    private final TeamRepository teamRepository;
+    private final PlayerRepository playerRepository;
+    private final String lastName;
+
+    public ClubFixture(FootballClubService footballClubService, TeamRepository teamRepository,
+                       PlayerRepository playerRepository, String lastName) {
+        this.footballClubService = footballClubService;
+        this.teamRepository = teamRepository;
+        this.playerRepository = playerRepository;
+        this.lastName = lastName;
+    }
+
+    public String uniqueName() {
+        return lastName + nameNumber.incrementAndGet();
+    }
+
+    public long createTeam() {
+        String teamName = uniqueName();
+        footballClubService.addNewFootballTeam(teamName);
+        return teamRepository.findTeamByTeamName(teamName).getId();
+    }
+
+    //Returns the first name, the last name is the one of the fixture
+    public String createPlayer(long teamId) {
+        String firstName = uniqueName();
+        footballClubService.addNewFootballPlayer(playerDto(firstName, teamId));
+        return firstName;
+    }
+
+    public long playerId(String firstName) {
+        return playerRepository.findWithTeamByFirstNameAndLastName(firstName, lastName).orElseThrow().getId();
+    }
+
+    public FootballPlayerRegistrationDto playerDto(String firstName, long teamId) {
+        return playerDto(firstName, teamId, Nationality.LOCAL, PlayerType.MIDFIELDER);
+    }
+
+    public FootballPlayerRegistrationDto playerDto(String firstName, long teamId, Nationality nationality, PlayerType playerType) {
+        return new FootballPlayerRegistrationDto(firstName, lastName, nationality, playerType, teamId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.kadiryuksel.peratestcase;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//The prod profile on the test database, it must start without the API documentation
+@SpringBootTest
+@ActiveProfiles({"test", "prod"})
+class ProdProfileTest {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Test
+	void swaggerIsLeftOut() {
+		assertEquals(0, context.getBeanNamesForType(Docket.class).length);
+		assertFalse(context.containsBean("swagger2ControllerMapping"));
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.kadiryuksel.peratestcase.controller;
+
+import com.kadiryuksel.peratestcase.ClubFixture;
+import com.kadiryuksel.peratestcase.dto.TeamNameUpdateDto;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import com.kadiryuksel.peratestcase.service.FootballClubService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//Polling clients send back the ETag of their last response and get 304 until a write changes the data
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+    private static final String TEAMS_PATH = "/api/v1/getAllFootballTeams";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FootballClubService footballClubService;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private PlayerRepository playerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private ClubFixture clubs;
+
+    @BeforeEach
+    public void setUp() {
+        clubs = new ClubFixture(footballClubService, teamRepository, playerRepository, "Conditional");
+    }
+
+    @Test
+    public void testUnchangedRosterAnswersNotModifiedWithoutStatements() throws Exception {
+        long teamId = clubs.createTeam();
+        clubs.createPlayer(teamId);
+        String eTag = eTag(rosterPath(teamId));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        perform(get(rosterPath(teamId)).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testRosterETagChangesWithTheRoster() throws Exception {
+        long teamId = clubs.createTeam();
+        long otherTeamId = clubs.createTeam();
+        String eTag = eTag(rosterPath(teamId));
+        String otherETag = eTag(rosterPath(otherTeamId));
+
+        clubs.createPlayer(teamId);
+
+        perform(get(rosterPath(teamId)).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        assertNotEquals(eTag, eTag(rosterPath(teamId)));
+        perform(get(rosterPath(otherTeamId)).header(HttpHeaders.IF_NONE_MATCH, otherETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void testTeamListETagChangesWithAnyTeam() throws Exception {
+        long teamId = clubs.createTeam();
+        String eTag = eTag(TEAMS_PATH);
+        perform(get(TEAMS_PATH).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        //Names and roster counters are part of the team list
+        footballClubService.changeTeamName(new TeamNameUpdateDto(clubs.uniqueName(), teamId));
+        String renamedETag = eTag(TEAMS_PATH);
+        clubs.createPlayer(teamId);
+        String registeredETag = eTag(TEAMS_PATH);
+        clubs.createTeam();
+
+        assertNotEquals(eTag, renamedETag);
+        assertNotEquals(renamedETag, registeredETag);
+        assertNotEquals(registeredETag, eTag(TEAMS_PATH));
+    }
+
+    private String eTag(String path) throws Exception {
+        String eTag = perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        return eTag;
+    }
+
+    private String rosterPath(long teamId) {
+        return String.format("/api/v1/getTeamPlayers/team/%d", teamId);
+    }
+
+    //Handlers run on the endpoint pools, the response of those is written by the async dispatch
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+    }
+}
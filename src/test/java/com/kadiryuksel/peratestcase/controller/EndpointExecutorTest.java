@@ -0,0 +1,153 @@
+package com.kadiryuksel.peratestcase.controller;
+
+import com.kadiryuksel.peratestcase.config.AsyncEndpointProperties;
+import com.kadiryuksel.peratestcase.config.VirtualThreadProperties;
+import com.kadiryuksel.peratestcase.exception.ServiceBusyException;
+import com.kadiryuksel.peratestcase.util.VirtualThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointExecutorTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private EndpointExecutor endpointExecutor;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        endpointExecutor.destroy();
+    }
+
+    @Test
+    public void testWorkRunsOnThePoolThreads() throws Exception {
+        endpointExecutor = new EndpointExecutor(new AsyncEndpointProperties(), new VirtualThreadProperties(), meterRegistry);
+
+        String readThread = endpointExecutor.read(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+        String writeThread = endpointExecutor.write(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertTrue(readThread.startsWith("endpoint-reads-"));
+        assertTrue(writeThread.startsWith("endpoint-writes-"));
+    }
+
+    @Test
+    public void testFullQueueIsRejectedAndCounted() {
+        endpointExecutor = new EndpointExecutor(properties(1, 1, 10000), new VirtualThreadProperties(), meterRegistry);
+        endpointExecutor.write(this::blockUntilReleased);
+        endpointExecutor.write(this::blockUntilReleased);
+
+        assertThrows(ServiceBusyException.class, () -> endpointExecutor.write(this::blockUntilReleased));
+        assertEquals(1, meterRegistry.get("endpoint.executor.rejected").tag(EndpointExecutor.POOL_TAG, "writes").counter().count());
+        //Reads have their own pool
+        assertDoesNotThrow(() -> endpointExecutor.read(() -> "read").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testQueuedWorkIsDroppedAfterTheTimeout() throws Exception {
+        endpointExecutor = new EndpointExecutor(properties(1, 1, 50), new VirtualThreadProperties(), meterRegistry);
+        AtomicBoolean queuedWorkRan = new AtomicBoolean();
+        CompletableFuture<String> running = endpointExecutor.read(this::blockUntilReleased);
+        CompletableFuture<String> queued = endpointExecutor.read(() -> {
+            queuedWorkRan.set(true);
+            return "late";
+        });
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        release.countDown();
+        assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+        endpointExecutor.read(() -> "drained").get(5, TimeUnit.SECONDS);
+        assertFalse(queuedWorkRan.get());
+        assertEquals(2, meterRegistry.get("endpoint.executor.timeouts").tag(EndpointExecutor.POOL_TAG, "reads").counter().count());
+    }
+
+    @Test
+    public void testDisabledModeRunsOnTheCallingThread() throws Exception {
+        AsyncEndpointProperties properties = new AsyncEndpointProperties();
+        properties.setEnabled(false);
+        endpointExecutor = new EndpointExecutor(properties, new VirtualThreadProperties(), meterRegistry);
+
+        CompletableFuture<String> result = endpointExecutor.read(() -> Thread.currentThread().getName());
+
+        assertTrue(result.isDone());
+        assertEquals(Thread.currentThread().getName(), result.get());
+    }
+
+    @Test
+    public void testPoolGaugesArePublished() {
+        endpointExecutor = new EndpointExecutor(new AsyncEndpointProperties(), new VirtualThreadProperties(), meterRegistry);
+
+        assertNotNull(meterRegistry.find("executor.queued").tag("name", "endpoint.reads").gauge());
+        assertNotNull(meterRegistry.find("executor.queued").tag("name", "endpoint.writes").gauge());
+    }
+
+    @Test
+    @EnabledIf("virtualThreadsSupported")
+    public void testVirtualThreadsOnlyBoundTheRequestsInFlight() throws Exception {
+        endpointExecutor = new EndpointExecutor(properties(1, 1, 10000), virtualThreadProperties(20), meterRegistry);
+        List<CompletableFuture<String>> blocked = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            blocked.add(endpointExecutor.read(this::blockUntilReleased));
+        }
+
+        assertThrows(ServiceBusyException.class, () -> endpointExecutor.read(this::blockUntilReleased));
+        assertEquals(20, meterRegistry.get("endpoint.executor.in-flight").tag(EndpointExecutor.POOL_TAG, "reads").gauge().value());
+        release.countDown();
+        for (CompletableFuture<String> result : blocked) {
+            assertEquals("released", result.get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(endpointExecutor.read(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS)
+                .startsWith("endpoint-reads-virtual-"));
+    }
+
+    @Test
+    @DisabledIf("virtualThreadsSupported")
+    public void testVirtualThreadsFallBackToThePlatformPools() throws Exception {
+        endpointExecutor = new EndpointExecutor(new AsyncEndpointProperties(), virtualThreadProperties(20), meterRegistry);
+
+        String readThread = endpointExecutor.read(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertTrue(readThread.startsWith("endpoint-reads-"));
+        assertFalse(readThread.contains("virtual"));
+        assertThrows(IllegalStateException.class, () -> VirtualThreads.newThreadPerTaskExecutor("unsupported-"));
+    }
+
+    static boolean virtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    private String blockUntilReleased() {
+        try {
+            release.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+
+    private VirtualThreadProperties virtualThreadProperties(int maxConcurrentRequests) {
+        VirtualThreadProperties properties = new VirtualThreadProperties();
+        properties.setEnabled(true);
+        properties.setMaxConcurrentRequests(maxConcurrentRequests);
+        return properties;
+    }
+
+    private AsyncEndpointProperties properties(int threads, int queueCapacity, long timeoutMillis) {
+        AsyncEndpointProperties properties = new AsyncEndpointProperties();
+        properties.setReadThreads(threads);
+        properties.setWriteThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setTimeoutMillis(timeoutMillis);
+        return properties;
+    }
+}
@@ -0,0 +1,171 @@
+package com.kadiryuksel.peratestcase.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kadiryuksel.peratestcase.ClubFixture;
+import com.kadiryuksel.peratestcase.config.PagingProperties;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerTeamUpdateDto;
+import com.kadiryuksel.peratestcase.dto.TeamNameUpdateDto;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import com.kadiryuksel.peratestcase.service.FootballClubService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//The roster endpoint answers from the serialized roster cache, these checks make sure no write leaves it stale
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TeamPlayersEndpointTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private FootballClubService footballClubService;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private PlayerRepository playerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PagingProperties pagingProperties;
+
+    private ClubFixture clubs;
+
+    @BeforeEach
+    public void setUp() {
+        clubs = new ClubFixture(footballClubService, teamRepository, playerRepository, "Roster");
+    }
+
+    @Test
+    public void testRepeatedReadRunsNoStatements() throws Exception {
+        long teamId = clubs.createTeam();
+        clubs.createPlayer(teamId);
+        String firstResponse = getRoster(teamId, "").getResponse().getContentAsString();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        String secondResponse = getRoster(teamId, "").getResponse().getContentAsString();
+
+        assertEquals(firstResponse, secondResponse);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testCursorHeaderIsKept() throws Exception {
+        long teamId = clubs.createTeam();
+        clubs.createPlayer(teamId);
+        clubs.createPlayer(teamId);
+        getRoster(teamId, "?size=1");
+
+        MvcResult result = getRoster(teamId, "?size=1");
+
+        assertEquals(1, roster(result).size());
+        assertNotNull(result.getResponse().getHeader(FootballClubController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void testTeamListWithoutCursorOrSizeGetsTheMaxSize() throws Exception {
+        List<String> teamNames = new ArrayList<>();
+        for (int i = 0; i < pagingProperties.getDefaultSize() + 2; i++) {
+            teamNames.add(clubs.uniqueName());
+        }
+        footballClubService.addNewFootballTeams(teamNames);
+        int maxSize = pagingProperties.getMaxSize();
+        pagingProperties.setMaxSize(pagingProperties.getDefaultSize() + 1);
+        try {
+            MvcResult unpaged = perform(get("/api/v1/getAllFootballTeams")).andExpect(status().isOk()).andReturn();
+            MvcResult firstPage = perform(get("/api/v1/getAllFootballTeams?after=0")).andExpect(status().isOk()).andReturn();
+
+            assertEquals(pagingProperties.getMaxSize(), roster(unpaged).size());
+            assertNotNull(unpaged.getResponse().getHeader(FootballClubController.NEXT_CURSOR_HEADER));
+            assertEquals(pagingProperties.getDefaultSize(), roster(firstPage).size());
+            assertNotNull(firstPage.getResponse().getHeader(FootballClubController.NEXT_CURSOR_HEADER));
+        } finally {
+            pagingProperties.setMaxSize(maxSize);
+        }
+    }
+
+    @Test
+    public void testRegistrationTransferAndDeletionAreVisible() throws Exception {
+        long teamId = clubs.createTeam();
+        long otherTeamId = clubs.createTeam();
+        String firstName = clubs.createPlayer(teamId);
+        assertEquals(List.of(firstName), firstNames(teamId));
+        assertEquals(List.of(), firstNames(otherTeamId));
+
+        String secondFirstName = clubs.createPlayer(teamId);
+        assertEquals(List.of(firstName, secondFirstName), firstNames(teamId));
+
+        long playerId = clubs.playerId(firstName);
+        footballClubService.changePlayerTeam(new FootballPlayerTeamUpdateDto(playerId, otherTeamId));
+        assertEquals(List.of(secondFirstName), firstNames(teamId));
+        assertEquals(List.of(firstName), firstNames(otherTeamId));
+
+        footballClubService.deletePlayerById(playerId);
+        assertEquals(List.of(), firstNames(otherTeamId));
+
+        footballClubService.deleteTeamById(teamId);
+        assertEquals(List.of(), firstNames(teamId));
+    }
+
+    @Test
+    public void testRenameIsVisible() throws Exception {
+        long teamId = clubs.createTeam();
+        clubs.createPlayer(teamId);
+        getRoster(teamId, "");
+        String newTeamName = clubs.uniqueName();
+
+        footballClubService.changeTeamName(new TeamNameUpdateDto(newTeamName, teamId));
+
+        assertEquals(newTeamName, roster(getRoster(teamId, "")).get(0).get("team").get("teamName").asText());
+    }
+
+    private MvcResult getRoster(long teamId, String query) throws Exception {
+        return perform(get(String.format("/api/v1/getTeamPlayers/team/%d%s", teamId, query)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+    }
+
+    private JsonNode roster(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private List<String> firstNames(long teamId) throws Exception {
+        List<String> firstNames = new ArrayList<>();
+        roster(getRoster(teamId, "")).forEach(player -> firstNames.add(player.get("firstName").asText()));
+        return firstNames;
+    }
+
+    //Handlers run on the endpoint pools, the response of those is written by the async dispatch
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+    }
+}
@@ -0,0 +1,13 @@
+package com.kadiryuksel.peratestcase.loadtest;
+
+//The /api/v1 endpoints the load generator replays, named after their paths
+enum Endpoint {
+    registerFootballTeam,
+    registerFootballPlayer,
+    updateTeamNameById,
+    updatePlayerTeam,
+    getAllFootballTeams,
+    getTeamPlayers,
+    deleteTeam,
+    deletePlayer
+}
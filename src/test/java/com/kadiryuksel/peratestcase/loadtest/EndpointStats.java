@@ -0,0 +1,78 @@
+package com.kadiryuksel.peratestcase.loadtest;
+
+import java.util.Arrays;
+
+//Latencies and outcomes of one endpoint, latencies are kept whole so the percentiles are exact
+final class EndpointStats {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int clientErrors;
+    private int serverErrors;
+    private int failures;
+    private int skipped;
+
+    synchronized void record(long latencyNanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (status >= 500) {
+            serverErrors++;
+        } else if (status >= 400) {
+            clientErrors++;
+        }
+    }
+
+    //No response at all, the latency is still recorded up to the failure
+    synchronized void recordFailure(long latencyNanos) {
+        record(latencyNanos, 0);
+        failures++;
+    }
+
+    //No target was available, e.g. every created team was already deleted
+    synchronized void recordSkipped() {
+        skipped++;
+    }
+
+    synchronized Summary summarize() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(count, clientErrors, serverErrors, failures, skipped,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    static final class Summary {
+        final int requests;
+        final int clientErrors;
+        final int serverErrors;
+        final int failures;
+        final int skipped;
+        final double p50Millis;
+        final double p95Millis;
+        final double p99Millis;
+
+        private Summary(int requests, int clientErrors, int serverErrors, int failures, int skipped,
+                        double p50Millis, double p95Millis, double p99Millis) {
+            this.requests = requests;
+            this.clientErrors = clientErrors;
+            this.serverErrors = serverErrors;
+            this.failures = failures;
+            this.skipped = skipped;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+        }
+
+        double errorRate() {
+            return requests == 0 ? 0 : 100.0 * (clientErrors + serverErrors + failures) / requests;
+        }
+    }
+}
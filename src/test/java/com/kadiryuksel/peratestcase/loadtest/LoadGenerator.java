@@ -0,0 +1,267 @@
+package com.kadiryuksel.peratestcase.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kadiryuksel.peratestcase.PeratestcaseApplication;
+import com.kadiryuksel.peratestcase.controller.FootballClubController;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.dto.TeamRegistrationDto;
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.projection.PlayerExportRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+//Boots the application on the in-memory H2 database of the test profile and replays a mix of the /api/v1 endpoints
+//Run with: mvn -Pload-test test-compile exec:exec -Dload.args="rate=200 duration=60"
+//The WebFlux variant runs the same load with: mvn -Preactive,load-test test-compile exec:exec -Dload.args="app=reactive rate=200"
+//threads=virtual compares virtual threads with the platform pools on JDK 21, e.g. with mix=getTeamPlayers:100
+//Requests are sent on a fixed schedule, latencies count from the planned send time so a slow server is not hidden
+public final class LoadGenerator {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final String REACTIVE_APPLICATION = "com.kadiryuksel.peratestcase.reactive.ReactiveApplication";
+    private static final int SEED_CHUNK_SIZE = 500;
+    private final static Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final LoadSettings settings;
+    private final Workload workload;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private long measureFrom;
+
+    private LoadGenerator(LoadSettings settings, Workload workload) {
+        this.settings = settings;
+        this.workload = workload;
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.parse(args);
+        //A devtools restart would run the load a second time without the arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ConfigurableApplicationContext context = start(settings)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = String.format("http://localhost:%d/api/v1", port);
+            Workload workload = seed(HttpClient.newHttpClient(), context.getBean(ObjectMapper.class), baseUrl, settings);
+            new LoadGenerator(settings, workload).run();
+        }
+    }
+
+    //The reactive application is only compiled with -Preactive, so it is looked up by name
+    private static ConfigurableApplicationContext start(LoadSettings settings) {
+        SpringApplicationBuilder builder;
+        switch (settings.app) {
+            case "servlet":
+                builder = new SpringApplicationBuilder(PeratestcaseApplication.class).profiles("test");
+                break;
+            case "reactive":
+                try {
+                    builder = new SpringApplicationBuilder(Class.forName(REACTIVE_APPLICATION))
+                            .web(WebApplicationType.REACTIVE)
+                            .profiles("reactive", "reactive-test");
+                } catch (ClassNotFoundException exception) {
+                    throw new IllegalStateException("app=reactive needs the reactive profile: mvn -Preactive,load-test ...", exception);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("Unknown application %s.", settings.app));
+        }
+        //Builder properties are only defaults, application.properties would override the thread mode
+        return builder.properties("server.port=0",
+                        "logging.level.root=" + settings.logLevel,
+                        "logging.level.com.kadiryuksel.peratestcase.loadtest=info")
+                .run("--virtual-threads.enabled=" + settings.threads.equals("virtual"));
+    }
+
+    //Stores the starting teams and players through the API, the same way for both applications, this is not measured
+    private static Workload seed(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, LoadSettings settings)
+            throws IOException, InterruptedException {
+        List<TeamRegistrationDto> teams = new ArrayList<>();
+        for (int i = 1; i <= settings.teams; i++) {
+            teams.add(new TeamRegistrationDto("Seed Team " + i));
+        }
+        for (List<TeamRegistrationDto> chunk : chunks(teams)) {
+            send(httpClient, post(objectMapper, baseUrl + "/registerFootballTeams", chunk));
+        }
+        List<Long> teamIds = new ArrayList<>();
+        String after = "0";
+        while (after != null) {
+            HttpResponse<String> page = send(httpClient,
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/getAllFootballTeams?after=" + after)).GET().build());
+            for (Team team : objectMapper.readValue(page.body(), new TypeReference<List<Team>>() {
+            })) {
+                teamIds.add(team.getId());
+            }
+            after = page.headers().firstValue(FootballClubController.NEXT_CURSOR_HEADER).orElse(null);
+        }
+
+        List<FootballPlayerRegistrationDto> playerDtos = new ArrayList<>();
+        PlayerType[] playerTypes = PlayerType.values();
+        for (long teamId : teamIds) {
+            //One goalkeeper and a quarter foreign players, so the rosters start well inside the limits
+            for (int i = 0; i < settings.playersPerTeam; i++) {
+                PlayerType playerType = i == 0 ? PlayerType.GOALKEEPER : playerTypes[1 + i % (playerTypes.length - 1)];
+                playerDtos.add(new FootballPlayerRegistrationDto("Seed" + (playerDtos.size() + 1), "Player",
+                        i % 4 == 3 ? Nationality.FOREIGN : Nationality.LOCAL, playerType, teamId));
+            }
+        }
+        for (List<FootballPlayerRegistrationDto> chunk : chunks(playerDtos)) {
+            send(httpClient, post(objectMapper, baseUrl + "/registerFootballPlayers", chunk));
+        }
+        HttpResponse<String> export = send(httpClient, HttpRequest.newBuilder(URI.create(baseUrl + "/exportPlayers")).GET().build());
+        List<Long> playerIds = new ArrayList<>();
+        for (String line : export.body().split("\n")) {
+            if (!line.isBlank()) {
+                playerIds.add(objectMapper.readValue(line, PlayerExportRow.class).getId());
+            }
+        }
+        logger.info(String.format("Seeded %d teams and %d players on the %s application.", teamIds.size(), playerIds.size(), settings.app));
+        return new Workload(baseUrl, objectMapper, teamIds, playerIds);
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += SEED_CHUNK_SIZE) {
+            chunks.add(items.subList(i, Math.min(i + SEED_CHUNK_SIZE, items.size())));
+        }
+        return chunks;
+    }
+
+    private static HttpRequest post(ObjectMapper objectMapper, String url, Object body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private static HttpResponse<String> send(HttpClient httpClient, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(String.format("Seeding failed with %d on %s: %s",
+                    response.statusCode(), request.uri(), response.body()));
+        }
+        return response;
+    }
+
+    private void run() throws InterruptedException {
+        logger.info(String.format("Load run: %s", settings));
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        measureFrom = start + settings.warmup * NANOS_PER_SECOND;
+        long end = measureFrom + settings.duration * NANOS_PER_SECOND;
+
+        Thread steady = new Thread(() -> dispatch(settings.rate, settings.mix, start, end), "load-steady");
+        Thread bursts = new Thread(() -> {
+            for (long burstStart = start; burstStart < end; burstStart += settings.burstEvery * NANOS_PER_SECOND) {
+                dispatch(settings.burstRate, settings.burstMix, burstStart,
+                        Math.min(burstStart + settings.burstLength * NANOS_PER_SECOND, end));
+            }
+        }, "load-bursts");
+        steady.start();
+        bursts.start();
+        steady.join();
+        bursts.join();
+
+        //Late responses still count, their latency is what the server delivered
+        long drainDeadline = System.nanoTime() + 30 * NANOS_PER_SECOND;
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        report();
+    }
+
+    //Sends requests at the given rate between two points in time, picking each endpoint by its weight
+    private void dispatch(int rate, Map<Endpoint, Integer> mix, long from, long to) {
+        if (rate <= 0 || mix.isEmpty()) {
+            return;
+        }
+        long interval = NANOS_PER_SECOND / rate;
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        for (long planned = from; planned < to; planned += interval) {
+            long wait = planned - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(pick(mix, totalWeight), planned);
+        }
+    }
+
+    private Endpoint pick(Map<Endpoint, Integer> mix, int totalWeight) {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty endpoint mix.");
+    }
+
+    private void send(Endpoint endpoint, long planned) {
+        boolean measured = planned >= measureFrom;
+        EndpointStats endpointStats = stats.get(endpoint);
+        HttpRequest request = workload.request(endpoint);
+        if (request == null) {
+            if (measured) {
+                endpointStats.recordSkipped();
+            }
+            return;
+        }
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+            long latency = System.nanoTime() - planned;
+            if (response != null) {
+                workload.onResponse(endpoint, response);
+            }
+            if (measured) {
+                if (response != null) {
+                    endpointStats.record(latency, response.statusCode());
+                } else {
+                    endpointStats.recordFailure(latency);
+                }
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private void report() {
+        StringBuilder report = new StringBuilder(String.format("Load report over %d s:%n", settings.duration));
+        report.append(String.format("%-24s %9s %9s %8s %6s %6s %7s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Req/s", "Error %", "4xx", "5xx", "Skipped", "p50 ms", "p95 ms", "p99 ms"));
+        int totalRequests = 0;
+        int totalErrors = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            EndpointStats.Summary summary = stats.get(endpoint).summarize();
+            if (summary.requests == 0 && summary.skipped == 0) {
+                continue;
+            }
+            totalRequests += summary.requests;
+            totalErrors += summary.clientErrors + summary.serverErrors + summary.failures;
+            report.append(String.format("%-24s %9d %9.1f %8.2f %6d %6d %7d %9.1f %9.1f %9.1f%n",
+                    endpoint, summary.requests, (double) summary.requests / settings.duration, summary.errorRate(),
+                    summary.clientErrors, summary.serverErrors, summary.skipped,
+                    summary.p50Millis, summary.p95Millis, summary.p99Millis));
+        }
+        report.append(String.format("%-24s %9d %9.1f %8.2f", "Total", totalRequests, (double) totalRequests / settings.duration,
+                totalRequests == 0 ? 0 : 100.0 * totalErrors / totalRequests));
+        logger.info(report.toString());
+    }
+}
@@ -0,0 +1,77 @@
+package com.kadiryuksel.peratestcase.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+//Settings of a load run, passed as key=value arguments, e.g. rate=300 duration=120
+final class LoadSettings {
+    //Application under load, servlet or reactive, the reactive one needs -Preactive
+    String app = "servlet";
+    //Request threads of the servlet application, platform or virtual, virtual needs JDK 21
+    String threads = "platform";
+    //Steady requests per second
+    int rate = 100;
+    //Seconds measured after the warm-up
+    int duration = 60;
+    //Seconds of traffic before measuring starts
+    int warmup = 10;
+    //Extra registration and transfer requests per second while a burst lasts
+    int burstRate = 100;
+    //Seconds from the start of one burst to the next
+    int burstEvery = 15;
+    //Seconds a burst lasts
+    int burstLength = 3;
+    //Teams and players per team stored before the run
+    int teams = 200;
+    int playersPerTeam = 6;
+    //Log level of the application, the report is always written
+    String logLevel = "error";
+    //Relative weights of the endpoints in the steady and in the burst traffic
+    Map<Endpoint, Integer> mix = parseMix("getTeamPlayers:50,getAllFootballTeams:20,registerFootballPlayer:8,updatePlayerTeam:8,"
+            + "registerFootballTeam:4,updateTeamNameById:4,deletePlayer:4,deleteTeam:2");
+    Map<Endpoint, Integer> burstMix = parseMix("registerFootballPlayer:50,updatePlayerTeam:50");
+
+    static LoadSettings parse(String[] args) {
+        LoadSettings settings = new LoadSettings();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException(String.format("Expected key=value but found %s.", arg));
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator)) {
+                case "app": settings.app = value; break;
+                case "threads": settings.threads = value; break;
+                case "rate": settings.rate = Integer.parseInt(value); break;
+                case "duration": settings.duration = Integer.parseInt(value); break;
+                case "warmup": settings.warmup = Integer.parseInt(value); break;
+                case "burst-rate": settings.burstRate = Integer.parseInt(value); break;
+                case "burst-every": settings.burstEvery = Integer.parseInt(value); break;
+                case "burst-length": settings.burstLength = Integer.parseInt(value); break;
+                case "teams": settings.teams = Integer.parseInt(value); break;
+                case "players-per-team": settings.playersPerTeam = Integer.parseInt(value); break;
+                case "log-level": settings.logLevel = value; break;
+                case "mix": settings.mix = parseMix(value); break;
+                case "burst-mix": settings.burstMix = parseMix(value); break;
+                default: throw new IllegalArgumentException(String.format("Unknown setting %s.", arg));
+            }
+        }
+        return settings;
+    }
+
+    //Comma separated endpoint:weight pairs
+    static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Endpoint.valueOf(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("app=%s threads=%s rate=%d/s duration=%ds warmup=%ds burst=%d/s for %ds every %ds teams=%d players-per-team=%d mix=%s burst-mix=%s",
+                app, threads, rate, duration, warmup, burstRate, burstLength, burstEvery, teams, playersPerTeam, mix, burstMix);
+    }
+}
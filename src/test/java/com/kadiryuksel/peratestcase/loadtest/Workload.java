@@ -0,0 +1,129 @@
+package com.kadiryuksel.peratestcase.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerTeamUpdateDto;
+import com.kadiryuksel.peratestcase.dto.TeamNameUpdateDto;
+import com.kadiryuksel.peratestcase.dto.TeamRegistrationDto;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//Builds valid requests against the stored data and learns the ids of the teams the run creates
+//Seeded teams are never deleted, deleteTeam only removes teams registered during the run
+final class Workload {
+    private static final Pattern CREATED_TEAM_ID = Pattern.compile("team table: (\\d+)");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final List<Long> teamIds;
+    private final List<Long> playerIds;
+    private final Queue<Long> createdTeamIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nameNumber = new AtomicInteger();
+
+    Workload(String baseUrl, ObjectMapper objectMapper, List<Long> teamIds, List<Long> playerIds) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.teamIds = List.copyOf(teamIds);
+        this.playerIds = new ArrayList<>(playerIds);
+    }
+
+    //Returns null when there is nothing left to run the endpoint against
+    HttpRequest request(Endpoint endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (endpoint) {
+            case registerFootballTeam:
+                return post("/registerFootballTeam", new TeamRegistrationDto(uniqueName("Load Team ")));
+            case registerFootballPlayer:
+                Nationality nationality = random.nextInt(5) == 0 ? Nationality.FOREIGN : Nationality.LOCAL;
+                PlayerType playerType = random.nextInt(20) == 0 ? PlayerType.GOALKEEPER
+                        : PlayerType.values()[1 + random.nextInt(PlayerType.values().length - 1)];
+                return post("/registerFootballPlayer",
+                        new FootballPlayerRegistrationDto(uniqueName("Load"), "Player", nationality, playerType, randomTeamId()));
+            case updateTeamNameById:
+                return post("/updateTeamNameById", new TeamNameUpdateDto(uniqueName("Renamed Team "), randomTeamId()));
+            case updatePlayerTeam:
+                Long playerId = randomPlayerId(false);
+                return playerId == null ? null : post("/updatePlayerTeam", new FootballPlayerTeamUpdateDto(playerId, randomTeamId()));
+            case getAllFootballTeams:
+                return get(String.format("/getAllFootballTeams?after=%d", random.nextInt(Math.max(teamIds.size() - 50, 1))));
+            case getTeamPlayers:
+                return get(String.format("/getTeamPlayers/team/%d", randomTeamId()));
+            case deleteTeam:
+                Long teamId = createdTeamIds.poll();
+                return teamId == null ? null : delete(String.format("/deleteTeam/%d", teamId));
+            case deletePlayer:
+                Long deletedPlayerId = randomPlayerId(true);
+                return deletedPlayerId == null ? null : delete(String.format("/deletePlayer/%d", deletedPlayerId));
+        }
+        throw new IllegalArgumentException(endpoint.name());
+    }
+
+    void onResponse(Endpoint endpoint, HttpResponse<String> response) {
+        if (endpoint == Endpoint.registerFootballTeam && response.statusCode() == 200) {
+            Matcher matcher = CREATED_TEAM_ID.matcher(response.body());
+            if (matcher.find()) {
+                createdTeamIds.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+    }
+
+    private long randomTeamId() {
+        return teamIds.get(ThreadLocalRandom.current().nextInt(teamIds.size()));
+    }
+
+    //Deleted players leave the pool so later requests do not target them
+    private synchronized Long randomPlayerId(boolean remove) {
+        if (playerIds.isEmpty()) {
+            return null;
+        }
+        int index = ThreadLocalRandom.current().nextInt(playerIds.size());
+        long playerId = playerIds.get(index);
+        if (remove) {
+            playerIds.set(index, playerIds.get(playerIds.size() - 1));
+            playerIds.remove(playerIds.size() - 1);
+        }
+        return playerId;
+    }
+
+    private String uniqueName(String prefix) {
+        return prefix + nameNumber.incrementAndGet();
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest delete(String path) {
+        return builder(path).DELETE().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return builder(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+}
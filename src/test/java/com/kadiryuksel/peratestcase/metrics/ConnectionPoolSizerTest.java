@@ -0,0 +1,137 @@
+package com.kadiryuksel.peratestcase.metrics;
+
+import com.kadiryuksel.peratestcase.config.ConnectionPoolSizingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//The pool is never started, the sizer only changes its settings
+class ConnectionPoolSizerTest {
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private HikariDataSource dataSource;
+    private ConnectionPoolSizingProperties properties;
+    private ConnectionPoolSizer sizer;
+
+    @BeforeEach
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(10);
+        dataSource.setMinimumIdle(5);
+        properties = new ConnectionPoolSizingProperties();
+        properties.setIntervalMillis(TimeUnit.HOURS.toMillis(1));
+        sizer = new ConnectionPoolSizer(dataSource, new JdbcTimings(), properties, Integer.MAX_VALUE, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sizer.destroy();
+    }
+
+    @Test
+    public void testStartingSizeIsKeptWithinTheBounds() {
+        sizer.destroy();
+        dataSource.setMaximumPoolSize(50);
+
+        sizer = new ConnectionPoolSizer(dataSource, new JdbcTimings(), properties, Integer.MAX_VALUE, new SimpleMeterRegistry());
+
+        assertEquals(properties.getMaxSize(), dataSource.getMaximumPoolSize());
+        assertEquals(5, dataSource.getMinimumIdle());
+    }
+
+    @Test
+    public void testBoundsAreCappedAtTheThreadsUsingThePool() {
+        sizer.destroy();
+        dataSource.setMaximumPoolSize(50);
+
+        sizer = new ConnectionPoolSizer(dataSource, new JdbcTimings(), properties, 4, new SimpleMeterRegistry());
+
+        assertEquals(4, dataSource.getMaximumPoolSize());
+        assertEquals(4, sizer.nextSize(3, interval(3, 3, 1), 2));
+        assertEquals(4, sizer.nextSize(4, interval(3, 4, 1), 2));
+    }
+
+    @Test
+    public void testInvalidBoundsAreRejected() {
+        properties.setMinSize(20);
+        properties.setMaxSize(10);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConnectionPoolSizer(dataSource, new JdbcTimings(), properties, Integer.MAX_VALUE, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    public void testGrowsWhenThreadsWaitAndTheDatabaseKeepsUp() {
+        assertEquals(10, sizer.nextSize(10, interval(10, 1, 1), 0));
+
+        assertEquals(12, sizer.nextSize(10, interval(10, 20, 1.1), 0));
+        assertEquals(14, sizer.nextSize(12, interval(12, 0, 1), 3));
+    }
+
+    @Test
+    public void testGrowsNoFurtherThanTheMaximum() {
+        assertEquals(properties.getMaxSize(), sizer.nextSize(properties.getMaxSize() - 1, interval(29, 20, 1), 4));
+    }
+
+    @Test
+    public void testShrinksWhenThreadsWaitOnASlowerDatabase() {
+        sizer.nextSize(20, interval(20, 0, 1), 0);
+
+        assertEquals(18, sizer.nextSize(20, interval(20, 20, 5), 2));
+    }
+
+    @Test
+    public void testShrinksIdleConnectionsDownToTheMinimum() {
+        assertEquals(8, sizer.nextSize(10, interval(2, 0, 1), 0));
+        assertEquals(properties.getMinSize(), sizer.nextSize(properties.getMinSize() + 1, interval(0, 0, -1), 0));
+    }
+
+    @Test
+    public void testBaselineFollowsALastingSlowdown() {
+        sizer.nextSize(10, interval(10, 0, 1), 0);
+        //Three times slower than the best latency, the baseline drifts up until the waits grow the pool again
+        int size = 10;
+        int intervals = 0;
+        int nextSize;
+        while ((nextSize = sizer.nextSize(size, interval(size, 20, 3), 0)) <= size) {
+            size = nextSize;
+            assertTrue(++intervals < 30, "The pool never grew again.");
+        }
+        assertTrue(intervals > 1);
+        assertEquals(size + properties.getStep(), nextSize);
+    }
+
+    @Test
+    public void testMinimumIdleFollowsASmallerPool() {
+        sizer.destroy();
+        properties.setMinSize(2);
+        dataSource.setMaximumPoolSize(3);
+
+        sizer = new ConnectionPoolSizer(dataSource, new JdbcTimings(), properties, Integer.MAX_VALUE, new SimpleMeterRegistry());
+
+        assertEquals(3, dataSource.getMaximumPoolSize());
+        assertEquals(3, dataSource.getMinimumIdle());
+    }
+
+    @Test
+    public void testNothingChangesBeforeThePoolStarts() {
+        sizer.adjust();
+
+        assertEquals(10, dataSource.getMaximumPoolSize());
+    }
+
+    //One interval with the given average busy connections, wait per acquisition and time per statement
+    private JdbcTimings.Snapshot interval(double busyConnections, double acquireMillis, double statementMillis) {
+        long acquisitions = 100;
+        long statements = statementMillis < 0 ? 0 : 100;
+        return new JdbcTimings.Snapshot(INTERVAL_NANOS, acquisitions,
+                (long) (acquireMillis * 1_000_000 * acquisitions), (long) (busyConnections * INTERVAL_NANOS),
+                statements, (long) (Math.max(statementMillis, 0) * 1_000_000 * statements));
+    }
+}
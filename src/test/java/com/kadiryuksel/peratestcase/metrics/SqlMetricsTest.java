@@ -0,0 +1,147 @@
+package com.kadiryuksel.peratestcase.metrics;
+
+import com.kadiryuksel.peratestcase.config.SqlMetricsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlMetricsTest {
+    private static final AtomicInteger teamNumber = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private SqlMetricsProperties sqlMetricsProperties;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void testStatementsAndTimeAreRecordedPerEndpoint() throws Exception {
+        String endpoint = "FootballClubController.registerFootballTeam";
+        long requestsBefore = statementSummaryCount(endpoint);
+
+        registerTeam();
+
+        DistributionSummary statements = statementSummary(endpoint);
+        assertEquals(requestsBefore + 1, statements.count());
+        assertTrue(statements.max() >= 1);
+        Timer time = meterRegistry.get("sql.request.time").tag(SqlMetricsInterceptor.ENDPOINT_TAG, endpoint).timer();
+        assertTrue(time.count() >= 1);
+    }
+
+    @Test
+    public void testFetchedRowsAreRecorded() throws Exception {
+        registerTeam();
+
+        perform(get("/api/v1/getAllFootballTeams")).andExpect(status().isOk());
+
+        DistributionSummary rows = meterRegistry.get("sql.request.rows")
+                .tag(SqlMetricsInterceptor.ENDPOINT_TAG, "FootballClubController.getAllFootballTeams")
+                .summary();
+        assertTrue(rows.max() >= 1);
+    }
+
+    @Test
+    public void testRequestsOverTheStatementBudgetAreCounted() throws Exception {
+        String endpoint = "FootballClubController.registerFootballTeam";
+        int budget = sqlMetricsProperties.getStatementBudget();
+        sqlMetricsProperties.setStatementBudget(0);
+        try {
+            registerTeam();
+        } finally {
+            sqlMetricsProperties.setStatementBudget(budget);
+        }
+
+        Counter overBudget = meterRegistry.get("sql.request.over.budget").tag(SqlMetricsInterceptor.ENDPOINT_TAG, endpoint).counter();
+        assertTrue(overBudget.count() >= 1);
+    }
+
+    @Test
+    public void testStatsAreClearedAfterTheRequest() throws Exception {
+        //MockMvc runs the request on the test thread
+        registerTeam();
+
+        assertNull(SqlRequestStats.current());
+    }
+
+    @Test
+    public void testJdbcWorkOutsideRequestsIsTimed() throws Exception {
+        JdbcTimings timings = ((InstrumentedDataSource) dataSource).getTimings();
+        JdbcTimings.Snapshot before = timings.snapshot();
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+        }
+
+        JdbcTimings.Snapshot interval = timings.snapshot().since(before);
+        assertTrue(interval.getAverageStatementMillis() >= 0);
+        assertTrue(interval.getAverageAcquireMillis() >= 0);
+        assertTrue(interval.getBusyConnections() > 0);
+    }
+
+    @Test
+    public void testConnectionPoolMetricsAreExposed() throws Exception {
+        registerTeam();
+
+        for (String gauge : List.of("hikaricp.connections.active", "hikaricp.connections.idle", "hikaricp.connections.pending")) {
+            assertNotNull(meterRegistry.find(gauge).gauge(), gauge);
+        }
+        Timer acquire = meterRegistry.get("hikaricp.connections.acquire").timer();
+        assertTrue(acquire.count() >= 1);
+        assertTrue(acquire.takeSnapshot().percentileValues().length > 0);
+        assertTrue(meterRegistry.get("hikaricp.connections.usage").timer().count() >= 1);
+    }
+
+    private void registerTeam() throws Exception {
+        perform(post("/api/v1/registerFootballTeam")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("{\"teamName\":\"Metrics FC %d\"}", teamNumber.incrementAndGet())))
+                .andExpect(status().isOk());
+    }
+
+    private DistributionSummary statementSummary(String endpoint) {
+        return meterRegistry.get("sql.request.statements").tag(SqlMetricsInterceptor.ENDPOINT_TAG, endpoint).summary();
+    }
+
+    private long statementSummaryCount(String endpoint) {
+        DistributionSummary summary = meterRegistry.find("sql.request.statements")
+                .tag(SqlMetricsInterceptor.ENDPOINT_TAG, endpoint)
+                .summary();
+        return summary == null ? 0 : summary.count();
+    }
+
+    //Handlers run on the endpoint pools, the response of those is written by the async dispatch
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+    }
+}
@@ -0,0 +1,35 @@
+package com.kadiryuksel.peratestcase.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupTimelineTest {
+
+    @Test
+    public void testStepsOfOneNameAreAddedUpAndBeansToldApart() throws InterruptedException {
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+        runStep(applicationStartup.start("spring.context.refresh"), 80);
+        runStep(applicationStartup.start("spring.beans.instantiate").tag("beanName", "teamService"), 20);
+        runStep(applicationStartup.start("spring.beans.instantiate").tag("beanName", "playerService"), 0);
+        runStep(applicationStartup.start("spring.boot.webserver.create"), 25);
+        runStep(applicationStartup.start("spring.boot.webserver.create"), 25);
+
+        Map<String, Duration> slowestSteps = StartupTimeline.slowestSteps(applicationStartup.getBufferedTimeline().getEvents(), 3);
+
+        assertEquals(List.of("spring.context.refresh", "spring.boot.webserver.create", "spring.beans.instantiate (teamService)"),
+                List.copyOf(slowestSteps.keySet()));
+        assertTrue(slowestSteps.get("spring.boot.webserver.create").toMillis() >= 50);
+    }
+
+    private void runStep(StartupStep step, long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        step.end();
+    }
+}
@@ -11,6 +11,8 @@ import com.kadiryuksel.peratestcase.exception.NotFoundException;
 import com.kadiryuksel.peratestcase.exception.PlayerAlreadyExistsException;
 import com.kadiryuksel.peratestcase.exception.PlayerLimitException;
 import com.kadiryuksel.peratestcase.exception.TeamAlreadyExistsException;
+import com.kadiryuksel.peratestcase.response.BulkItemResponse;
+import com.kadiryuksel.peratestcase.response.CursorPage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -19,9 +21,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -53,19 +57,27 @@ class FootballClubServiceTest {
     }
 
     @Test
-    public void testCheckPlayerById_PlayerExists() {
+    public void testGetPlayerOrThrow_PlayerExists() {
         long playerId = 123L;
-        when(playerService.doesPlayerExistById(playerId)).thenReturn(true);
+        Player player = Player.builder().id(playerId).build();
+        when(playerService.findPlayerById(playerId)).thenReturn(Optional.of(player));
 
-        footballClubService.checkPlayerById(playerId);
+        assertEquals(player, footballClubService.getPlayerOrThrow(playerId));
     }
 
     @Test
-    public void testCheckPlayerById_PlayerNotFound() {
+    public void testGetPlayerOrThrow_PlayerNotFound() {
         long playerId = 123L;
-        when(playerService.doesPlayerExistById(playerId)).thenReturn(false);
+        when(playerService.findPlayerById(playerId)).thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () -> footballClubService.checkPlayerById(playerId));
+        assertThrows(NotFoundException.class, () -> footballClubService.getPlayerOrThrow(playerId));
+    }
+
+    @Test
+    public void testGetTeamNameOrThrow_TeamNotFound() {
+        when(teamService.getTeamNameByTeamId(1L)).thenReturn(null);
+
+        assertThrows(NotFoundException.class, () -> footballClubService.getTeamNameOrThrow(1L));
     }
 
     @Test
@@ -118,21 +130,19 @@ class FootballClubServiceTest {
 
     @Test
     public void testCheckPlayerByFirstNameAndLastName_playerDoesNotExist() {
-        when(playerService.doesPlayerExistByFirstNameAndLastName(anyString(), anyString())).thenReturn(false);
+        when(playerService.findPlayerByFirstNameAndLastName(anyString(), anyString())).thenReturn(Optional.empty());
         footballClubService.checkPlayerByFirstNameAndLastName("John", "Doe");
     }
 
     @Test
     public void testCheckPlayerByFirstNameAndLastName_playerExists() {
-        when(playerService.doesPlayerExistByFirstNameAndLastName(anyString(), anyString())).thenReturn(true);
-
         Player player = new Player();
         player.setFirstName("John");
         player.setLastName("Doe");
         Team team = new Team();
         team.setTeamName("MyTeam");
         player.setTeam(team);
-        when(playerService.getPlayerByFirstNameAndLastName("John", "Doe")).thenReturn(player);
+        when(playerService.findPlayerByFirstNameAndLastName("John", "Doe")).thenReturn(Optional.of(player));
 
         assertThrows(PlayerAlreadyExistsException.class, () -> footballClubService.checkPlayerByFirstNameAndLastName("John", "Doe"));
     }
@@ -155,12 +165,40 @@ class FootballClubServiceTest {
         assertThrows(TeamAlreadyExistsException.class, () -> footballClubService.addNewFootballTeam(teamName));
     }
 
+    @Test
+    public void testAddNewFootballTeams_reportsEachTeam() {
+        List<String> teamNames = List.of("Team A", "Team B", "Team A", "Team C");
+        when(teamService.getExistingTeamNames(anyCollection())).thenReturn(Set.of("Team B"));
+        when(teamService.addTeams(anyCollection())).thenReturn(List.of(new Team(1L, "Team A"), new Team(2L, "Team C")));
+
+        List<BulkItemResponse> results = footballClubService.addNewFootballTeams(teamNames);
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("Team added to the team table: 1 Team A", results.get(0).getMessage());
+        assertFalse(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(results.get(3).isSuccess());
+        verify(teamService, times(1)).getExistingTeamNames(anyCollection());
+        verify(teamService, times(1)).addTeams(argThat(names -> names.size() == 2));
+        verify(teamService, never()).doesTeamExistByTeamName(anyString());
+    }
+
+    @Test
+    public void testAddNewFootballTeams_allTeamsExist() {
+        when(teamService.getExistingTeamNames(anyCollection())).thenReturn(Set.of("Team A"));
+
+        List<BulkItemResponse> results = footballClubService.addNewFootballTeams(List.of("Team A"));
+
+        assertFalse(results.get(0).isSuccess());
+        verify(teamService, never()).addTeams(anyCollection());
+    }
+
     @Test
     public void testAddNewFootballPlayer_Success() {
-        when(teamService.doesTeamExistByTeamId(anyLong())).thenReturn(true);
-        when(teamService.getTeamById(anyLong())).thenReturn(Team.builder().teamName("test team").id(1L).build());
-        when(playerService.getPlayerCountByTeamId(anyLong())).thenReturn(10);
-        when(playerService.addNewFootballPlayer(any(FootballPlayerRegistrationDto.class), any(Team.class))).thenReturn("Player Added Successfully");
+        Team teamReference = Team.builder().id(1L).build();
+        when(teamService.getTeamNameByTeamId(1L)).thenReturn("test team");
+        when(teamService.getTeamReference(1L)).thenReturn(teamReference);
+        when(playerService.admitPlayerToTeam(anyLong(), any(Nationality.class), any(PlayerType.class))).thenReturn(true);
 
         // create a player DTO
         FootballPlayerRegistrationDto playerDto = new FootballPlayerRegistrationDto();
@@ -171,12 +209,14 @@ class FootballClubServiceTest {
         playerDto.setPlayerType(PlayerType.DEFENDER);
 
         String result = footballClubService.addNewFootballPlayer(playerDto);
-        assertEquals("Player Added Successfully", result);
+        assertEquals("John Doe added to the team test team.", result);
+        verify(playerService, times(1)).addNewFootballPlayer(playerDto, teamReference);
+        verify(teamService, never()).findTeamById(anyLong());
     }
 
     @Test
     public void testAddNewFootballPlayer_TeamDoesNotExist() {
-        when(teamService.doesTeamExistByTeamId(anyLong())).thenReturn(false);
+        when(teamService.getTeamNameByTeamId(anyLong())).thenReturn(null);
 
         // create a player DTO
         FootballPlayerRegistrationDto playerDto = new FootballPlayerRegistrationDto();
@@ -191,17 +231,15 @@ class FootballClubServiceTest {
 
     @Test
     public void testAddNewFootballPlayer_PlayerAlreadyExists() {
-        when(teamService.doesTeamExistByTeamId(anyLong())).thenReturn(true);
-        when(teamService.getTeamById(anyLong())).thenReturn(new Team());
-        when(playerService.doesPlayerExistByFirstNameAndLastName(anyString(), anyString())).thenReturn(true);
+        when(teamService.getTeamNameByTeamId(anyLong())).thenReturn("test team");
         when(playerService
-                .getPlayerByFirstNameAndLastName(anyString(), anyString()))
-                .thenReturn(
+                .findPlayerByFirstNameAndLastName(anyString(), anyString()))
+                .thenReturn(Optional.of(
                         Player.builder()
                                 .firstName("John").lastName("Doe")
                                 .team(Team.builder().teamName("test team").build())
                                 .build()
-                );
+                ));
         // create a player DTO
         FootballPlayerRegistrationDto playerDto = new FootballPlayerRegistrationDto();
         playerDto.setTeamId(1L);
@@ -226,17 +264,18 @@ class FootballClubServiceTest {
         Team team = new Team();
         team.setId(1L);
         team.setTeamName("Team A");
-        when(teamService.getTeamById(1L)).thenReturn(team);
-        when(teamService.doesTeamExistByTeamId(anyLong())).thenReturn(true);
-        when(playerService.doesPlayerExistByFirstNameAndLastName(anyString(), anyString())).thenReturn(false);
-        when(playerService.getPlayerCountByTeamId(1L)).thenReturn(PlayerService.MAX_PLAYER_COUNT);
+        team.setPlayerCount(PlayerService.MAX_PLAYER_COUNT);
+        when(teamService.getTeamNameByTeamId(1L)).thenReturn(team.getTeamName());
+        when(playerService.findPlayerByFirstNameAndLastName(anyString(), anyString())).thenReturn(Optional.empty());
+        when(playerService.admitPlayerToTeam(1L, Nationality.LOCAL, PlayerType.FORWARD)).thenReturn(false);
+        when(playerService.getRosterCountsByTeamId(1L)).thenReturn(team);
 
         assertThrows(PlayerLimitException.class, () -> footballClubService.addNewFootballPlayer(playerDto));
 
         // verify that the team and player service methods were called as expected
-        verify(teamService, times(1)).getTeamById(1);
-        verify(playerService, times(1)).getPlayerCountByTeamId(1);
-        verifyNoMoreInteractions(teamService, playerService);
+        verify(teamService, never()).getTeamReference(anyLong());
+        verify(playerService, times(1)).admitPlayerToTeam(1L, Nationality.LOCAL, PlayerType.FORWARD);
+        verify(playerService, never()).addNewFootballPlayer(any(FootballPlayerRegistrationDto.class), any(Team.class));
     }
 
     @Test
@@ -251,11 +290,13 @@ class FootballClubServiceTest {
         Team team = new Team();
         team.setId(1L);
         team.setTeamName("Team 1");
+        team.setPlayerCount(10);
+        team.setForeignCount(3);
+        team.setGoalkeeperCount(PlayerService.MAX_GOALKEEPER_COUNT);
 
-        when(teamService.getTeamById(anyLong())).thenReturn(team);
-        when(teamService.doesTeamExistByTeamId(anyLong())).thenReturn(true);
-        when(playerService.getPlayerCountByTeamId(anyLong())).thenReturn(10);
-        when(playerService.getGoalkeeperCountByTeamId(anyLong())).thenReturn(PlayerService.MAX_GOALKEEPER_COUNT);
+        when(teamService.getTeamNameByTeamId(anyLong())).thenReturn(team.getTeamName());
+        when(playerService.admitPlayerToTeam(1L, Nationality.FOREIGN, PlayerType.GOALKEEPER)).thenReturn(false);
+        when(playerService.getRosterCountsByTeamId(1L)).thenReturn(team);
 
         assertThrows(PlayerLimitException.class, () -> footballClubService.addNewFootballPlayer(playerDto));
     }
@@ -272,24 +313,103 @@ class FootballClubServiceTest {
         Team team = new Team();
         team.setId(1L);
         team.setTeamName("Team 1");
+        team.setPlayerCount(10);
+        team.setForeignCount(PlayerService.MAX_FOREIGN_COUNT);
 
-        when(teamService.getTeamById(anyLong())).thenReturn(team);
-        when(teamService.doesTeamExistByTeamId(anyLong())).thenReturn(true);
-        when(playerService.getPlayerCountByTeamId(anyLong())).thenReturn(10);
-        when(playerService.getForeignPlayerCountByTeamId(anyLong())).thenReturn(PlayerService.MAX_FOREIGN_COUNT);
+        when(teamService.getTeamNameByTeamId(anyLong())).thenReturn(team.getTeamName());
+        when(playerService.admitPlayerToTeam(1L, Nationality.FOREIGN, PlayerType.FORWARD)).thenReturn(false);
+        when(playerService.getRosterCountsByTeamId(1L)).thenReturn(team);
 
         assertThrows(PlayerLimitException.class, () -> footballClubService.addNewFootballPlayer(playerDto));
     }
 
+    @Test
+    public void testAddNewFootballPlayer_rosterChangedAfterRead() {
+        FootballPlayerRegistrationDto playerDto = new FootballPlayerRegistrationDto();
+        playerDto.setFirstName("John");
+        playerDto.setLastName("Doe");
+        playerDto.setNationality(Nationality.LOCAL);
+        playerDto.setPlayerType(PlayerType.FORWARD);
+        playerDto.setTeamId(1L);
+
+        //The counted roster has room but the conditional update refused the player
+        Team team = new Team();
+        team.setId(1L);
+        team.setTeamName("Team 1");
+        team.setPlayerCount(PlayerService.MAX_PLAYER_COUNT - 1);
+
+        when(teamService.getTeamNameByTeamId(anyLong())).thenReturn(team.getTeamName());
+        when(playerService.admitPlayerToTeam(1L, Nationality.LOCAL, PlayerType.FORWARD)).thenReturn(false);
+        when(playerService.getRosterCountsByTeamId(1L)).thenReturn(team);
+
+        assertThrows(PlayerLimitException.class, () -> footballClubService.addNewFootballPlayer(playerDto));
+        verify(playerService, never()).addNewFootballPlayer(any(FootballPlayerRegistrationDto.class), any(Team.class));
+    }
+
+    @Test
+    public void testAddNewFootballPlayers_reportsEachPlayer() {
+        Team teamA = new Team(1L, "Team A");
+        teamA.setPlayerCount(10);
+        teamA.setGoalkeeperCount(PlayerService.MAX_GOALKEEPER_COUNT - 1);
+        Team teamB = new Team(2L, "Team B");
+        teamB.setPlayerCount(PlayerService.MAX_PLAYER_COUNT);
+        Player existingPlayer = Player.builder().firstName("Old").lastName("Timer").team(teamB).build();
+
+        List<FootballPlayerRegistrationDto> playerDtos = List.of(
+                new FootballPlayerRegistrationDto("John", "Doe", Nationality.LOCAL, PlayerType.GOALKEEPER, 1L),
+                new FootballPlayerRegistrationDto("Jack", "Doe", Nationality.FOREIGN, PlayerType.GOALKEEPER, 1L),
+                new FootballPlayerRegistrationDto("John", "Doe", Nationality.LOCAL, PlayerType.FORWARD, 1L),
+                new FootballPlayerRegistrationDto("Old", "Timer", Nationality.LOCAL, PlayerType.FORWARD, 1L),
+                new FootballPlayerRegistrationDto("Jane", "Doe", Nationality.LOCAL, PlayerType.FORWARD, 2L),
+                new FootballPlayerRegistrationDto("Joe", "Doe", Nationality.LOCAL, PlayerType.FORWARD, 3L),
+                new FootballPlayerRegistrationDto("Jim", "Doe", Nationality.FOREIGN, PlayerType.DEFENDER, 1L)
+        );
+        when(teamService.getTeamsByIds(anyCollection())).thenReturn(List.of(teamA, teamB));
+        when(playerService.getPlayersByNames(anyCollection())).thenReturn(List.of(existingPlayer));
+        when(playerService.admitPlayersToTeam(1L, 2, 1, 1)).thenReturn(true);
+
+        List<BulkItemResponse> results = footballClubService.addNewFootballPlayers(playerDtos);
+
+        assertEquals(playerDtos.size(), results.size());
+        //Only one more goalkeeper fits into team A
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        //Names must be unique inside the request and in the database
+        assertFalse(results.get(2).isSuccess());
+        assertFalse(results.get(3).isSuccess());
+        //Team B is full and team 3 does not exist
+        assertFalse(results.get(4).isSuccess());
+        assertFalse(results.get(5).isSuccess());
+        assertTrue(results.get(6).isSuccess());
+        assertEquals("Jim Doe added to the team Team A.", results.get(6).getMessage());
+        verify(playerService, times(1)).addNewFootballPlayers(argThat(players -> players.size() == 2));
+        verify(playerService, never()).admitPlayersToTeam(eq(2L), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testAddNewFootballPlayers_rosterChangedBeforeAdmission() {
+        Team team = new Team(1L, "Team A");
+        List<FootballPlayerRegistrationDto> playerDtos = List.of(
+                new FootballPlayerRegistrationDto("John", "Doe", Nationality.LOCAL, PlayerType.FORWARD, 1L));
+        when(teamService.getTeamsByIds(anyCollection())).thenReturn(List.of(team));
+        when(playerService.getPlayersByNames(anyCollection())).thenReturn(new ArrayList<>());
+        when(playerService.admitPlayersToTeam(1L, 1, 0, 0)).thenReturn(false);
+
+        List<BulkItemResponse> results = footballClubService.addNewFootballPlayers(playerDtos);
+
+        assertFalse(results.get(0).isSuccess());
+        verify(playerService, never()).addNewFootballPlayers(anyList());
+    }
+
     @Test
     public void testGetAllFootballTeams() {
         List<Team> teams = new ArrayList<>();
         teams.add(Team.builder().teamName("Team A").build());
         teams.add(Team.builder().teamName("Team B").build());
         teams.add(Team.builder().teamName("Team C").build());
-        when(teamService.getAllTeams()).thenReturn(teams);
+        when(teamService.getTeams(0L, 50)).thenReturn(new CursorPage<>(teams, null));
 
-        List<Team> result = footballClubService.getAllFootballTeams();
+        List<Team> result = footballClubService.getAllFootballTeams(0L, 50).getItems();
         assertEquals(3, result.size());
         assertEquals("Team A", result.get(0).getTeamName());
         assertEquals("Team B", result.get(1).getTeamName());
@@ -326,9 +446,9 @@ class FootballClubServiceTest {
                         .build()
         );
 
-        when(playerService.getPlayersByTeamId(teamId)).thenReturn(players);
+        when(playerService.getPlayersByTeamId(teamId, 0L, 50)).thenReturn(new CursorPage<>(players, null));
 
-        List<Player> teamPlayers = footballClubService.getTeamPlayersByTeamId(teamId);
+        List<Player> teamPlayers = footballClubService.getTeamPlayersByTeamId(teamId, 0L, 50).getItems();
         assertEquals(players, teamPlayers);
     }
 
@@ -337,28 +457,66 @@ class FootballClubServiceTest {
         long teamId = 1L;
         String teamName = "Team A";
         when(teamService.getTeamNameByTeamId(teamId)).thenReturn(teamName);
-        when(teamService.doesTeamExistByTeamId(anyLong())).thenReturn(true);
         String expectedMessage = String.format("Team %s deleted from database.", teamName);
 
         assertEquals(expectedMessage, footballClubService.deleteTeamById(teamId));
 
         verify(teamService, times(1)).getTeamNameByTeamId(teamId);
-        verify(playerService, times(1)).deleteTeamPlayersByTeamId(teamId);
+        verify(playerService, times(1)).deletePlayersOfTeams(List.of(teamId));
         verify(teamService, times(1)).deleteTeamById(teamId);
     }
 
     @Test
     public void testDeleteTeamById_teamDoesNotExist() {
         long teamId = 1L;
-        when(teamService.doesTeamExistByTeamId(teamId)).thenReturn(false);
+        when(teamService.getTeamNameByTeamId(teamId)).thenReturn(null);
 
         assertThrows(NotFoundException.class, () -> footballClubService.deleteTeamById(teamId));
 
-        verify(teamService, times(1)).doesTeamExistByTeamId(teamId);
-        verify(playerService, times(0)).deleteTeamPlayersByTeamId(teamId);
+        verify(teamService, times(1)).getTeamNameByTeamId(teamId);
+        verify(playerService, times(0)).deletePlayersOfTeams(anyCollection());
         verify(teamService, times(0)).deleteTeamById(teamId);
     }
 
+    @Test
+    public void testDeleteTeamsByIds_reportsMissingAndRepeatedTeams() {
+        when(teamService.getTeamsByIds(Set.of(1L, 2L, 3L))).thenReturn(List.of(new Team(1L, "Team A"), new Team(3L, "Team C")));
+
+        List<BulkItemResponse> results = footballClubService.deleteTeamsByIds(List.of(1L, 2L, 3L, 1L));
+
+        assertEquals(List.of(
+                BulkItemResponse.succeeded("1", "Team Team A deleted from database."),
+                BulkItemResponse.failed("2", "Team ID: 2 does not exists."),
+                BulkItemResponse.succeeded("3", "Team Team C deleted from database."),
+                BulkItemResponse.failed("1", "Team ID: 1 is listed more than once.")), results);
+        verify(playerService, times(1)).deletePlayersOfTeams(Set.of(1L, 3L));
+        verify(teamService, times(1)).deleteTeamsByIds(Set.of(1L, 3L));
+    }
+
+    @Test
+    public void testDeleteTeamsByIds_noTeamFound() {
+        when(teamService.getTeamsByIds(Set.of(5L))).thenReturn(List.of());
+
+        List<BulkItemResponse> results = footballClubService.deleteTeamsByIds(List.of(5L));
+
+        assertFalse(results.get(0).isSuccess());
+        verify(playerService, never()).deletePlayersOfTeams(anyCollection());
+        verify(teamService, never()).deleteTeamsByIds(anyCollection());
+    }
+
+    @Test
+    public void testDeletePlayersByIds_reportsMissingPlayers() {
+        Player player = Player.builder().id(1L).firstName("John").lastName("Doe").team(new Team(4L, "Test Team")).build();
+        when(playerService.getPlayersByIds(Set.of(1L, 2L))).thenReturn(List.of(player));
+
+        List<BulkItemResponse> results = footballClubService.deletePlayersByIds(List.of(1L, 2L));
+
+        assertEquals(List.of(
+                BulkItemResponse.succeeded("1", "Player John Doe deleted from team Test Team."),
+                BulkItemResponse.failed("2", "Player ID: 2 not found.")), results);
+        verify(playerService, times(1)).deletePlayers(argThat(players -> List.copyOf(players).equals(List.of(player))));
+    }
+
     @Test
     public void testDeletePlayerById_playerExists() {
         Player player = Player.builder()
@@ -370,13 +528,12 @@ class FootballClubServiceTest {
                 )
                 .build();
 
-        when(playerService.getPlayerById(player.getId())).thenReturn(player);
-        when(playerService.doesPlayerExistById(player.getId())).thenReturn(true);
+        when(playerService.findPlayerById(player.getId())).thenReturn(Optional.of(player));
 
         String expectedMessage = "Player John Doe deleted from team Test Team.";
         String actualMessage = footballClubService.deletePlayerById(player.getId());
 
-        verify(playerService, times(1)).deletePlayerById(player.getId());
+        verify(playerService, times(1)).deletePlayer(player);
         assertEquals(expectedMessage, actualMessage);
     }
 
@@ -384,10 +541,10 @@ class FootballClubServiceTest {
     public void testDeletePlayerById_playerDoesNotExist() {
         long playerId = 1L;
 
-        when(playerService.doesPlayerExistById(playerId)).thenReturn(false);
+        when(playerService.findPlayerById(playerId)).thenReturn(Optional.empty());
 
-        verify(playerService, never()).deletePlayerById(playerId);
         assertThrows(NotFoundException.class, () -> footballClubService.deletePlayerById(playerId));
+        verify(playerService, never()).deletePlayer(any(Player.class));
     }
 
     @Test
@@ -433,20 +590,84 @@ class FootballClubServiceTest {
                 .build();
 
         //new team exists
-        when(teamService.doesTeamExistByTeamId(newTeamId)).thenReturn(true);
-        //get new team by id
-        when(teamService.getTeamById(2L)).thenReturn(newTeam);
+        when(teamService.getTeamNameByTeamId(newTeamId)).thenReturn(newTeam.getTeamName());
         //the player exists
-        when(playerService.doesPlayerExistById(playerId)).thenReturn(true);
-        //get player by id
-        when(playerService.getPlayerById(1L)).thenReturn(player);
-        //return 4 for number of the players in the team
-        when(playerService.getPlayerCountByTeamId(newTeamId)).thenReturn(4);
-        //return 3 for number of the foreign players in the team
-        when(playerService.getForeignPlayerCountByTeamId(newTeamId)).thenReturn(3);
+        when(playerService.findPlayerById(playerId)).thenReturn(Optional.of(player));
+        //the new team has room for the player
+        when(teamService.getTeamReference(newTeamId)).thenReturn(newTeam);
+        when(playerService.updatePlayerTeam(player, newTeam)).thenReturn(true);
+
+        String result = footballClubService.changePlayerTeam(teamUpdateDto);
+        assertEquals("John Doe 's team changed from Old Team to New Team.", result);
+        verify(playerService, times(1)).updatePlayerTeam(player, newTeam);
+    }
+
+    @Test
+    public void testTransferPlayers_swapBetweenFullTeams() {
+        Team firstTeam = Team.builder().id(1L).teamName("First Team").playerCount(PlayerService.MAX_PLAYER_COUNT).build();
+        Team secondTeam = Team.builder().id(2L).teamName("Second Team").playerCount(PlayerService.MAX_PLAYER_COUNT).build();
+        Player john = Player.builder().id(10L).firstName("John").lastName("Doe")
+                .nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(firstTeam).build();
+        Player jane = Player.builder().id(11L).firstName("Jane").lastName("Roe")
+                .nationality(Nationality.LOCAL).playerType(PlayerType.DEFENDER).team(secondTeam).build();
+        when(playerService.getPlayersByIds(Set.of(10L, 11L))).thenReturn(List.of(john, jane));
+
+        List<BulkItemResponse> results = footballClubService.transferPlayers(List.of(
+                new FootballPlayerTeamUpdateDto(10L, 2L), new FootballPlayerTeamUpdateDto(11L, 1L)));
+
+        assertEquals(List.of(
+                BulkItemResponse.succeeded("10", "John Doe 's team changed from First Team to Second Team."),
+                BulkItemResponse.succeeded("11", "Jane Roe 's team changed from Second Team to First Team.")), results);
+        //Both new teams are the old teams of the players, no team is read on its own
+        verify(teamService, never()).getTeamsByIds(anyCollection());
+        verify(playerService, times(1)).transferPlayers(List.of(john, jane), Map.of(10L, secondTeam, 11L, firstTeam));
+    }
+
+    @Test
+    public void testTransferPlayers_fullTeamRefusesAndOthersAreCheckedAgain() {
+        Team fullTeam = Team.builder().id(1L).teamName("Full Team").playerCount(PlayerService.MAX_PLAYER_COUNT).build();
+        Team otherTeam = Team.builder().id(2L).teamName("Other Team").playerCount(PlayerService.MAX_PLAYER_COUNT - 1).build();
+        Team emptyTeam = new Team(3L, "Empty Team");
+        Player fromOther = Player.builder().id(10L).firstName("John").lastName("Doe")
+                .nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(otherTeam).build();
+        Player fromEmpty = Player.builder().id(11L).firstName("Jane").lastName("Roe")
+                .nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(emptyTeam).build();
+        Player fromEmptyToo = Player.builder().id(12L).firstName("Jim").lastName("Poe")
+                .nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(emptyTeam).build();
+        when(playerService.getPlayersByIds(Set.of(10L, 11L, 12L))).thenReturn(List.of(fromOther, fromEmpty, fromEmptyToo));
+        when(teamService.getTeamsByIds(Set.of(1L))).thenReturn(List.of(fullTeam));
+
+        //The full team refuses John, so the other team keeps him and has room for one player only
+        List<BulkItemResponse> results = footballClubService.transferPlayers(List.of(
+                new FootballPlayerTeamUpdateDto(10L, 1L),
+                new FootballPlayerTeamUpdateDto(11L, 2L),
+                new FootballPlayerTeamUpdateDto(12L, 2L)));
+
+        assertEquals(List.of(
+                BulkItemResponse.failed("10", "Team Full Team would have 19 players after the transfers, the limit is 18."),
+                BulkItemResponse.failed("11", "Team Other Team would have 19 players after the transfers, the limit is 18."),
+                BulkItemResponse.failed("12", "Team Other Team would have 19 players after the transfers, the limit is 18.")), results);
+        verify(playerService, never()).transferPlayers(anyCollection(), anyMap());
+    }
+
+    @Test
+    public void testTransferPlayers_reportsInvalidTransfers() {
+        Team team = new Team(1L, "Test Team");
+        Player player = Player.builder().id(10L).firstName("John").lastName("Doe")
+                .nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(team).build();
+        when(playerService.getPlayersByIds(Set.of(10L, 11L))).thenReturn(List.of(player));
+        when(teamService.getTeamsByIds(Set.of(2L))).thenReturn(List.of());
+
+        List<BulkItemResponse> results = footballClubService.transferPlayers(List.of(
+                new FootballPlayerTeamUpdateDto(11L, 1L),
+                new FootballPlayerTeamUpdateDto(10L, 2L),
+                new FootballPlayerTeamUpdateDto(10L, 1L)));
 
-        footballClubService.changePlayerTeam(teamUpdateDto);
-        verify(playerService, times(1)).updatePlayerTeam(playerId, newTeam);
+        assertEquals(List.of(
+                BulkItemResponse.failed("11", "Player ID: 11 not found."),
+                BulkItemResponse.failed("10", "Team ID: 2 does not exists."),
+                BulkItemResponse.failed("10", "Player John Doe already plays for team Test Team.")), results);
+        verify(playerService, never()).transferPlayers(anyCollection(), anyMap());
     }
 
     @Test
@@ -458,10 +679,10 @@ class FootballClubServiceTest {
         FootballPlayerTeamUpdateDto teamUpdateDto = new FootballPlayerTeamUpdateDto(playerId, newTeamId);
 
         //new team does not exist
-        when(teamService.doesTeamExistByTeamId(newTeamId)).thenReturn(false);
+        when(teamService.getTeamNameByTeamId(newTeamId)).thenReturn(null);
 
         assertThrows(NotFoundException.class, () -> footballClubService.changePlayerTeam(teamUpdateDto));
-        verify(playerService, times(0)).updatePlayerTeam(playerId, newTeam);
+        verify(playerService, times(0)).updatePlayerTeam(any(Player.class), any(Team.class));
     }
 
     @Test
@@ -473,11 +694,11 @@ class FootballClubServiceTest {
         FootballPlayerTeamUpdateDto teamUpdateDto = new FootballPlayerTeamUpdateDto(playerId, newTeamId);
 
         //new team exists
-        when(teamService.doesTeamExistByTeamId(newTeamId)).thenReturn(true);
+        when(teamService.getTeamNameByTeamId(newTeamId)).thenReturn(newTeam.getTeamName());
         //the player does not exist
-        when(playerService.doesPlayerExistById(playerId)).thenReturn(false);
+        when(playerService.findPlayerById(playerId)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> footballClubService.changePlayerTeam(teamUpdateDto));
-        verify(playerService, times(0)).updatePlayerTeam(playerId, newTeam);
+        verify(playerService, times(0)).updatePlayerTeam(any(Player.class), any(Team.class));
     }
 
     @Test
@@ -499,18 +720,16 @@ class FootballClubServiceTest {
                 .build();
 
         //new team exists
-        when(teamService.doesTeamExistByTeamId(newTeamId)).thenReturn(true);
-        //get new team by id
-        when(teamService.getTeamById(2L)).thenReturn(newTeam);
+        when(teamService.getTeamNameByTeamId(newTeamId)).thenReturn(newTeam.getTeamName());
         //the player exists
-        when(playerService.doesPlayerExistById(playerId)).thenReturn(true);
-        //get player by id
-        when(playerService.getPlayerById(1L)).thenReturn(player);
-        //return maximum for number of the players in the team
-        when(playerService.getPlayerCountByTeamId(newTeamId)).thenReturn(PlayerService.MAX_PLAYER_COUNT);
+        when(playerService.findPlayerById(playerId)).thenReturn(Optional.of(player));
+        //the new team is full
+        newTeam.setPlayerCount(PlayerService.MAX_PLAYER_COUNT);
+        when(teamService.getTeamReference(newTeamId)).thenReturn(newTeam);
+        when(playerService.updatePlayerTeam(player, newTeam)).thenReturn(false);
+        when(playerService.getRosterCountsByTeamId(newTeamId)).thenReturn(newTeam);
 
         assertThrows(PlayerLimitException.class, () -> footballClubService.changePlayerTeam(teamUpdateDto));
-        verify(playerService, times(0)).updatePlayerTeam(playerId, newTeam);
     }
 
     @Test
@@ -532,20 +751,17 @@ class FootballClubServiceTest {
                 .build();
 
         //new team exists
-        when(teamService.doesTeamExistByTeamId(newTeamId)).thenReturn(true);
-        //get new team by id
-        when(teamService.getTeamById(2L)).thenReturn(newTeam);
+        when(teamService.getTeamNameByTeamId(newTeamId)).thenReturn(newTeam.getTeamName());
         //the player exists
-        when(playerService.doesPlayerExistById(playerId)).thenReturn(true);
-        //get player by id
-        when(playerService.getPlayerById(1L)).thenReturn(player);
-        //return 11 number of the players in the team
-        when(playerService.getPlayerCountByTeamId(newTeamId)).thenReturn(11);
-        //return 3 for number of the foreign players in the team
-        when(playerService.getForeignPlayerCountByTeamId(newTeamId)).thenReturn(PlayerService.MAX_FOREIGN_COUNT);
+        when(playerService.findPlayerById(playerId)).thenReturn(Optional.of(player));
+        //11 players in the team, foreign player limit is reached
+        newTeam.setPlayerCount(11);
+        newTeam.setForeignCount(PlayerService.MAX_FOREIGN_COUNT);
+        when(teamService.getTeamReference(newTeamId)).thenReturn(newTeam);
+        when(playerService.updatePlayerTeam(player, newTeam)).thenReturn(false);
+        when(playerService.getRosterCountsByTeamId(newTeamId)).thenReturn(newTeam);
 
         assertThrows(PlayerLimitException.class, () -> footballClubService.changePlayerTeam(teamUpdateDto));
-        verify(playerService, times(0)).updatePlayerTeam(playerId, newTeam);
     }
 
     @Test
@@ -567,22 +783,18 @@ class FootballClubServiceTest {
                 .build();
 
         //new team exists
-        when(teamService.doesTeamExistByTeamId(newTeamId)).thenReturn(true);
-        //get new team by id
-        when(teamService.getTeamById(2L)).thenReturn(newTeam);
+        when(teamService.getTeamNameByTeamId(newTeamId)).thenReturn(newTeam.getTeamName());
         //the player exists
-        when(playerService.doesPlayerExistById(playerId)).thenReturn(true);
-        //get player by id
-        when(playerService.getPlayerById(1L)).thenReturn(player);
-        //return 11 number of the players in the team
-        when(playerService.getPlayerCountByTeamId(newTeamId)).thenReturn(11);
-        //return 3 for number of the foreign players in the team
-        when(playerService.getForeignPlayerCountByTeamId(newTeamId)).thenReturn(3);
-        //return maximum number of goalkeepers in the team
-        when(playerService.getGoalkeeperCountByTeamId(newTeamId)).thenReturn(PlayerService.MAX_GOALKEEPER_COUNT);
+        when(playerService.findPlayerById(playerId)).thenReturn(Optional.of(player));
+        //11 players and 3 foreign players in the team, goalkeeper limit is reached
+        newTeam.setPlayerCount(11);
+        newTeam.setForeignCount(3);
+        newTeam.setGoalkeeperCount(PlayerService.MAX_GOALKEEPER_COUNT);
+        when(teamService.getTeamReference(newTeamId)).thenReturn(newTeam);
+        when(playerService.updatePlayerTeam(player, newTeam)).thenReturn(false);
+        when(playerService.getRosterCountsByTeamId(newTeamId)).thenReturn(newTeam);
 
         assertThrows(PlayerLimitException.class, () -> footballClubService.changePlayerTeam(teamUpdateDto));
-        verify(playerService, times(0)).updatePlayerTeam(playerId, newTeam);
     }
 
 }
\ No newline at end of file
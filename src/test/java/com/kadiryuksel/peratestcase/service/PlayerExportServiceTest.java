@@ -0,0 +1,82 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.projection.PlayerExportRow;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlayerExportServiceTest {
+    @Mock
+    private PlayerRepository playerRepository;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private PlayerExportService playerExportService;
+
+    @Test
+    public void exportPlayers_writesOneLinePerPlayer() throws IOException {
+        Stream<PlayerExportRow> rows = Stream.of(
+                new PlayerExportRow(1L, "John", "Doe", Nationality.LOCAL, PlayerType.FORWARD, 1L, "Team A"),
+                new PlayerExportRow(2L, "Jane", "Doe", Nationality.FOREIGN, PlayerType.GOALKEEPER, 2L, "Team B"));
+        when(playerRepository.streamAllForExport()).thenReturn(rows);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exportedRows = playerExportService.exportPlayers(outputStream);
+
+        String output = outputStream.toString(StandardCharsets.UTF_8);
+        String[] lines = output.split("\n");
+        assertEquals(2, exportedRows);
+        assertTrue(output.endsWith("\n"));
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":1,\"firstName\":\"John\",\"lastName\":\"Doe\",\"nationality\":\"LOCAL\","
+                + "\"playerType\":\"FORWARD\",\"teamId\":1,\"teamName\":\"Team A\"}", lines[0]);
+        assertTrue(lines[1].startsWith("{\"id\":2,"));
+        assertTrue(lines[1].endsWith("\"teamName\":\"Team B\"}"));
+    }
+
+    @Test
+    public void exportPlayers_flushesOnlyAtTheEnd() throws IOException {
+        Stream<PlayerExportRow> rows = IntStream.rangeClosed(1, 100)
+                .mapToObj(i -> new PlayerExportRow((long) i, "John", "Doe", Nationality.LOCAL, PlayerType.FORWARD, 1L, "Team A"));
+        when(playerRepository.streamAllForExport()).thenReturn(rows);
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+
+        assertEquals(100, playerExportService.exportPlayers(outputStream));
+
+        assertTrue(flushes.get() <= 2, String.format("%d flushes for 100 rows.", flushes.get()));
+    }
+
+    @Test
+    public void exportPlayers_emptyTableWritesNothing() throws IOException {
+        when(playerRepository.streamAllForExport()).thenReturn(Stream.empty());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertEquals(0, playerExportService.exportPlayers(outputStream));
+        assertEquals(0, outputStream.size());
+    }
+}
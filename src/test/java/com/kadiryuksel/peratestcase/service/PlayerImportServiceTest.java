@@ -0,0 +1,158 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.config.PlayerImportProperties;
+import com.kadiryuksel.peratestcase.config.VirtualThreadProperties;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.response.BulkItemResponse;
+import com.kadiryuksel.peratestcase.response.PlayerImportReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlayerImportServiceTest {
+    @Mock
+    private FootballClubService footballClubService;
+    @Mock
+    private TeamService teamService;
+
+    private PlayerImportService playerImportService;
+
+    @BeforeEach
+    public void setUp() {
+        PlayerImportProperties importProperties = new PlayerImportProperties();
+        importProperties.setChunkSize(2);
+        importProperties.setQueueCapacity(1);
+        playerImportService = new PlayerImportService(footballClubService, teamService, importProperties, new VirtualThreadProperties());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        playerImportService.shutdown();
+    }
+
+    private InputStream csv(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    //Accepts every player except the ones whose last name is Full
+    private List<BulkItemResponse> register(List<FootballPlayerRegistrationDto> playerDtos) {
+        return playerDtos.stream()
+                .map(playerDto -> playerDto.getLastName().equals("Full")
+                        ? BulkItemResponse.failed(playerDto.getFirstName() + " Full", "Team Team A already has 18 players in the team.")
+                        : BulkItemResponse.succeeded(playerDto.getFirstName() + " " + playerDto.getLastName(), "added"))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void importPlayers_reportsImportedAndRejectedRows() {
+        when(teamService.getTeamsByTeamNames(anyCollection())).thenReturn(List.of(new Team(1L, "Team A")));
+        when(footballClubService.addNewFootballPlayers(anyList())).thenAnswer(invocation -> register(invocation.getArgument(0)));
+
+        PlayerImportReport report = playerImportService.importPlayers(csv(
+                "first_name,last_name,nationality,player_type,team",
+                "John,Doe,LOCAL,FORWARD,Team A",
+                "Jane,Doe,foreign,goalkeeper,2",
+                ",Doe,LOCAL,FORWARD,Team A",
+                "Jack,Doe,ALIEN,FORWARD,Team A",
+                "Jim,Full,LOCAL,DEFENDER,Team A",
+                "Joe,Doe,LOCAL,DEFENDER,Team Z",
+                "\"Smith, Jr.\",Doe,LOCAL,MIDFIELDER,Team A"));
+
+        assertEquals(7, report.getTotalRows());
+        assertEquals(3, report.getImportedRows());
+        assertEquals(4, report.getRejectedRows());
+        assertEquals(List.of(4L, 5L, 6L, 7L), report.getRejections().stream()
+                .map(rejection -> rejection.getLine()).sorted().collect(Collectors.toList()));
+        assertTrue(report.getRowsPerSecond() > 0);
+        verify(footballClubService, atLeast(2)).addNewFootballPlayers(anyList());
+        verify(footballClubService).addNewFootballPlayers(argThat(playerDtos -> playerDtos.stream().anyMatch(playerDto ->
+                playerDto.getFirstName().equals("Jane")
+                        && playerDto.getTeamId() == 2L
+                        && playerDto.getNationality() == Nationality.FOREIGN
+                        && playerDto.getPlayerType() == PlayerType.GOALKEEPER)));
+    }
+
+    @Test
+    public void importPlayers_noValidRowsSkipsRegistration() {
+        PlayerImportReport report = playerImportService.importPlayers(csv("John,Doe,LOCAL", "", "Jane,Doe,LOCAL,FORWARD,"));
+
+        assertEquals(2, report.getTotalRows());
+        assertEquals(2, report.getRejectedRows());
+        verifyNoInteractions(footballClubService, teamService);
+    }
+
+    @Test
+    public void importPlayers_teamIdOutOfRangeIsRejected() {
+        PlayerImportReport report = playerImportService.importPlayers(csv("John,Doe,LOCAL,FORWARD,99999999999999999999"));
+
+        assertEquals(1, report.getRejectedRows());
+        assertEquals("Team ID: 99999999999999999999 is out of range.", report.getRejections().get(0).getMessage());
+        verifyNoInteractions(footballClubService, teamService);
+    }
+
+    @Test
+    public void importPlayers_listsOnlyTheFirstRejections() {
+        PlayerImportProperties importProperties = new PlayerImportProperties();
+        importProperties.setMaxListedRejections(2);
+        playerImportService.shutdown();
+        playerImportService = new PlayerImportService(footballClubService, teamService, importProperties, new VirtualThreadProperties());
+
+        PlayerImportReport report = playerImportService.importPlayers(csv("John,Doe", "Jane,Doe", "Jack,Doe", "Jim,Doe"));
+
+        assertEquals(4, report.getRejectedRows());
+        assertEquals(List.of(1L, 2L), report.getRejections().stream()
+                .map(rejection -> rejection.getLine()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void importPlayers_conflictRejectsOnlyItsChunk() {
+        when(footballClubService.addNewFootballPlayers(anyList()))
+                .thenAnswer(invocation -> register(invocation.getArgument(0)))
+                .thenThrow(new DataIntegrityViolationException("uk_player_first_name_last_name"))
+                .thenAnswer(invocation -> register(invocation.getArgument(0)));
+
+        PlayerImportReport report = playerImportService.importPlayers(csv(
+                "John,Doe,LOCAL,FORWARD,1", "Jane,Doe,LOCAL,FORWARD,1",
+                "Jack,Doe,LOCAL,FORWARD,1", "Jill,Doe,LOCAL,FORWARD,1",
+                "Jim,Doe,LOCAL,FORWARD,1"));
+
+        assertEquals(5, report.getTotalRows());
+        assertEquals(3, report.getImportedRows());
+        assertEquals(2, report.getRejectedRows());
+        assertEquals(List.of(3L, 4L), report.getRejections().stream()
+                .map(rejection -> rejection.getLine()).collect(Collectors.toList()));
+        assertEquals("Jack Doe", report.getRejections().get(0).getItem());
+    }
+
+    @Test
+    public void importPlayers_registrationFailureStopsImport() {
+        when(footballClubService.addNewFootballPlayers(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> playerImportService.importPlayers(csv(
+                "John,Doe,LOCAL,FORWARD,1", "Jane,Doe,LOCAL,FORWARD,1", "Jack,Doe,LOCAL,FORWARD,1")));
+    }
+
+    @Test
+    public void splitCsvLine_handlesQuotedFields() {
+        assertEquals(List.of("a", "b, c", "say \"hi\"", ""), PlayerImportService.splitCsvLine("a,\"b, c\",\"say \"\"hi\"\"\","));
+    }
+}
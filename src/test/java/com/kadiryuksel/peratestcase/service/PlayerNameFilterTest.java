@@ -0,0 +1,92 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.config.PlayerNameFilterProperties;
+import com.kadiryuksel.peratestcase.projection.PlayerName;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PlayerNameFilterTest {
+    @Mock
+    private PlayerRepository playerRepository;
+
+    private PlayerNameFilter playerNameFilter;
+
+    @BeforeEach
+    public void setUp() {
+        playerNameFilter = new PlayerNameFilter(playerRepository, new PlayerNameFilterProperties());
+    }
+
+    @Test
+    public void testMightExist_beforeRebuildEveryNameMayExist() {
+        assertTrue(playerNameFilter.mightExist("John", "Doe"));
+    }
+
+    @Test
+    public void testRebuild_loadsStoredNames() {
+        when(playerRepository.count()).thenReturn(1L);
+        when(playerRepository.streamAllNames()).thenReturn(Stream.of(playerName("John", "Doe")));
+
+        playerNameFilter.rebuild();
+
+        assertTrue(playerNameFilter.mightExist("John", "Doe"));
+        assertFalse(playerNameFilter.mightExist("Jane", "Doe"));
+        //First and last name are kept apart in the key
+        assertFalse(playerNameFilter.mightExist("JohnD", "oe"));
+    }
+
+    @Test
+    public void testPlayerAddedAndRemoved() {
+        when(playerRepository.count()).thenReturn(0L);
+        when(playerRepository.streamAllNames()).thenReturn(Stream.empty());
+        playerNameFilter.rebuild();
+
+        playerNameFilter.playerAdded("Jane", "Doe");
+        assertTrue(playerNameFilter.mightExist("Jane", "Doe"));
+
+        playerNameFilter.playerRemoved("Jane", "Doe");
+        assertFalse(playerNameFilter.mightExist("Jane", "Doe"));
+    }
+
+    @Test
+    public void testFalsePositiveRateStaysNearTheConfiguredRate() {
+        PlayerNameFilterProperties filterProperties = new PlayerNameFilterProperties();
+        filterProperties.setExpectedPlayers(10_000);
+        playerNameFilter = new PlayerNameFilter(playerRepository, filterProperties);
+        when(playerRepository.count()).thenReturn(10_000L);
+        when(playerRepository.streamAllNames()).thenReturn(Stream.iterate(0, i -> i + 1).limit(10_000)
+                .map(i -> playerName("Stored" + i, "Player")));
+        playerNameFilter.rebuild();
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (playerNameFilter.mightExist("New" + i, "Player")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "False positives: " + falsePositives);
+    }
+
+    private PlayerName playerName(String firstName, String lastName) {
+        return new PlayerName() {
+            @Override
+            public String getFirstName() {
+                return firstName;
+            }
+
+            @Override
+            public String getLastName() {
+                return lastName;
+            }
+        };
+    }
+}
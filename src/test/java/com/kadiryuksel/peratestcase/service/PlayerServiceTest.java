@@ -5,15 +5,25 @@ import com.kadiryuksel.peratestcase.entity.Player;
 import com.kadiryuksel.peratestcase.entity.Team;
 import com.kadiryuksel.peratestcase.enums.Nationality;
 import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.projection.PlayerName;
+import com.kadiryuksel.peratestcase.projection.RosterCounts;
 import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import com.kadiryuksel.peratestcase.response.CursorPage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,44 +33,45 @@ class PlayerServiceTest {
 
     @Mock
     private PlayerRepository playerRepository;
+    @Mock
+    private TeamRepository teamRepository;
+    @Mock
+    private PlayerNameFilter playerNameFilter;
+    @Mock
+    private TeamVersions teamVersions;
     @InjectMocks
     private PlayerService playerService;
 
     @Test
-    public void testDoesPlayerExistByFirstNameAndLastName() {
-        String firstName = "John";
-        String lastName = "Doe";
-        when(playerRepository.existsByFirstNameAndLastName(firstName, lastName)).thenReturn(true);
+    public void testFindPlayerByFirstNameAndLastName_nameRuledOutByFilter() {
+        when(playerNameFilter.mightExist("John", "Doe")).thenReturn(false);
 
-        boolean result = playerService.doesPlayerExistByFirstNameAndLastName(firstName, lastName);
+        Optional<Player> result = playerService.findPlayerByFirstNameAndLastName("John", "Doe");
 
-        assertTrue(result);
-        verify(playerRepository).existsByFirstNameAndLastName(firstName, lastName);
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(playerRepository);
     }
 
     @Test
-    public void testDoesPlayerExistById() {
+    public void testFindPlayerById() {
+        // Arrange
         long playerId = 1L;
-        when(playerRepository.existsById(playerId)).thenReturn(true);
+        Player player = new Player();
+        when(playerRepository.findById(playerId)).thenReturn(Optional.of(player));
 
-        boolean result = playerService.doesPlayerExistById(playerId);
+        Optional<Player> result = playerService.findPlayerById(playerId);
 
-        assertTrue(result);
-        verify(playerRepository).existsById(playerId);
+        assertTrue(result.isPresent());
+        assertEquals(player, result.get());
+        verify(playerRepository).findById(playerId);
     }
 
     @Test
-    public void testGetPlayerById() {
-        // Arrange
+    public void testFindPlayerById_playerDoesNotExist() {
         long playerId = 1L;
-        Player player = new Player();
-        when(playerRepository.getPlayerById(playerId)).thenReturn(player);
-
-        Player result = playerService.getPlayerById(playerId);
+        when(playerRepository.findById(playerId)).thenReturn(Optional.empty());
 
-        assertNotNull(result);
-        assertEquals(player, result);
-        verify(playerRepository).getPlayerById(playerId);
+        assertTrue(playerService.findPlayerById(playerId).isEmpty());
     }
 
     @Test
@@ -77,42 +88,64 @@ class PlayerServiceTest {
     }
 
     @Test
-    public void testGetPlayerByFirstNameAndLastName() {
+    public void testGetPlayersByTeamIdPage() {
+        long teamId = 1L;
+        List<Player> rows = List.of(
+                Player.builder().id(7L).firstName("John").build(),
+                Player.builder().id(9L).firstName("Jane").build());
+        when(playerRepository.findByTeamIdAndIdGreaterThanOrderByIdAsc(teamId, 5L, PageRequest.of(0, 2))).thenReturn(rows);
+
+        CursorPage<Player> result = playerService.getPlayersByTeamId(teamId, 5L, 1);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(7L, result.getNextCursor());
+    }
+
+    @Test
+    public void testFindPlayerByFirstNameAndLastName() {
         String firstName = "John";
         String lastName = "Doe";
         Player player = Player.builder().firstName(firstName).lastName(lastName).build();
-        when(playerRepository.getPlayerByFirstNameAndLastName(firstName, lastName)).thenReturn(player);
+        when(playerNameFilter.mightExist(firstName, lastName)).thenReturn(true);
+        when(playerRepository.findWithTeamByFirstNameAndLastName(firstName, lastName)).thenReturn(Optional.of(player));
 
-        Player result = playerService.getPlayerByFirstNameAndLastName(firstName, lastName);
+        Optional<Player> result = playerService.findPlayerByFirstNameAndLastName(firstName, lastName);
 
-        assertNotNull(result);
-        assertEquals(player, result);
-        verify(playerRepository).getPlayerByFirstNameAndLastName(firstName, lastName);
+        assertTrue(result.isPresent());
+        assertEquals(player, result.get());
+        verify(playerRepository).findWithTeamByFirstNameAndLastName(firstName, lastName);
     }
 
     @Test
-    public void testGetForeignPlayerCountByTeamId() {
-        // Arrange
-        long teamId = 1L;
-        int count = 2;
-        when(playerRepository.countByNationalityAndTeamId(Nationality.FOREIGN, teamId)).thenReturn(count);
+    public void testGetPlayersByNames_queriesEveryNameWhateverTheFilterSays() {
+        List<FootballPlayerRegistrationDto> playerDtos = List.of(
+                new FootballPlayerRegistrationDto("John", "Doe", Nationality.LOCAL, PlayerType.FORWARD, 1L),
+                new FootballPlayerRegistrationDto("Jane", "Roe", Nationality.LOCAL, PlayerType.FORWARD, 1L));
 
-        int result = playerService.getForeignPlayerCountByTeamId(teamId);
+        playerService.getPlayersByNames(playerDtos);
 
-        assertEquals(count, result);
-        verify(playerRepository).countByNationalityAndTeamId(Nationality.FOREIGN, teamId);
+        verify(playerRepository).findWithTeamByFirstNameInAndLastNameIn(Set.of("John", "Jane"), Set.of("Doe", "Roe"));
+        verifyNoInteractions(playerNameFilter);
     }
 
     @Test
-    public void testGetGoalkeeperCountByTeamId() {
+    public void testGetPlayersByNames_noNames() {
+        assertTrue(playerService.getPlayersByNames(List.of()).isEmpty());
+        verifyNoInteractions(playerRepository);
+    }
+
+    @Test
+    public void testGetRosterCountsByTeamId() {
         long teamId = 1L;
-        int count = 1;
-        when(playerRepository.countByPlayerTypeAndTeamId(PlayerType.GOALKEEPER, teamId)).thenReturn(count);
+        Team rosterCounts = Team.builder().playerCount(10).foreignCount(2).goalkeeperCount(1).build();
+        when(playerRepository.countRosterByTeamId(teamId)).thenReturn(rosterCounts);
 
-        int result = playerService.getGoalkeeperCountByTeamId(teamId);
+        RosterCounts result = playerService.getRosterCountsByTeamId(teamId);
 
-        assertEquals(count, result);
-        verify(playerRepository).countByPlayerTypeAndTeamId(PlayerType.GOALKEEPER, teamId);
+        assertEquals(10, result.getPlayerCount());
+        assertEquals(2, result.getForeignCount());
+        assertEquals(1, result.getGoalkeeperCount());
+        verify(playerRepository).countRosterByTeamId(teamId);
     }
 
     @Test
@@ -134,11 +167,30 @@ class PlayerServiceTest {
                 .build();
         when(playerRepository.save(any(Player.class))).thenReturn(savedPlayer);
 
-        String result = playerService.addNewFootballPlayer(playerDto, team);
-        String playerName = savedPlayer.getFirstName() + " " + savedPlayer.getLastName();
-        String expected = String.format("%s added to the team %s.", playerName, savedPlayer.getTeam().getTeamName());
-        assertEquals(expected, result);
+        Player result = playerService.addNewFootballPlayer(playerDto, team);
+        assertEquals(savedPlayer, result);
         verify(playerRepository, times(1)).save(any(Player.class));
+        verify(playerNameFilter, times(1)).playerAdded("John", "Doe");
+        verify(teamVersions, times(1)).teamChanged(1L);
+    }
+
+    @Test
+    public void addNewFootballPlayers_SavesAllPlayersAtOnce() {
+        Team team = new Team(1L, "Test Team");
+        List<Player> newPlayers = List.of(
+                Player.builder().firstName("John").lastName("Doe").team(team).build(),
+                Player.builder().firstName("Jane").lastName("Doe").team(team).build());
+        when(playerRepository.saveAll(newPlayers)).thenReturn(newPlayers);
+
+        List<Player> result = playerService.addNewFootballPlayers(newPlayers);
+
+        assertEquals(newPlayers, result);
+        verify(playerRepository, times(1)).saveAll(newPlayers);
+        verify(playerRepository, never()).save(any(Player.class));
+        verify(playerNameFilter, times(1)).playerAdded("John", "Doe");
+        verify(playerNameFilter, times(1)).playerAdded("Jane", "Doe");
+        //One invalidation per team
+        verify(teamVersions, times(1)).teamChanged(1L);
     }
 
     @Test
@@ -153,52 +205,189 @@ class PlayerServiceTest {
                 .playerType(PlayerType.GOALKEEPER)
                 .team(oldTeam)
                 .build();
-        Player updatedPlayer = Player.builder().
-                firstName("John")
-                .lastName("Doe")
-                .nationality(Nationality.FOREIGN)
-                .playerType(PlayerType.GOALKEEPER)
-                .team(newTeam)
-                .build();
-        when(playerRepository.getPlayerById(1L)).thenReturn(player);
-        when(playerRepository.save(any(Player.class))).thenReturn(updatedPlayer);
-        String playerName = String.format("%s %s", player.getFirstName(), player.getLastName());
-        String expectedMessage = String.format("%s 's team changed from %s to %s.", playerName, oldTeam.getTeamName(), newTeam.getTeamName());
-        String result = playerService.updatePlayerTeam(1L, newTeam);
+        when(teamRepository.admitPlayers(2L, 1, 1, 1, PlayerService.MAX_PLAYER_COUNT, PlayerService.MAX_FOREIGN_COUNT, PlayerService.MAX_GOALKEEPER_COUNT)).thenReturn(1);
+
+        assertTrue(playerService.updatePlayerTeam(player, newTeam));
 
-        assertEquals(expectedMessage, result);
         assertEquals(newTeam, player.getTeam());
-        verify(playerRepository, times(1)).getPlayerById(1L);
-        verify(playerRepository, times(1)).save(any(Player.class));
+        //The managed player is written on flush, it is not loaded or saved again
+        verifyNoInteractions(playerRepository);
+        //The lower team id is locked first
+        InOrder inOrder = inOrder(teamRepository);
+        inOrder.verify(teamRepository).releasePlayer(1L, 1, 1);
+        inOrder.verify(teamRepository).admitPlayers(2L, 1, 1, 1, PlayerService.MAX_PLAYER_COUNT, PlayerService.MAX_FOREIGN_COUNT, PlayerService.MAX_GOALKEEPER_COUNT);
+        verify(teamVersions, times(1)).teamChanged(1L);
+        verify(teamVersions, times(1)).teamChanged(2L);
     }
 
     @Test
-    public void deleteTeamPlayersByTeamId_ValidTeamId_Success() {
-        long teamId = 1L;
+    public void updatePlayerTeam_ToLowerTeamId_AdmitsBeforeRelease() {
+        Team oldTeam = new Team(2L, "Old Team");
+        Team newTeam = new Team(1L, "New Team");
+        Player player = Player.builder().nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(oldTeam).build();
+        when(teamRepository.admitPlayers(1L, 1, 0, 0, PlayerService.MAX_PLAYER_COUNT, PlayerService.MAX_FOREIGN_COUNT, PlayerService.MAX_GOALKEEPER_COUNT)).thenReturn(1);
 
-        playerService.deleteTeamPlayersByTeamId(teamId);
+        assertTrue(playerService.updatePlayerTeam(player, newTeam));
 
-        verify(playerRepository, times(1)).deleteAllByTeamId(teamId);
+        InOrder inOrder = inOrder(teamRepository);
+        inOrder.verify(teamRepository).admitPlayers(1L, 1, 0, 0, PlayerService.MAX_PLAYER_COUNT, PlayerService.MAX_FOREIGN_COUNT, PlayerService.MAX_GOALKEEPER_COUNT);
+        inOrder.verify(teamRepository).releasePlayer(2L, 0, 0);
     }
 
     @Test
-    public void deletePlayerById_ValidPlayerId_Success() {
-        long playerId = 1L;
+    public void updatePlayerTeam_NewTeamFull_ReturnsFalse() {
+        Team oldTeam = new Team(2L, "Old Team");
+        Team newTeam = new Team(1L, "New Team");
+        Player player = Player.builder().nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(oldTeam).build();
+        when(teamRepository.admitPlayers(1L, 1, 0, 0, PlayerService.MAX_PLAYER_COUNT, PlayerService.MAX_FOREIGN_COUNT, PlayerService.MAX_GOALKEEPER_COUNT)).thenReturn(0);
 
-        playerService.deletePlayerById(playerId);
+        assertFalse(playerService.updatePlayerTeam(player, newTeam));
 
-        verify(playerRepository, times(1)).deleteById(playerId);
+        assertEquals(oldTeam, player.getTeam());
+        verify(teamRepository, never()).releasePlayer(anyLong(), anyInt(), anyInt());
+        verifyNoInteractions(teamVersions);
     }
 
     @Test
-    public void testGetPlayerCountByTeamId() {
-        long teamId = 1L;
-        int expectedCount = 10;
-        when(playerRepository.countByTeamId(teamId)).thenReturn(expectedCount);
+    public void deletePlayersOfTeams_ValidTeamIds_Success() {
+        List<Long> teamIds = List.of(1L, 2L);
+        PlayerName playerName = mock(PlayerName.class);
+        when(playerName.getFirstName()).thenReturn("John");
+        when(playerName.getLastName()).thenReturn("Doe");
+        when(playerRepository.findNamesByTeamIdIn(teamIds)).thenReturn(List.of(playerName));
+
+        playerService.deletePlayersOfTeams(teamIds);
+
+        verify(playerRepository, times(1)).deleteByTeamIdIn(teamIds);
+        verify(playerNameFilter, times(1)).playerRemoved("John", "Doe");
+        verify(teamVersions, times(1)).teamChanged(1L);
+        verify(teamVersions, times(1)).teamChanged(2L);
+    }
 
-        int actualCount = playerService.getPlayerCountByTeamId(teamId);
+    @Test
+    public void transferPlayers_SwapOfGoalkeeperAndForward_OneNetUpdatePerTeam() {
+        Team firstTeam = new Team(1L, "First Team");
+        Team secondTeam = new Team(2L, "Second Team");
+        Player goalkeeper = Player.builder().id(10L).nationality(Nationality.FOREIGN).playerType(PlayerType.GOALKEEPER).team(firstTeam).build();
+        Player forward = Player.builder().id(11L).nationality(Nationality.FOREIGN).playerType(PlayerType.FORWARD).team(secondTeam).build();
+        when(teamRepository.admitPlayers(1L, 0, 0, -1, PlayerService.MAX_PLAYER_COUNT, PlayerService.MAX_FOREIGN_COUNT, PlayerService.MAX_GOALKEEPER_COUNT)).thenReturn(1);
+        when(teamRepository.admitPlayers(2L, 0, 0, 1, PlayerService.MAX_PLAYER_COUNT, PlayerService.MAX_FOREIGN_COUNT, PlayerService.MAX_GOALKEEPER_COUNT)).thenReturn(1);
+
+        playerService.transferPlayers(List.of(goalkeeper, forward), Map.of(10L, secondTeam, 11L, firstTeam));
+
+        assertEquals(secondTeam, goalkeeper.getTeam());
+        assertEquals(firstTeam, forward.getTeam());
+        verify(teamVersions, times(1)).teamChanged(1L);
+        verify(teamVersions, times(1)).teamChanged(2L);
+    }
+
+    @Test
+    public void transferPlayers_SameKindSwap_NoCounterUpdate() {
+        Team firstTeam = new Team(1L, "First Team");
+        Team secondTeam = new Team(2L, "Second Team");
+        Player first = Player.builder().id(10L).nationality(Nationality.LOCAL).playerType(PlayerType.DEFENDER).team(firstTeam).build();
+        Player second = Player.builder().id(11L).nationality(Nationality.LOCAL).playerType(PlayerType.DEFENDER).team(secondTeam).build();
+
+        playerService.transferPlayers(List.of(first, second), Map.of(10L, secondTeam, 11L, firstTeam));
+
+        verifyNoInteractions(teamRepository);
+        verify(teamVersions, times(1)).teamChanged(1L);
+        verify(teamVersions, times(1)).teamChanged(2L);
+    }
+
+    @Test
+    public void transferPlayers_RosterChangedMeanwhile_ThrowsBeforeMovingPlayers() {
+        Team oldTeam = new Team(1L, "Old Team");
+        Team newTeam = new Team(2L, "New Team");
+        Player player = Player.builder().id(10L).nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(oldTeam).build();
+        when(teamRepository.admitPlayers(1L, -1, 0, 0, PlayerService.MAX_PLAYER_COUNT, PlayerService.MAX_FOREIGN_COUNT, PlayerService.MAX_GOALKEEPER_COUNT)).thenReturn(1);
+        when(teamRepository.admitPlayers(2L, 1, 0, 0, PlayerService.MAX_PLAYER_COUNT, PlayerService.MAX_FOREIGN_COUNT, PlayerService.MAX_GOALKEEPER_COUNT)).thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> playerService.transferPlayers(List.of(player), Map.of(10L, newTeam)));
+        assertEquals(oldTeam, player.getTeam());
+    }
+
+    @Test
+    public void deletePlayers_PlayersOfTwoTeams_OneReleasePerTeam() {
+        Team firstTeam = new Team(1L, "First Team");
+        Team secondTeam = new Team(2L, "Second Team");
+        List<Player> players = List.of(
+                Player.builder().id(10L).firstName("A").lastName("A").nationality(Nationality.FOREIGN).playerType(PlayerType.GOALKEEPER).team(firstTeam).build(),
+                Player.builder().id(11L).firstName("B").lastName("B").nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(firstTeam).build(),
+                Player.builder().id(12L).firstName("C").lastName("C").nationality(Nationality.FOREIGN).playerType(PlayerType.DEFENDER).team(secondTeam).build());
+        when(playerRepository.deleteByIdIn(List.of(10L, 11L, 12L))).thenReturn(3);
+
+        playerService.deletePlayers(players);
+
+        verify(teamRepository, times(1)).releasePlayers(1L, 2, 1, 1);
+        verify(teamRepository, times(1)).releasePlayers(2L, 1, 1, 0);
+        verify(teamVersions, times(1)).teamChanged(1L);
+        verify(teamVersions, times(1)).teamChanged(2L);
+        verify(playerNameFilter, times(3)).playerRemoved(anyString(), anyString());
+    }
+
+    @Test
+    public void deletePlayers_TeamsOutOfOrder_ReleasedInTeamIdOrder() {
+        List<Player> players = List.of(
+                Player.builder().id(10L).firstName("A").lastName("A").nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(new Team(2L, "Second Team")).build(),
+                Player.builder().id(11L).firstName("B").lastName("B").nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(new Team(1L, "First Team")).build());
+        when(playerRepository.deleteByIdIn(List.of(10L, 11L))).thenReturn(2);
+
+        playerService.deletePlayers(players);
+
+        InOrder inOrder = inOrder(teamRepository);
+        inOrder.verify(teamRepository).releasePlayers(1L, 1, 0, 0);
+        inOrder.verify(teamRepository).releasePlayers(2L, 1, 0, 0);
+    }
+
+    @Test
+    public void deletePlayers_AlreadyDeleted_ThrowsWithoutRelease() {
+        List<Player> players = List.of(Player.builder().id(10L).firstName("A").lastName("A")
+                .nationality(Nationality.LOCAL).playerType(PlayerType.FORWARD).team(new Team(1L, "Team")).build());
+        when(playerRepository.deleteByIdIn(List.of(10L))).thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> playerService.deletePlayers(players));
+
+        verify(teamRepository, never()).releasePlayers(anyLong(), anyInt(), anyInt(), anyInt());
+        verify(playerNameFilter, never()).playerRemoved(anyString(), anyString());
+    }
+
+    @Test
+    public void deletePlayer_ValidPlayer_Success() {
+        long playerId = 1L;
+        Player player = Player.builder()
+                .id(playerId)
+                .nationality(Nationality.LOCAL)
+                .playerType(PlayerType.GOALKEEPER)
+                .team(new Team(3L, "Test Team"))
+                .build();
+        playerService.deletePlayer(player);
+
+        verify(playerRepository, times(1)).delete(player);
+        verify(playerNameFilter, times(1)).playerRemoved(player.getFirstName(), player.getLastName());
+        verify(teamRepository, times(1)).releasePlayer(3L, 0, 1);
+        verify(teamRepository, times(1)).evictTeamFromCache(3L);
+        verify(teamVersions, times(1)).teamChanged(3L);
+    }
+
+    @Test
+    public void admitPlayerToTeam_TeamHasRoom_ReturnsTrue() {
+        when(teamRepository.admitPlayers(1L, 1, 1, 0,
+                PlayerService.MAX_PLAYER_COUNT, PlayerService.MAX_FOREIGN_COUNT, PlayerService.MAX_GOALKEEPER_COUNT))
+                .thenReturn(1);
+
+        assertTrue(playerService.admitPlayerToTeam(1L, Nationality.FOREIGN, PlayerType.FORWARD));
+        verify(teamRepository, times(1)).evictTeamFromCache(1L);
+    }
+
+    @Test
+    public void admitPlayerToTeam_LimitReached_ReturnsFalse() {
+        when(teamRepository.admitPlayers(1L, 1, 0, 1,
+                PlayerService.MAX_PLAYER_COUNT, PlayerService.MAX_FOREIGN_COUNT, PlayerService.MAX_GOALKEEPER_COUNT))
+                .thenReturn(0);
 
-        verify(playerRepository).countByTeamId(teamId);
-        assertEquals(expectedCount, actualCount);
+        assertFalse(playerService.admitPlayerToTeam(1L, Nationality.LOCAL, PlayerType.GOALKEEPER));
+        verify(teamRepository, never()).evictTeamFromCache(anyLong());
     }
 }
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.ClubFixture;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerTeamUpdateDto;
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.enums.Nationality;
+import com.kadiryuksel.peratestcase.enums.PlayerType;
+import com.kadiryuksel.peratestcase.exception.PlayerLimitException;
+import com.kadiryuksel.peratestcase.projection.RosterCounts;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Hits the same team from many threads and checks that the roster limits hold at every moment
+//Tagged stress and left out of mvn test, run with mvn -Pstress test
+//Thread and round counts can be raised with -Dstress.threads and -Dstress.rounds to compare admission strategies
+@Tag("stress")
+@SpringBootTest
+@ActiveProfiles("test")
+class RosterAdmissionStressTest {
+    private static final int THREADS = Integer.getInteger("stress.threads", 16);
+    private static final int ROUNDS = Integer.getInteger("stress.rounds", 50);
+    private static final long SAMPLE_INTERVAL_MILLIS = 5;
+    private final static Logger logger = LoggerFactory.getLogger(RosterAdmissionStressTest.class);
+
+    @Autowired
+    private FootballClubService footballClubService;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    private ClubFixture clubs;
+
+    @BeforeEach
+    public void setUp() {
+        clubs = new ClubFixture(footballClubService, teamRepository, playerRepository, "Stress");
+    }
+
+    @Test
+    void testConcurrentRegistrationsNeverExceedRosterLimits() throws Exception {
+        long teamId = clubs.createTeam();
+        AdmissionStats stats = new AdmissionStats();
+
+        runAgainstTeam(teamId, stats, threadIndex -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                register(teamId, nationalityOf(i + threadIndex), playerTypeOf(i + threadIndex), stats);
+            }
+        });
+
+        assertEquals(PlayerService.MAX_PLAYER_COUNT, stats.admitted.get());
+        assertEquals(PlayerService.MAX_PLAYER_COUNT, playerRepository.countRosterByTeamId(teamId).getPlayerCount());
+        assertCountersMatchRoster(teamId);
+        report("Registration", stats);
+    }
+
+    @Test
+    void testConcurrentRegistrationsAndDeletionsKeepCountersConsistent() throws Exception {
+        long teamId = clubs.createTeam();
+        AdmissionStats stats = new AdmissionStats();
+
+        runAgainstTeam(teamId, stats, threadIndex -> {
+            List<String> ownPlayers = new ArrayList<>();
+            for (int i = 0; i < ROUNDS; i++) {
+                String playerName = register(teamId, nationalityOf(i + threadIndex), playerTypeOf(i + threadIndex), stats);
+                if (playerName != null) {
+                    ownPlayers.add(playerName);
+                }
+                //Frees a place now and then so the team keeps admitting players
+                if (ownPlayers.size() > 1) {
+                    footballClubService.deletePlayerById(clubs.playerId(ownPlayers.remove(0)));
+                }
+            }
+        });
+
+        assertTrue(stats.admitted.get() > PlayerService.MAX_PLAYER_COUNT);
+        assertCountersMatchRoster(teamId);
+        report("Registration and deletion", stats);
+    }
+
+    @Test
+    void testConcurrentTransfersNeverExceedRosterLimits() throws Exception {
+        long targetTeamId = clubs.createTeam();
+        List<Long> sourceTeamIds = new ArrayList<>();
+        List<List<Long>> benches = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long sourceTeamId = clubs.createTeam();
+            List<Long> bench = new ArrayList<>();
+            for (int i = 0; i < PlayerService.MAX_PLAYER_COUNT; i++) {
+                PlayerType playerType = i < PlayerService.MAX_GOALKEEPER_COUNT ? PlayerType.GOALKEEPER : PlayerType.MIDFIELDER;
+                String playerName = register(sourceTeamId, Nationality.LOCAL, playerType, new AdmissionStats());
+                bench.add(clubs.playerId(playerName));
+            }
+            sourceTeamIds.add(sourceTeamId);
+            benches.add(bench);
+        }
+        AdmissionStats stats = new AdmissionStats();
+
+        runAgainstTeam(targetTeamId, stats, threadIndex -> {
+            for (long playerId : benches.get(threadIndex)) {
+                try {
+                    footballClubService.changePlayerTeam(new FootballPlayerTeamUpdateDto(playerId, targetTeamId));
+                    stats.admitted.incrementAndGet();
+                } catch (PlayerLimitException exception) {
+                    stats.rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(PlayerService.MAX_PLAYER_COUNT, stats.admitted.get());
+        assertCountersMatchRoster(targetTeamId);
+        for (long sourceTeamId : sourceTeamIds) {
+            assertCountersMatchRoster(sourceTeamId);
+        }
+        report("Transfer", stats);
+    }
+
+    //Moves in both directions lock the two team rows in the same order, so they never deadlock
+    @Test
+    void testOppositeTransfersBetweenTwoTeams() throws Exception {
+        long firstTeamId = clubs.createTeam();
+        long secondTeamId = clubs.createTeam();
+        List<Long> playerIds = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long teamId = t % 2 == 0 ? firstTeamId : secondTeamId;
+            String playerName = register(teamId, Nationality.LOCAL, PlayerType.MIDFIELDER, new AdmissionStats());
+            playerIds.add(playerName == null ? null : clubs.playerId(playerName));
+        }
+        AdmissionStats stats = new AdmissionStats();
+
+        runAgainstTeam(firstTeamId, stats, threadIndex -> {
+            Long playerId = playerIds.get(threadIndex);
+            long teamId = threadIndex % 2 == 0 ? firstTeamId : secondTeamId;
+            for (int i = 0; playerId != null && i < ROUNDS; i++) {
+                long otherTeamId = teamId == firstTeamId ? secondTeamId : firstTeamId;
+                try {
+                    footballClubService.changePlayerTeam(new FootballPlayerTeamUpdateDto(playerId, otherTeamId));
+                    stats.admitted.incrementAndGet();
+                    teamId = otherTeamId;
+                } catch (PlayerLimitException exception) {
+                    stats.rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertCountersMatchRoster(firstTeamId);
+        assertCountersMatchRoster(secondTeamId);
+        report("Opposite transfers", stats);
+    }
+
+    //Returns the first name of the admitted player or null when the team had no room
+    private String register(long teamId, Nationality nationality, PlayerType playerType, AdmissionStats stats) {
+        String firstName = clubs.uniqueName();
+        try {
+            footballClubService.addNewFootballPlayer(clubs.playerDto(firstName, teamId, nationality, playerType));
+            stats.admitted.incrementAndGet();
+            return firstName;
+        } catch (PlayerLimitException exception) {
+            stats.rejected.incrementAndGet();
+            return null;
+        }
+    }
+
+    private Nationality nationalityOf(int i) {
+        return i % 3 == 0 ? Nationality.FOREIGN : Nationality.LOCAL;
+    }
+
+    private PlayerType playerTypeOf(int i) {
+        PlayerType[] playerTypes = PlayerType.values();
+        return playerTypes[i % playerTypes.length];
+    }
+
+    //Starts all workers at once and samples the roster of the team until they finish
+    private void runAgainstTeam(long teamId, AdmissionStats stats, ThreadWork work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<String> violations = new CopyOnWriteArrayList<>();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int threadIndex = t;
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    work.run(threadIndex);
+                    return null;
+                }));
+            }
+            Future<?> sampler = executor.submit(() -> {
+                while (running.get()) {
+                    violations.addAll(limitViolations(playerRepository.countRosterByTeamId(teamId)));
+                    Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+                }
+                return null;
+            });
+
+            long startTime = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(5, TimeUnit.MINUTES);
+            }
+            stats.elapsedNanos = System.nanoTime() - startTime;
+            running.set(false);
+            sampler.get(1, TimeUnit.MINUTES);
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+        assertEquals(List.of(), violations);
+        assertEquals(List.of(), limitViolations(playerRepository.countRosterByTeamId(teamId)));
+    }
+
+    private List<String> limitViolations(RosterCounts rosterCounts) {
+        List<String> violations = new ArrayList<>();
+        if (rosterCounts.getPlayerCount() > PlayerService.MAX_PLAYER_COUNT) {
+            violations.add(String.format("%d players", rosterCounts.getPlayerCount()));
+        }
+        if (rosterCounts.getForeignCount() > PlayerService.MAX_FOREIGN_COUNT) {
+            violations.add(String.format("%d foreign players", rosterCounts.getForeignCount()));
+        }
+        if (rosterCounts.getGoalkeeperCount() > PlayerService.MAX_GOALKEEPER_COUNT) {
+            violations.add(String.format("%d goalkeepers", rosterCounts.getGoalkeeperCount()));
+        }
+        return violations;
+    }
+
+    private void assertCountersMatchRoster(long teamId) {
+        Team team = teamRepository.findTeamById(teamId);
+        RosterCounts roster = playerRepository.countRosterByTeamId(teamId);
+        assertEquals(roster.getPlayerCount(), team.getPlayerCount());
+        assertEquals(roster.getForeignCount(), team.getForeignCount());
+        assertEquals(roster.getGoalkeeperCount(), team.getGoalkeeperCount());
+    }
+
+    private void report(String scenario, AdmissionStats stats) {
+        double seconds = stats.elapsedNanos / 1_000_000_000.0;
+        int attempts = stats.admitted.get() + stats.rejected.get();
+        logger.info(String.format("%s: %d admitted, %d rejected by %d threads in %.0f ms (%.1f admissions/s, %.1f attempts/s).",
+                scenario, stats.admitted.get(), stats.rejected.get(), THREADS, seconds * 1000,
+                stats.admitted.get() / seconds, attempts / seconds));
+    }
+
+    private interface ThreadWork {
+        void run(int threadIndex);
+    }
+
+    private static final class AdmissionStats {
+        private final AtomicInteger admitted = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private long elapsedNanos;
+    }
+}
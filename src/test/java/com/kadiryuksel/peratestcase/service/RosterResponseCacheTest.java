@@ -0,0 +1,127 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.config.RosterCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RosterResponseCacheTest {
+    private RosterCacheProperties rosterCacheProperties;
+    private MeterRegistry meterRegistry;
+    private RosterResponseCache rosterResponseCache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        rosterCacheProperties = new RosterCacheProperties();
+        rosterCacheProperties.setTimeToLiveMillis(0);
+        meterRegistry = new SimpleMeterRegistry();
+        rosterResponseCache = new RosterResponseCache(rosterCacheProperties, meterRegistry);
+    }
+
+    @Test
+    public void testSecondReadIsServedFromTheCache() {
+        RosterResponseCache.Page first = rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[1]"));
+        RosterResponseCache.Page second = rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[2]"));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, rosterResponseCache.getHitCount());
+        assertEquals(1, rosterResponseCache.getMissCount());
+    }
+
+    @Test
+    public void testLookupsAreExposedAsMetrics() {
+        rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[1]"));
+        rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[unused]"));
+        rosterResponseCache.getPage(2L, 0, 0, 50, () -> load("[2]"));
+
+        assertEquals(1, meterRegistry.get("roster.cache.lookups").tag("result", "hit").functionCounter().count());
+        assertEquals(2, meterRegistry.get("roster.cache.lookups").tag("result", "miss").functionCounter().count());
+        assertEquals(2, meterRegistry.get("roster.cache.size").gauge().value());
+    }
+
+    @Test
+    public void testLeastRecentlyReadPageOfATeamIsDroppedFirst() {
+        rosterCacheProperties.setMaxPagesPerTeam(2);
+        rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[first]"));
+        rosterResponseCache.getPage(1L, 0, 10, 50, () -> load("[second]"));
+        rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[unused]"));
+
+        rosterResponseCache.getPage(1L, 0, 20, 50, () -> load("[third]"));
+
+        assertEquals("[first]", body(rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[first reloaded]"))));
+        assertEquals("[second reloaded]", body(rosterResponseCache.getPage(1L, 0, 10, 50, () -> load("[second reloaded]"))));
+    }
+
+    @Test
+    public void testPagesAreKeptPerCursorAndSize() {
+        rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[1]"));
+        rosterResponseCache.getPage(1L, 0, 10, 50, () -> load("[2]"));
+        rosterResponseCache.getPage(1L, 0, 0, 10, () -> load("[3]"));
+
+        assertEquals(3, loads.get());
+        assertEquals("[2]", body(rosterResponseCache.getPage(1L, 0, 10, 50, () -> load("[4]"))));
+    }
+
+    @Test
+    public void testNewTeamVersionReplacesOnlyThatTeam() {
+        rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[1]"));
+        rosterResponseCache.getPage(1L, 0, 10, 50, () -> load("[1 later]"));
+        rosterResponseCache.getPage(2L, 0, 0, 50, () -> load("[2]"));
+
+        assertEquals("[3]", body(rosterResponseCache.getPage(1L, 1, 0, 50, () -> load("[3]"))));
+        assertEquals("[4]", body(rosterResponseCache.getPage(1L, 1, 10, 50, () -> load("[4]"))));
+        assertEquals("[2]", body(rosterResponseCache.getPage(2L, 0, 0, 50, () -> load("[5]"))));
+    }
+
+    @Test
+    public void testPageLoadedUnderAnOlderVersionIsNotStored() {
+        rosterResponseCache.getPage(1L, 2, 0, 50, () -> load("[fresh]"));
+        //A reader that read the version before the last write finishes late
+        rosterResponseCache.getPage(1L, 1, 10, 50, () -> load("[stale]"));
+
+        assertEquals("[fresh]", body(rosterResponseCache.getPage(1L, 2, 0, 50, () -> load("[reloaded]"))));
+        assertEquals("[current]", body(rosterResponseCache.getPage(1L, 2, 10, 50, () -> load("[current]"))));
+    }
+
+    @Test
+    public void testPagesExpireAfterTheTimeToLive() throws InterruptedException {
+        rosterCacheProperties.setTimeToLiveMillis(20);
+        rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[written here]"));
+
+        //Another instance changed the roster, the version of this one stays the same
+        Thread.sleep(50);
+
+        assertEquals("[written elsewhere]", body(rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[written elsewhere]"))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testLeastRecentlyReadTeamIsDroppedFirst() {
+        rosterCacheProperties.setMaxTeams(2);
+        rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[1]"));
+        rosterResponseCache.getPage(2L, 0, 0, 50, () -> load("[2]"));
+        rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[unused]"));
+
+        rosterResponseCache.getPage(3L, 0, 0, 50, () -> load("[3]"));
+
+        assertEquals(2, rosterResponseCache.size());
+        assertEquals("[1]", body(rosterResponseCache.getPage(1L, 0, 0, 50, () -> load("[reloaded]"))));
+        assertEquals("[2 reloaded]", body(rosterResponseCache.getPage(2L, 0, 0, 50, () -> load("[2 reloaded]"))));
+    }
+
+    private RosterResponseCache.Page load(String json) {
+        loads.incrementAndGet();
+        return new RosterResponseCache.Page(json.getBytes(), null);
+    }
+
+    private String body(RosterResponseCache.Page page) {
+        return new String(page.getBody());
+    }
+}
@@ -0,0 +1,152 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.ClubFixture;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerTeamUpdateDto;
+import com.kadiryuksel.peratestcase.dto.TeamNameUpdateDto;
+import com.kadiryuksel.peratestcase.entity.Player;
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Every call below runs in its own transaction, so repeated reads can only be answered by the second-level cache
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+    @Autowired
+    private FootballClubService footballClubService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private PlayerService playerService;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private PlayerRepository playerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private ClubFixture clubs;
+
+    @BeforeEach
+    public void setUp() {
+        clubs = new ClubFixture(footballClubService, teamRepository, playerRepository, "Cache");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    public void testTeamIsReadFromTheCache() {
+        long teamId = clubs.createTeam();
+        teamService.findTeamById(teamId);
+
+        statistics.clear();
+        Team team = teamService.findTeamById(teamId).orElseThrow();
+
+        assertEquals(teamId, team.getId());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testRenamedTeamIsNotServedStale() {
+        long teamId = clubs.createTeam();
+        teamService.findTeamById(teamId);
+        String newTeamName = clubs.uniqueName();
+
+        footballClubService.changeTeamName(new TeamNameUpdateDto(newTeamName, teamId));
+
+        assertEquals(newTeamName, teamService.findTeamById(teamId).orElseThrow().getTeamName());
+    }
+
+    @Test
+    public void testDeletedTeamIsNotServed() {
+        long teamId = clubs.createTeam();
+        teamService.findTeamById(teamId);
+
+        footballClubService.deleteTeamById(teamId);
+
+        assertTrue(teamService.findTeamById(teamId).isEmpty());
+    }
+
+    @Test
+    public void testRosterCountersAreNotServedStale() {
+        long teamId = clubs.createTeam();
+        teamService.findTeamById(teamId);
+
+        clubs.createPlayer(teamId);
+
+        assertEquals(1, teamService.findTeamById(teamId).orElseThrow().getPlayerCount());
+    }
+
+    @Test
+    public void testRosterChangeKeepsOtherTeamsCached() {
+        long teamId = clubs.createTeam();
+        long otherTeamId = clubs.createTeam();
+        teamService.findTeamById(otherTeamId);
+
+        clubs.createPlayer(teamId);
+
+        statistics.clear();
+        teamService.findTeamById(otherTeamId).orElseThrow();
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testRosterQueryIsCached() {
+        long teamId = clubs.createTeam();
+        clubs.createPlayer(teamId);
+        clubs.createPlayer(teamId);
+        playerService.getPlayersByTeamId(teamId, 0, 50);
+
+        statistics.clear();
+        List<Player> players = playerService.getPlayersByTeamId(teamId, 0, 50).getItems();
+
+        assertEquals(2, players.size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testRosterQueryFollowsRegistrationsAndTransfers() {
+        long teamId = clubs.createTeam();
+        long otherTeamId = clubs.createTeam();
+        String firstName = clubs.createPlayer(teamId);
+        playerService.getPlayersByTeamId(teamId, 0, 50);
+        playerService.getPlayersByTeamId(otherTeamId, 0, 50);
+
+        String secondFirstName = clubs.createPlayer(teamId);
+        assertEquals(List.of(firstName, secondFirstName), firstNames(teamId));
+
+        long playerId = clubs.playerId(firstName);
+        footballClubService.changePlayerTeam(new FootballPlayerTeamUpdateDto(playerId, otherTeamId));
+        assertEquals(List.of(secondFirstName), firstNames(teamId));
+        assertEquals(List.of(firstName), firstNames(otherTeamId));
+
+        footballClubService.deletePlayerById(playerId);
+        assertEquals(List.of(), firstNames(otherTeamId));
+    }
+
+    private List<String> firstNames(long teamId) {
+        return playerService.getPlayersByTeamId(teamId, 0, 50).getItems().stream()
+                .map(Player::getFirstName)
+                .collect(Collectors.toList());
+    }
+
+
+
+}
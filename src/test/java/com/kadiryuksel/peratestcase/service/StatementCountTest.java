@@ -0,0 +1,200 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.ClubFixture;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerRegistrationDto;
+import com.kadiryuksel.peratestcase.dto.FootballPlayerTeamUpdateDto;
+import com.kadiryuksel.peratestcase.dto.TeamNameUpdateDto;
+import com.kadiryuksel.peratestcase.exception.PlayerAlreadyExistsException;
+import com.kadiryuksel.peratestcase.repository.PlayerRepository;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import com.kadiryuksel.peratestcase.response.BulkItemResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Upper bounds for the SQL statements of each operation, raise a bound only together with the reason
+@SpringBootTest
+@ActiveProfiles("test")
+class StatementCountTest {
+    @Autowired
+    private FootballClubService footballClubService;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private PlayerRepository playerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private boolean statisticsEnabled;
+    private ClubFixture clubs;
+
+    @BeforeEach
+    public void setUp() {
+        clubs = new ClubFixture(footballClubService, teamRepository, playerRepository, "Count");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statisticsEnabled = statistics.isStatisticsEnabled();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(statisticsEnabled);
+    }
+
+    @Test
+    public void testAddNewFootballPlayer() {
+        long teamId = clubs.createTeam();
+        //Admission update and insert, the team comes from the directory and the new name from the name filter
+        assertMaxStatements(2, () -> footballClubService.addNewFootballPlayer(clubs.playerDto(clubs.uniqueName(), teamId)));
+    }
+
+    @Test
+    public void testAddNewFootballPlayer_nameTaken() {
+        long teamId = clubs.createTeam();
+        String firstName = clubs.createPlayer(teamId);
+        //One query returns the existing player with its team
+        assertMaxStatements(1, () -> assertThrows(PlayerAlreadyExistsException.class,
+                () -> footballClubService.addNewFootballPlayer(clubs.playerDto(firstName, teamId))));
+    }
+
+    @Test
+    public void testAddNewFootballPlayers() {
+        long teamId = clubs.createTeam();
+        List<FootballPlayerRegistrationDto> playerDtos = new ArrayList<>();
+        for (int i = 0; i < PlayerService.MAX_PLAYER_COUNT; i++) {
+            playerDtos.add(clubs.playerDto(clubs.uniqueName(), teamId));
+        }
+        //Team, existing names, admission, at most two sequence calls for the ids and one batch of inserts whatever the number of players
+        assertMaxStatements(6, () -> assertTrue(footballClubService.addNewFootballPlayers(playerDtos).stream().allMatch(BulkItemResponse::isSuccess)));
+        assertEquals(PlayerService.MAX_PLAYER_COUNT, playerRepository.countRosterByTeamId(teamId).getPlayerCount());
+    }
+
+    @Test
+    public void testAddNewFootballTeams() {
+        List<String> teamNames = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            teamNames.add(clubs.uniqueName());
+        }
+        //Existing names, at most two sequence calls and one batch of inserts
+        assertMaxStatements(4, () -> assertTrue(footballClubService.addNewFootballTeams(teamNames).stream().allMatch(BulkItemResponse::isSuccess)));
+    }
+
+    @Test
+    public void testChangePlayerTeam() {
+        long oldTeamId = clubs.createTeam();
+        long newTeamId = clubs.createTeam();
+        long playerId = clubs.playerId(clubs.createPlayer(oldTeamId));
+        //Player with its team, admission, release and the player update
+        assertMaxStatements(4, () -> footballClubService.changePlayerTeam(new FootballPlayerTeamUpdateDto(playerId, newTeamId)));
+    }
+
+    @Test
+    public void testDeletePlayerById() {
+        long teamId = clubs.createTeam();
+        long playerId = clubs.playerId(clubs.createPlayer(teamId));
+        //Player with its team, release and delete
+        assertMaxStatements(3, () -> footballClubService.deletePlayerById(playerId));
+    }
+
+    @Test
+    public void testDeleteTeamById() {
+        long teamId = clubs.createTeam();
+        for (int i = 0; i < 3; i++) {
+            clubs.createPlayer(teamId);
+        }
+        //Player names, one player delete and the team delete
+        assertMaxStatements(3, () -> footballClubService.deleteTeamById(teamId));
+    }
+
+    @Test
+    public void testDeleteTeamsByIds() {
+        List<Long> teamIds = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            long teamId = clubs.createTeam();
+            for (int i = 0; i < 3; i++) {
+                clubs.createPlayer(teamId);
+            }
+            teamIds.add(teamId);
+        }
+        //Teams, player names, one player delete and one team delete whatever the number of teams
+        assertMaxStatements(4, () -> footballClubService.deleteTeamsByIds(teamIds));
+        assertEquals(List.of(), teamRepository.findAllById(teamIds));
+    }
+
+    @Test
+    public void testDeletePlayersByIds() {
+        List<Long> playerIds = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            long teamId = clubs.createTeam();
+            for (int i = 0; i < 3; i++) {
+                playerIds.add(clubs.playerId(clubs.createPlayer(teamId)));
+            }
+        }
+        //Players with their teams, one delete and one release per team
+        assertMaxStatements(4, () -> footballClubService.deletePlayersByIds(playerIds));
+        assertEquals(List.of(), playerRepository.findAllById(playerIds));
+    }
+
+    @Test
+    public void testTransferPlayers_swapBetweenFullTeams() {
+        long firstTeamId = clubs.createTeam();
+        long secondTeamId = clubs.createTeam();
+        List<Long> firstPlayerIds = new ArrayList<>();
+        List<Long> secondPlayerIds = new ArrayList<>();
+        for (int i = 0; i < PlayerService.MAX_PLAYER_COUNT; i++) {
+            firstPlayerIds.add(clubs.playerId(clubs.createPlayer(firstTeamId)));
+            secondPlayerIds.add(clubs.playerId(clubs.createPlayer(secondTeamId)));
+        }
+        List<FootballPlayerTeamUpdateDto> transfers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            transfers.add(new FootballPlayerTeamUpdateDto(firstPlayerIds.get(i), secondTeamId));
+            transfers.add(new FootballPlayerTeamUpdateDto(secondPlayerIds.get(i), firstTeamId));
+        }
+        //Players with their teams and one batch of player updates, a swap of alike players leaves the counters as they are
+        assertMaxStatements(2, () -> assertTrue(footballClubService.transferPlayers(transfers).stream().allMatch(BulkItemResponse::isSuccess)));
+        assertEquals(PlayerService.MAX_PLAYER_COUNT, playerRepository.countRosterByTeamId(firstTeamId).getPlayerCount());
+        assertEquals(PlayerService.MAX_PLAYER_COUNT, teamRepository.findTeamById(secondTeamId).getPlayerCount());
+    }
+
+    @Test
+    public void testTransferPlayers_toOtherTeams() {
+        long oldTeamId = clubs.createTeam();
+        List<Long> newTeamIds = List.of(clubs.createTeam(), clubs.createTeam());
+        List<FootballPlayerTeamUpdateDto> transfers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            transfers.add(new FootballPlayerTeamUpdateDto(clubs.playerId(clubs.createPlayer(oldTeamId)), newTeamIds.get(i % 2)));
+        }
+        //Players with their teams, the new teams, one counter update per team and one batch of player updates
+        assertMaxStatements(6, () -> footballClubService.transferPlayers(transfers));
+        assertEquals(0, teamRepository.findTeamById(oldTeamId).getPlayerCount());
+        assertEquals(2, playerRepository.countRosterByTeamId(newTeamIds.get(1)).getPlayerCount());
+    }
+
+    @Test
+    public void testChangeTeamName() {
+        long teamId = clubs.createTeam();
+        //Team row and its update
+        assertMaxStatements(2, () -> footballClubService.changeTeamName(new TeamNameUpdateDto(clubs.uniqueName(), teamId)));
+    }
+
+    private void assertMaxStatements(int maxStatements, Runnable operation) {
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        operation.run();
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= maxStatements,
+                String.format("Expected at most %d SQL statements but %d were run.", maxStatements, statements));
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.entity.Team;
+import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TeamDirectoryTest {
+    @Mock
+    private TeamRepository teamRepository;
+
+    private MeterRegistry meterRegistry;
+    private TeamDirectory teamDirectory;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        teamDirectory = new TeamDirectory(teamRepository, meterRegistry);
+    }
+
+    @Test
+    public void testLookupsByIdAndExactName() {
+        teamDirectory.put(1L, "Team A");
+
+        assertEquals("Team A", teamDirectory.getTeamName(1L));
+        assertEquals(Optional.of(1L), teamDirectory.findTeamId("Team A"));
+        assertNull(teamDirectory.getTeamName(2L));
+        assertTrue(teamDirectory.findTeamId("team a").isEmpty());
+        assertEquals(2, teamDirectory.getHitCount());
+        assertEquals(2, teamDirectory.getMissCount());
+    }
+
+    @Test
+    public void testNamesDifferingInCaseAreDifferentTeams() {
+        teamDirectory.put(1L, "Ajax");
+        teamDirectory.put(2L, "AJAX");
+        teamDirectory.remove(2L);
+
+        assertEquals(Optional.of(1L), teamDirectory.findTeamId("Ajax"));
+        assertTrue(teamDirectory.findTeamId("AJAX").isEmpty());
+    }
+
+    @Test
+    public void testLookupsAreExposedAsMetrics() {
+        teamDirectory.put(1L, "Team A");
+        teamDirectory.getTeamName(1L);
+        teamDirectory.getTeamName(2L);
+        teamDirectory.findTeamId("Team B");
+
+        assertEquals(1, meterRegistry.get("team.directory.lookups").tag("result", "hit").functionCounter().count());
+        assertEquals(2, meterRegistry.get("team.directory.lookups").tag("result", "miss").functionCounter().count());
+        assertEquals(1, meterRegistry.get("team.directory.size").gauge().value());
+    }
+
+    @Test
+    public void testRenameDropsTheOldName() {
+        teamDirectory.put(1L, "Team A");
+        teamDirectory.put(1L, "Team B");
+
+        assertTrue(teamDirectory.findTeamId("Team A").isEmpty());
+        assertEquals(Optional.of(1L), teamDirectory.findTeamId("Team B"));
+        assertEquals("Team B", teamDirectory.getTeamName(1L));
+    }
+
+    @Test
+    public void testRemove() {
+        teamDirectory.put(1L, "Team A");
+        teamDirectory.remove(1L);
+
+        assertNull(teamDirectory.getTeamName(1L));
+        assertTrue(teamDirectory.findTeamId("Team A").isEmpty());
+        assertEquals(0, teamDirectory.size());
+    }
+
+    @Test
+    public void testReloadReplacesAllEntries() {
+        teamDirectory.put(1L, "Deleted Elsewhere");
+        when(teamRepository.findAll()).thenReturn(List.of(new Team(2L, "Team B"), new Team(3L, "Team C")));
+
+        teamDirectory.reload();
+
+        assertNull(teamDirectory.getTeamName(1L));
+        assertEquals(Optional.of(3L), teamDirectory.findTeamId("Team C"));
+        assertEquals(2, teamDirectory.size());
+    }
+}
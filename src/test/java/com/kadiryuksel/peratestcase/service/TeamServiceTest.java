@@ -2,14 +2,18 @@ package com.kadiryuksel.peratestcase.service;
 
 import com.kadiryuksel.peratestcase.entity.Team;
 import com.kadiryuksel.peratestcase.repository.TeamRepository;
+import com.kadiryuksel.peratestcase.response.CursorPage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,6 +22,10 @@ import static org.mockito.Mockito.*;
 class TeamServiceTest {
     @Mock
     private TeamRepository teamRepository;
+    @Mock
+    private TeamDirectory teamDirectory;
+    @Mock
+    private TeamVersions teamVersions;
 
     @InjectMocks
     private TeamService teamService;
@@ -35,9 +43,46 @@ class TeamServiceTest {
         String expectedMessage = String.format("Team added to the team table: %d %s", savedTeam.getId(), savedTeam.getTeamName());
 
         verify(teamRepository).save(newTeam);
+        verify(teamDirectory).put(1L, teamName);
+        verify(teamVersions).teamListChanged();
         assertEquals(expectedMessage, infoMessage);
     }
 
+    @Test
+    public void addTeams_shouldSaveAllTeamsAtOnce() {
+        List<String> teamNames = List.of("Team A", "Team B");
+        List<Team> savedTeams = List.of(new Team(1L, "Team A"), new Team(2L, "Team B"));
+        when(teamRepository.saveAll(anyList())).thenReturn(savedTeams);
+
+        List<Team> result = teamService.addTeams(teamNames);
+
+        verify(teamRepository, times(1)).saveAll(argThat(teams -> ((List<Team>) teams).size() == 2));
+        verify(teamRepository, never()).save(any(Team.class));
+        assertEquals(savedTeams, result);
+    }
+
+    @Test
+    public void getExistingTeamNames_shouldQueryAllNamesAtOnce() {
+        List<String> teamNames = List.of("Team A", "Team B");
+        when(teamRepository.findExistingTeamNames(Set.of("Team A", "Team B"))).thenReturn(List.of("Team B"));
+
+        Set<String> result = teamService.getExistingTeamNames(teamNames);
+
+        verify(teamRepository, times(1)).findExistingTeamNames(Set.of("Team A", "Team B"));
+        assertEquals(Set.of("Team B"), result);
+    }
+
+    @Test
+    public void getExistingTeamNames_onlyQueriesNamesMissingFromTheDirectory() {
+        List<String> teamNames = List.of("Team A", "Team B");
+        when(teamDirectory.findTeamId("Team A")).thenReturn(Optional.of(1L));
+
+        Set<String> result = teamService.getExistingTeamNames(teamNames);
+
+        verify(teamRepository, times(1)).findExistingTeamNames(Set.of("Team B"));
+        assertEquals(Set.of("Team A"), result);
+    }
+
     @Test
     public void updateTeamName_shouldUpdateTeamNameAndReturnMessage() {
         long teamId = 1L;
@@ -51,23 +96,36 @@ class TeamServiceTest {
         String expectedMessage = String.format("Team %s name updated to %s.", oldName, team.getTeamName());
         verify(teamRepository).findTeamById(teamId);
         verify(teamRepository).save(team);
+        verify(teamDirectory).put(teamId, newName);
+        verify(teamVersions).teamChanged(teamId);
         assertEquals(expectedMessage, message);
     }
 
     @Test
-    public void getAllTeams_shouldReturnListOfTeams() {
-        // Arrange
-        List<Team> teams = new ArrayList<>();
-        teams.add(Team.builder().id(1L).teamName("Team 1").build());
-        teams.add(Team.builder().id(2L).teamName("Team 2").build());
-        when(teamRepository.findAll()).thenReturn(teams);
+    public void getTeams_shouldReturnPageAndNextCursor() {
+        List<Team> rows = new ArrayList<>();
+        rows.add(Team.builder().id(3L).teamName("Team 3").build());
+        rows.add(Team.builder().id(4L).teamName("Team 4").build());
+        rows.add(Team.builder().id(5L).teamName("Team 5").build());
+        when(teamRepository.findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 3))).thenReturn(rows);
+
+        CursorPage<Team> result = teamService.getTeams(2L, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals("Team 3", result.getItems().get(0).getTeamName());
+        assertEquals("Team 4", result.getItems().get(1).getTeamName());
+        assertEquals(4L, result.getNextCursor());
+    }
+
+    @Test
+    public void getTeams_lastPageHasNoNextCursor() {
+        List<Team> rows = List.of(Team.builder().id(1L).teamName("Team 1").build());
+        when(teamRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 3))).thenReturn(rows);
 
-        List<Team> result = teamService.getAllTeams();
+        CursorPage<Team> result = teamService.getTeams(0L, 2);
 
-        verify(teamRepository).findAll();
-        assertEquals(2, result.size());
-        assertEquals("Team 1", result.get(0).getTeamName());
-        assertEquals("Team 2", result.get(1).getTeamName());
+        assertEquals(rows, result.getItems());
+        assertNull(result.getNextCursor());
     }
 
     @Test
@@ -83,33 +141,66 @@ class TeamServiceTest {
     }
 
     @Test
-    public void doesTeamExistByTeamId_shouldReturnTrueIfTeamExists() {
+    public void doesTeamExistByTeamId_shouldAnswerFromTheDirectory() {
+        long teamId = 1L;
+        when(teamDirectory.getTeamName(teamId)).thenReturn("Test Team");
+
+        boolean result = teamService.doesTeamExistByTeamId(teamId);
+
+        verifyNoInteractions(teamRepository);
+        assertTrue(result);
+    }
+
+    @Test
+    public void doesTeamExistByTeamId_missFallsBackToDatabase() {
         long teamId = 1L;
-        when(teamRepository.existsById(teamId)).thenReturn(true);
+        when(teamRepository.findTeamById(teamId)).thenReturn(new Team(teamId, "Test Team"));
 
         boolean result = teamService.doesTeamExistByTeamId(teamId);
 
-        verify(teamRepository).existsById(teamId);
+        verify(teamRepository).findTeamById(teamId);
+        verify(teamDirectory).put(teamId, "Test Team");
         assertTrue(result);
     }
 
     @Test
-    public void doesTeamExistByTeamName_shouldReturnTrueIfTeamExists() {
+    public void doesTeamExistByTeamId_shouldReturnFalseIfTeamDoesNotExist() {
+        long teamId = 1L;
+        when(teamRepository.findTeamById(teamId)).thenReturn(null);
+
+        assertFalse(teamService.doesTeamExistByTeamId(teamId));
+        verify(teamDirectory, never()).put(anyLong(), anyString());
+    }
+
+    @Test
+    public void doesTeamExistByTeamName_shouldAnswerFromTheDirectory() {
         String teamName = "Test Team";
-        when(teamRepository.existsTeamByTeamName(teamName)).thenReturn(true);
+        when(teamDirectory.findTeamId(teamName)).thenReturn(Optional.of(1L));
 
         boolean result = teamService.doesTeamExistByTeamName(teamName);
 
-        verify(teamRepository).existsTeamByTeamName(teamName);
+        verifyNoInteractions(teamRepository);
         assertTrue(result);
     }
 
+    @Test
+    public void doesTeamExistByTeamName_missFallsBackToDatabase() {
+        String teamName = "Test Team";
+        when(teamRepository.findTeamByTeamName(teamName)).thenReturn(null);
+
+        boolean result = teamService.doesTeamExistByTeamName(teamName);
+
+        verify(teamRepository).findTeamByTeamName(teamName);
+        assertFalse(result);
+    }
+
     @Test
     public void testDeleteTeamById() {
         long teamId = 1L;
-        doNothing().when(teamRepository).deleteById(teamId);
         teamService.deleteTeamById(teamId);
-        verify(teamRepository, times(1)).deleteById(teamId);
+        verify(teamRepository, times(1)).deleteTeamById(teamId);
+        verify(teamVersions, times(1)).teamChanged(teamId);
+        verify(teamDirectory, times(1)).remove(teamId);
     }
 
     @Test
@@ -123,13 +214,45 @@ class TeamServiceTest {
     }
 
     @Test
-    public void testGetTeamById() {
+    public void testGetTeamsByIds() {
+        List<Long> teamIds = List.of(1L, 2L);
+        List<Team> teams = List.of(new Team(1L, "Team A"), new Team(2L, "Team B"));
+        when(teamRepository.findAllById(teamIds)).thenReturn(teams);
+
+        List<Team> result = teamService.getTeamsByIds(teamIds);
+
+        verify(teamRepository, times(1)).findAllById(teamIds);
+        assertEquals(teams, result);
+    }
+
+    @Test
+    public void testGetTeamsByTeamNames() {
+        List<String> teamNames = List.of("Team A", "Team B");
+        List<Team> teams = List.of(new Team(1L, "Team A"));
+        when(teamRepository.findByTeamNameIn(teamNames)).thenReturn(teams);
+
+        List<Team> result = teamService.getTeamsByTeamNames(teamNames);
+
+        verify(teamRepository, times(1)).findByTeamNameIn(teamNames);
+        assertEquals(teams, result);
+    }
+
+    @Test
+    public void testFindTeamById() {
         long teamId = 1L;
         String teamName = "Team A";
         Team team = Team.builder().id(teamId).teamName(teamName).build();
-        when(teamRepository.findTeamById(teamId)).thenReturn(team);
-        Team result = teamService.getTeamById(teamId);
-        assertEquals(team, result);
+        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        Optional<Team> result = teamService.findTeamById(teamId);
+        assertEquals(Optional.of(team), result);
+    }
+
+    @Test
+    public void testGetTeamReference() {
+        long teamId = 1L;
+        Team reference = Team.builder().id(teamId).build();
+        when(teamRepository.getReferenceById(teamId)).thenReturn(reference);
+        assertEquals(reference, teamService.getTeamReference(teamId));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.kadiryuksel.peratestcase.service;
+
+import com.kadiryuksel.peratestcase.config.RosterCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TeamVersionsTest {
+    private final RosterCacheProperties rosterCacheProperties = new RosterCacheProperties();
+    private final TeamVersions teamVersions = new TeamVersions(rosterCacheProperties);
+
+    @BeforeEach
+    public void setUp() {
+        rosterCacheProperties.setTimeToLiveMillis(0);
+    }
+
+    @Test
+    public void testTeamChangeRaisesTheTeamAndTheTeamList() {
+        String teamETag = teamVersions.getTeamETag(1L);
+        String otherTeamETag = teamVersions.getTeamETag(2L);
+        String teamListETag = teamVersions.getTeamListETag();
+
+        teamVersions.teamChanged(1L);
+
+        assertNotEquals(teamETag, teamVersions.getTeamETag(1L));
+        assertEquals(otherTeamETag, teamVersions.getTeamETag(2L));
+        assertNotEquals(teamListETag, teamVersions.getTeamListETag());
+    }
+
+    @Test
+    public void testTeamListChangeKeepsTheRosters() {
+        String teamETag = teamVersions.getTeamETag(1L);
+        long teamListVersion = teamVersions.getTeamListVersion();
+
+        teamVersions.teamListChanged();
+
+        assertEquals(teamETag, teamVersions.getTeamETag(1L));
+        assertTrue(teamVersions.getTeamListVersion() > teamListVersion);
+    }
+
+    @Test
+    public void testVersionsOnlyGrow() {
+        teamVersions.teamChanged(1L);
+        long firstVersion = teamVersions.getTeamVersion(1L);
+        teamVersions.teamChanged(2L);
+        teamVersions.teamChanged(1L);
+
+        assertTrue(teamVersions.getTeamVersion(1L) > firstVersion);
+        assertTrue(teamVersions.getTeamVersion(2L) > firstVersion);
+    }
+
+    @Test
+    public void testETagsChangeWithTheTimeToLivePeriod() throws InterruptedException {
+        rosterCacheProperties.setTimeToLiveMillis(20);
+        String eTag = teamVersions.getTeamETag(1L);
+
+        Thread.sleep(50);
+
+        assertNotEquals(eTag, teamVersions.getTeamETag(1L));
+    }
+
+    @Test
+    public void testETagsAreStrong() {
+        String eTag = teamVersions.getTeamETag(1L);
+
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+    }
+}